@@ -0,0 +1,188 @@
+package com.banquito.core.loan.catalog.benchmark;
+
+import com.banquito.core.loan.catalog.enums.BaseCalculoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.enums.TipoCalculoComisionEnum;
+import com.banquito.core.loan.catalog.enums.TipoClienteEnum;
+import com.banquito.core.loan.catalog.enums.TipoComisionEnum;
+import com.banquito.core.loan.catalog.enums.TipoGarantiaEnum;
+import com.banquito.core.loan.catalog.enums.TipoSeguroEnum;
+import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import com.banquito.core.loan.catalog.repository.GarantiasRepository;
+import com.banquito.core.loan.catalog.repository.PrestamosRepository;
+import com.banquito.core.loan.catalog.repository.SegurosRepository;
+import com.banquito.core.loan.catalog.repository.TiposComisionesRepository;
+import com.banquito.core.loan.catalog.repository.TiposPrestamosRepository;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.GarantiasService;
+import com.banquito.core.loan.catalog.service.PrestamosRelacionesService;
+import com.banquito.core.loan.catalog.service.PrestamosService;
+import com.banquito.core.loan.catalog.service.SegurosService;
+import com.banquito.core.loan.catalog.service.TiposComisionesService;
+import com.banquito.core.loan.catalog.service.TiposPrestamosService;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Catálogo sintético con la proporción habitual de datos de referencia por producto, y los servicios
+// reales cableados sobre repositorios en memoria (sin Spring, sin caché, sin MongoDB).
+final class CatalogoEnMemoria {
+
+    static final int TIPOS_PRESTAMOS = 20;
+    static final int SEGUROS = 10;
+    static final int TIPOS_COMISIONES = 10;
+    static final int GARANTIAS = 5;
+
+    final List<Prestamos> prestamos = new ArrayList<>();
+    final List<TiposPrestamos> tiposPrestamos = new ArrayList<>();
+    final List<Seguros> seguros = new ArrayList<>();
+    final List<TiposComisiones> tiposComisiones = new ArrayList<>();
+    final List<Garantias> garantias = new ArrayList<>();
+
+    final CatalogoCambiosService catalogoCambiosService = new CatalogoCambiosService(evento -> {
+    }, marcasVacias());
+    final GarantiasService garantiasService;
+    final SegurosService segurosService;
+    final TiposComisionesService tiposComisionesService;
+    final TiposPrestamosService tiposPrestamosService;
+    final PrestamosService prestamosService;
+    final PrestamosRelacionesService prestamosRelacionesService;
+
+    CatalogoEnMemoria(int productos) {
+        for (int i = 0; i < GARANTIAS; i++) {
+            this.garantias.add(garantia(i));
+        }
+        for (int i = 0; i < SEGUROS; i++) {
+            this.seguros.add(seguro(i));
+        }
+        for (int i = 0; i < TIPOS_COMISIONES; i++) {
+            this.tiposComisiones.add(tipoComision(i));
+        }
+        for (int i = 0; i < TIPOS_PRESTAMOS; i++) {
+            this.tiposPrestamos.add(tipoPrestamo(i));
+        }
+        for (int i = 0; i < productos; i++) {
+            this.prestamos.add(prestamo(i));
+        }
+
+        this.garantiasService = new GarantiasService(RepositorioEnMemoria.de(GarantiasRepository.class,
+                Garantias::getId, Garantias::getEstado, this.garantias), this.catalogoCambiosService, null);
+        this.segurosService = new SegurosService(RepositorioEnMemoria.de(SegurosRepository.class,
+                Seguros::getId, Seguros::getEstado, this.seguros), this.catalogoCambiosService, null);
+        this.tiposComisionesService = new TiposComisionesService(RepositorioEnMemoria.de(
+                TiposComisionesRepository.class, TiposComisiones::getId, TiposComisiones::getEstado,
+                this.tiposComisiones), this.catalogoCambiosService, null);
+        this.tiposPrestamosService = new TiposPrestamosService(RepositorioEnMemoria.de(
+                TiposPrestamosRepository.class, TiposPrestamos::getId, TiposPrestamos::getEstado,
+                this.tiposPrestamos), this.garantiasService, this.catalogoCambiosService, null);
+        PrestamosRepository prestamosRepository = RepositorioEnMemoria.de(PrestamosRepository.class,
+                Prestamos::getId, Prestamos::getEstado, this.prestamos);
+        this.prestamosService = new PrestamosService(prestamosRepository, this.tiposPrestamosService,
+                this.segurosService, this.tiposComisionesService, this.catalogoCambiosService, null);
+        this.prestamosRelacionesService = new PrestamosRelacionesService(prestamosRepository, this.prestamosService,
+                this.tiposPrestamosService, this.garantiasService, this.segurosService, this.tiposComisionesService,
+                false, false, 2000);
+    }
+
+    // La marca de cada colección se lee con una agregación; sin MongoDB se responde con una colección vacía
+    // para que las escrituras medidas no paguen una excepción y su registro en el log
+    private static MongoTemplate marcasVacias() {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        when(mongoTemplate.aggregate(any(Aggregation.class), anyString(), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
+        return mongoTemplate;
+    }
+
+    static String id(String prefijo, int i) {
+        // Mismo formato que un ObjectId (24 caracteres hexadecimales)
+        return String.format("%s%020x", prefijo, i);
+    }
+
+    static Garantias garantia(int i) {
+        Garantias garantia = new Garantias(id("6a00", i));
+        garantia.setTipoGarantia(TipoGarantiaEnum.values()[i % TipoGarantiaEnum.values().length].getValor());
+        garantia.setDescripcion("Garantía " + i);
+        garantia.setValor(BigDecimal.valueOf(10_000L + i * 1_000L));
+        garantia.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        garantia.setVersion(1L);
+        return garantia;
+    }
+
+    static Seguros seguro(int i) {
+        Seguros seguro = new Seguros(id("6b00", i));
+        seguro.setTipoSeguro(TipoSeguroEnum.values()[i % TipoSeguroEnum.values().length].getValor());
+        seguro.setCompania("Aseguradora " + i);
+        seguro.setMontoAsegurado(BigDecimal.valueOf(50_000L));
+        seguro.setFechaInicio(LocalDate.of(2024, 1, 1));
+        seguro.setFechaFin(LocalDate.of(2030, 12, 31));
+        seguro.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        seguro.setVersion(1L);
+        return seguro;
+    }
+
+    static TiposComisiones tipoComision(int i) {
+        TiposComisiones tipoComision = new TiposComisiones(id("6c00", i));
+        tipoComision.setTipo(TipoComisionEnum.values()[i % TipoComisionEnum.values().length].getValor());
+        tipoComision.setNombre("Comisión " + i);
+        tipoComision.setDescripcion("Comisión de prueba " + i);
+        tipoComision.setTipoCalculo(TipoCalculoComisionEnum.values()[i % 2].getValor());
+        tipoComision.setMonto(BigDecimal.valueOf(25L + i));
+        tipoComision.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        tipoComision.setVersion(1L);
+        return tipoComision;
+    }
+
+    static TiposPrestamos tipoPrestamo(int i) {
+        TiposPrestamos tipoPrestamo = new TiposPrestamos(id("6d00", i));
+        tipoPrestamo.setIdMoneda("USD");
+        tipoPrestamo.setNombre("Tipo de préstamo " + i);
+        tipoPrestamo.setDescripcion("Tipo de préstamo de prueba " + i);
+        tipoPrestamo.setRequisitos("Cédula, rol de pagos");
+        tipoPrestamo.setTipoCliente(TipoClienteEnum.values()[i % TipoClienteEnum.values().length].getValor());
+        tipoPrestamo.setFechaCreacion(LocalDateTime.of(2024, 1, 1, 8, 0));
+        tipoPrestamo.setFechaModificacion(LocalDateTime.of(2024, 6, 1, 8, 0));
+        tipoPrestamo.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        tipoPrestamo.setVersion(1L);
+        tipoPrestamo.setEsquemaAmortizacion("FRANCES");
+        tipoPrestamo.setIdGarantia(id("6a00", i % GARANTIAS));
+        return tipoPrestamo;
+    }
+
+    static Prestamos prestamo(int i) {
+        Prestamos prestamo = new Prestamos(id("6e00", i));
+        prestamo.setIdTipoPrestamo(id("6d00", i % TIPOS_PRESTAMOS));
+        prestamo.setIdMoneda("USD");
+        prestamo.setNombre("Préstamo " + i);
+        prestamo.setDescripcion("Producto de préstamo de prueba " + i);
+        prestamo.setFechaModificacion(LocalDateTime.of(2024, 6, 1, 8, 0));
+        prestamo.setBaseCalculo(BaseCalculoEnum.values()[i % 2].getValor());
+        prestamo.setTasaInteres(new BigDecimal("12.50"));
+        prestamo.setMontoMinimo(BigDecimal.valueOf(1_000L + (i % 50) * 100L));
+        prestamo.setMontoMaximo(BigDecimal.valueOf(50_000L + (i % 50) * 1_000L));
+        prestamo.setPlazoMinimoMeses(6);
+        prestamo.setPlazoMaximoMeses(60 + i % 24);
+        prestamo.setTipoAmortizacion("FRANCES");
+        prestamo.setIdSeguro(id("6b00", i % SEGUROS));
+        prestamo.setIdTipoComision(id("6c00", i % TIPOS_COMISIONES));
+        prestamo.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        prestamo.setVersion(1L);
+        return prestamo;
+    }
+}
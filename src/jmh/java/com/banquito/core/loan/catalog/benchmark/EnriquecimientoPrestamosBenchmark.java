@@ -0,0 +1,58 @@
+package com.banquito.core.loan.catalog.benchmark;
+
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.service.PrestamosRelacionesService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Enriquecimiento del listado de préstamos con sus relaciones: fila por fila (el bucle original del
+// controlador) frente a la resolución en lote de PrestamosRelacionesService.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnriquecimientoPrestamosBenchmark {
+
+    @Param({ "100", "1000", "10000" })
+    private int productos;
+
+    private PrestamosRelacionesService prestamosRelacionesService;
+    private List<Prestamos> prestamos;
+
+    @Setup
+    public void preparar() {
+        CatalogoEnMemoria catalogo = new CatalogoEnMemoria(this.productos);
+        this.prestamosRelacionesService = catalogo.prestamosRelacionesService;
+        this.prestamos = catalogo.prestamos;
+    }
+
+    @Benchmark
+    public List<PrestamosDTO> porFila() {
+        List<PrestamosDTO> resultado = new ArrayList<>(this.prestamos.size());
+        for (Prestamos prestamo : this.prestamos) {
+            resultado.add(this.prestamosRelacionesService.mapToDTOWithRelations(prestamo));
+        }
+        return resultado;
+    }
+
+    @Benchmark
+    public List<PrestamosDTO> enLote() {
+        return this.prestamosRelacionesService.mapToDTOsWithRelations(this.prestamos);
+    }
+}
@@ -0,0 +1,85 @@
+package com.banquito.core.loan.catalog.benchmark;
+
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Costo de CPU de escribir y leer el listado de préstamos con relaciones en cada formato negociable. Los
+// tamaños (sin comprimir y con gzip) se imprimen al preparar cada formato.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatosBinariosBenchmark {
+
+    private static final int TAMANO_LISTADO = 100;
+
+    @Param({"json", "cbor", "smile"})
+    public String formato;
+
+    private ObjectMapper objectMapper;
+    private List<PrestamosDTO> listado;
+    private byte[] serializado;
+
+    @Setup
+    public void preparar() throws IOException {
+        // Misma configuración que FormatosBinariosConfig sobre el builder de Spring Boot
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.objectMapper = switch (this.formato) {
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(SmileFactory.builder()
+                    .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                    .build()).build();
+            default -> builder.build();
+        };
+        CatalogoEnMemoria catalogo = new CatalogoEnMemoria(TAMANO_LISTADO);
+        this.listado = catalogo.prestamosRelacionesService.mapToDTOsWithRelations(catalogo.prestamos);
+        this.serializado = this.objectMapper.writeValueAsBytes(this.listado);
+        System.out.printf("%n%s: %d préstamos, %d bytes, %d bytes con gzip%n", this.formato, TAMANO_LISTADO,
+                this.serializado.length, gzip(this.serializado).length);
+    }
+
+    @Benchmark
+    public byte[] escribirListado() throws IOException {
+        return this.objectMapper.writeValueAsBytes(this.listado);
+    }
+
+    // Lo que paga el servicio consumidor al recibir la respuesta
+    @Benchmark
+    public JsonNode leerListado() throws IOException {
+        return this.objectMapper.readTree(this.serializado);
+    }
+
+    private static byte[] gzip(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+}
@@ -0,0 +1,91 @@
+package com.banquito.core.loan.catalog.benchmark;
+
+import com.banquito.core.loan.catalog.dto.GarantiasDTO;
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.dto.SegurosDTO;
+import com.banquito.core.loan.catalog.dto.TiposComisionesDTO;
+import com.banquito.core.loan.catalog.dto.TiposPrestamosDTO;
+import com.banquito.core.loan.catalog.mapper.GarantiasMapper;
+import com.banquito.core.loan.catalog.mapper.PrestamosMapper;
+import com.banquito.core.loan.catalog.mapper.SegurosMapper;
+import com.banquito.core.loan.catalog.mapper.TiposComisionesMapper;
+import com.banquito.core.loan.catalog.mapper.TiposPrestamosMapper;
+import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappersBenchmark {
+
+    private Prestamos prestamo;
+    private TiposPrestamos tipoPrestamo;
+    private Seguros seguro;
+    private TiposComisiones tipoComision;
+    private Garantias garantia;
+    private PrestamosDTO prestamoDTO;
+
+    @Setup
+    public void preparar() {
+        this.prestamo = CatalogoEnMemoria.prestamo(1);
+        this.tipoPrestamo = CatalogoEnMemoria.tipoPrestamo(1);
+        this.seguro = CatalogoEnMemoria.seguro(1);
+        this.tipoComision = CatalogoEnMemoria.tipoComision(1);
+        this.garantia = CatalogoEnMemoria.garantia(1);
+        this.prestamoDTO = PrestamosMapper.mapToDTO(this.prestamo);
+    }
+
+    @Benchmark
+    public PrestamosDTO prestamoADTO() {
+        return PrestamosMapper.mapToDTO(this.prestamo);
+    }
+
+    @Benchmark
+    public PrestamosDTO prestamoADTOConRelaciones() {
+        return PrestamosMapper.mapToDTOWithRelations(this.prestamo, this.tipoPrestamo, this.garantia, this.seguro,
+                this.tipoComision);
+    }
+
+    @Benchmark
+    public Prestamos prestamoAEntidad() {
+        return PrestamosMapper.mapToEntity(this.prestamoDTO);
+    }
+
+    @Benchmark
+    public TiposPrestamosDTO tipoPrestamoADTOConGarantia() {
+        return TiposPrestamosMapper.mapToDTOWithGarantia(this.tipoPrestamo, this.garantia);
+    }
+
+    @Benchmark
+    public SegurosDTO seguroADTO() {
+        return SegurosMapper.mapToDTO(this.seguro);
+    }
+
+    @Benchmark
+    public TiposComisionesDTO tipoComisionADTO() {
+        return TiposComisionesMapper.mapToDTO(this.tipoComision);
+    }
+
+    @Benchmark
+    public GarantiasDTO garantiaADTO() {
+        return GarantiasMapper.mapToDTO(this.garantia);
+    }
+}
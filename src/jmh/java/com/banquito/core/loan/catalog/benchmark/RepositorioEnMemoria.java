@@ -0,0 +1,70 @@
+package com.banquito.core.loan.catalog.benchmark;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Implementación en memoria de las interfaces de repositorio (solo los métodos que usan los servicios
+// medidos), para aislar el costo de mapeo y validación del acceso a MongoDB.
+final class RepositorioEnMemoria<T> implements InvocationHandler {
+
+    private final Map<String, T> documentos = new LinkedHashMap<>();
+    private final Function<T, String> id;
+    private final Function<T, String> estado;
+
+    private RepositorioEnMemoria(Function<T, String> id, Function<T, String> estado, Collection<T> datos) {
+        this.id = id;
+        this.estado = estado;
+        for (T documento : datos) {
+            this.documentos.put(id.apply(documento), documento);
+        }
+    }
+
+    static <T, R> R de(Class<R> repositorio, Function<T, String> id, Function<T, String> estado,
+            Collection<T> datos) {
+        return repositorio.cast(Proxy.newProxyInstance(repositorio.getClassLoader(), new Class<?>[] { repositorio },
+                new RepositorioEnMemoria<>(id, estado, datos)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> "RepositorioEnMemoria" + this.documentos.keySet();
+            };
+        }
+        return switch (method.getName()) {
+            case "findById" -> Optional.ofNullable(this.documentos.get((String) args[0]));
+            case "findAll" -> new ArrayList<>(this.documentos.values());
+            case "findAllById" -> {
+                List<T> encontrados = new ArrayList<>();
+                for (Object id : (Iterable<?>) args[0]) {
+                    T documento = this.documentos.get((String) id);
+                    if (documento != null) {
+                        encontrados.add(documento);
+                    }
+                }
+                yield encontrados;
+            }
+            case "findByEstado" -> this.documentos.values().stream()
+                    .filter(documento -> args[0].equals(this.estado.apply(documento)))
+                    .toList();
+            case "save" -> {
+                T documento = (T) args[0];
+                this.documentos.put(this.id.apply(documento), documento);
+                yield documento;
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        };
+    }
+}
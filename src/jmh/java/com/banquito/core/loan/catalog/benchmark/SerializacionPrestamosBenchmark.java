@@ -0,0 +1,56 @@
+package com.banquito.core.loan.catalog.benchmark;
+
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionPrestamosBenchmark {
+
+    private static final int TAMANO_LISTADO = 100;
+
+    private ObjectMapper objectMapper;
+    private PrestamosDTO prestamo;
+    private List<PrestamosDTO> listado;
+
+    @Setup
+    public void preparar() {
+        // Misma configuración que el ObjectMapper de Spring Boot (JavaTimeModule, fechas ISO-8601)
+        this.objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        CatalogoEnMemoria catalogo = new CatalogoEnMemoria(TAMANO_LISTADO);
+        this.listado = catalogo.prestamosRelacionesService.mapToDTOsWithRelations(catalogo.prestamos);
+        this.prestamo = this.listado.get(0);
+    }
+
+    @Benchmark
+    public byte[] prestamo() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.prestamo);
+    }
+
+    @Benchmark
+    public byte[] listado() throws JsonProcessingException {
+        return this.objectMapper.writeValueAsBytes(this.listado);
+    }
+}
@@ -0,0 +1,56 @@
+package com.banquito.core.loan.catalog.benchmark;
+
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Validaciones de create (referencias y recorridos de enums) sobre repositorios en memoria.
+// Se reutiliza la misma entidad con id fijo para que el repositorio no crezca entre invocaciones.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacionCreacionBenchmark {
+
+    private CatalogoEnMemoria catalogo;
+    private Prestamos prestamo;
+    private Seguros seguro;
+    private TiposComisiones tipoComision;
+
+    @Setup
+    public void preparar() {
+        this.catalogo = new CatalogoEnMemoria(10);
+        this.prestamo = CatalogoEnMemoria.prestamo(1);
+        this.seguro = CatalogoEnMemoria.seguro(1);
+        this.tipoComision = CatalogoEnMemoria.tipoComision(1);
+    }
+
+    @Benchmark
+    public Prestamos crearPrestamo() {
+        return this.catalogo.prestamosService.create(this.prestamo);
+    }
+
+    @Benchmark
+    public Seguros crearSeguro() {
+        return this.catalogo.segurosService.create(this.seguro);
+    }
+
+    @Benchmark
+    public TiposComisiones crearTipoComision() {
+        return this.catalogo.tiposComisionesService.create(this.tipoComision);
+    }
+}
@@ -24,6 +24,7 @@ public class CatalogApplication {
 					.allowedOriginPatterns("*")
 					.allowedMethods("*")
 					.allowedHeaders("*")
+					.exposedHeaders("X-Next-Cursor")
 					.allowCredentials(false)
 					.maxAge(3600);
 			}
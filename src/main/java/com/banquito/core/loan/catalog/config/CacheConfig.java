@@ -0,0 +1,22 @@
+package com.banquito.core.loan.catalog.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Los límites (tamaño máximo, TTL) y las estadísticas se configuran con spring.cache.caffeine.spec;
+// las métricas de hit/miss/evicción se publican en /actuator/prometheus como cache_*.
+// Lo que devuelve un método @Cacheable es la instancia compartida por todas las peticiones: los listados se
+// guardan inmodificables y las entidades no se modifican; las escrituras releen el documento de MongoDB.
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String SEGUROS = "seguros";
+    public static final String SEGUROS_ACTIVOS = "segurosActivos";
+    public static final String TIPOS_COMISIONES = "tiposComisiones";
+    public static final String TIPOS_COMISIONES_ACTIVOS = "tiposComisionesActivos";
+    public static final String TIPOS_PRESTAMOS = "tiposPrestamos";
+    public static final String TIPOS_PRESTAMOS_ACTIVOS = "tiposPrestamosActivos";
+    public static final String GARANTIAS = "garantias";
+    public static final String GARANTIAS_ACTIVAS = "garantiasActivas";
+}
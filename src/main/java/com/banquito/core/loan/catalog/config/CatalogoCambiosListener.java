@@ -0,0 +1,288 @@
+package com.banquito.core.loan.catalog.config;
+
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Escucha los cambios de las colecciones del catálogo hechos por cualquier réplica y los registra en
+// CatalogoCambiosService, que invalida las cachés locales y los ETags de los listados.
+// Con replica set o clúster fragmentado usa un change stream sobre la base de datos, cuyo resume token
+// se persiste por nodo; en un servidor standalone (desarrollo, pruebas) consulta periódicamente, por el índice
+// de fechaModificacion, los documentos modificados desde la última lectura.
+@Slf4j
+@Component
+public class CatalogoCambiosListener implements SmartLifecycle {
+
+    private static final String COLECCION_TOKENS = "catalogo_cambios_tokens";
+    // ChangeStreamHistoryLost / ChangeStreamFatalError: el token ya no está en el oplog
+    private static final List<Integer> ERRORES_TOKEN_PERDIDO = List.of(286, 280);
+    // Location40573: change streams no soportados en un servidor standalone
+    private static final int ERROR_STANDALONE = 40573;
+    private static final long ESPERA_REINTENTO_MS = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final String modo;
+    private final String nodo;
+    private final long intervaloPollingMs;
+    private final long margenPollingMs;
+    private final Map<String, ColeccionCatalogoEnum> colecciones = new HashMap<>();
+    // Polling: fechaModificacion más alta leída de cada colección y la fecha y versión de cada documento leído
+    // dentro del margen
+    private final Map<ColeccionCatalogoEnum, Long> ultimasFechas = new EnumMap<>(ColeccionCatalogoEnum.class);
+    private final Map<ColeccionCatalogoEnum, Map<String, String>> recientes =
+            new EnumMap<>(ColeccionCatalogoEnum.class);
+
+    private volatile boolean activo;
+    private Thread hilo;
+
+    public CatalogoCambiosListener(
+            MongoTemplate mongoTemplate,
+            CatalogoCambiosService catalogoCambiosService,
+            @Value("${catalogo.cambios.modo:auto}") String modo,
+            @Value("${catalogo.cambios.nodo:${HOSTNAME:catalog}}") String nodo,
+            @Value("${catalogo.cambios.intervalo-polling-ms:5000}") long intervaloPollingMs,
+            @Value("${catalogo.cambios.margen-polling-ms:60000}") long margenPollingMs) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.modo = modo;
+        this.nodo = nodo;
+        this.intervaloPollingMs = intervaloPollingMs;
+        this.margenPollingMs = margenPollingMs;
+        for (ColeccionCatalogoEnum coleccion : ColeccionCatalogoEnum.values()) {
+            this.colecciones.put(coleccion.getValor(), coleccion);
+        }
+    }
+
+    @Override
+    public void start() {
+        if ("deshabilitado".equals(this.modo)) {
+            log.info("Escucha de cambios del catálogo deshabilitada");
+            return;
+        }
+        this.activo = true;
+        boolean changeStream = "change-stream".equals(this.modo)
+                || ("auto".equals(this.modo) && this.soportaChangeStreams());
+        this.hilo = new Thread(changeStream ? this::escucharChangeStream : this::sondear, "catalogo-cambios");
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+        log.info("Escucha de cambios del catálogo iniciada en modo {} para el nodo {}",
+                changeStream ? "change-stream" : "polling", this.nodo);
+    }
+
+    @Override
+    public void stop() {
+        this.activo = false;
+        if (this.hilo != null) {
+            this.hilo.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.activo;
+    }
+
+    private boolean soportaChangeStreams() {
+        try {
+            Document hello = this.mongoTemplate.getDb().runCommand(new Document("hello", 1));
+            return hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+        } catch (MongoException e) {
+            log.warn("No se pudo determinar la topología de MongoDB, se usará polling: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void escucharChangeStream() {
+        while (this.activo) {
+            // La lectura del token va dentro del try: un fallo de MongoDB al reabrir el flujo también se reintenta
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = this.abrirFlujo()) {
+                while (this.activo) {
+                    ChangeStreamDocument<Document> cambio = cursor.tryNext();
+                    if (cambio != null) {
+                        this.procesar(cambio);
+                        this.guardarToken(cambio.getResumeToken());
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == ERROR_STANDALONE) {
+                    log.warn("El servidor no soporta change streams, se cambia a polling");
+                    this.sondear();
+                    return;
+                }
+                if (ERRORES_TOKEN_PERDIDO.contains(e.getErrorCode())) {
+                    // Se perdieron eventos: se descarta el token y se invalida todo el catálogo local
+                    log.warn("Resume token expirado para el nodo {}, se invalidan todas las colecciones", this.nodo);
+                    this.borrarToken();
+                    Arrays.stream(ColeccionCatalogoEnum.values()).forEach(this.catalogoCambiosService::registrarColeccion);
+                } else {
+                    this.reintentar(e);
+                }
+            } catch (MongoException e) {
+                this.reintentar(e);
+            }
+        }
+    }
+
+    private MongoChangeStreamCursor<ChangeStreamDocument<Document>> abrirFlujo() {
+        BsonDocument token = this.leerToken();
+        ChangeStreamIterable<Document> flujo = this.mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", this.colecciones.keySet()))))
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (token != null) {
+            flujo = flujo.resumeAfter(token);
+        }
+        return flujo.cursor();
+    }
+
+    private void procesar(ChangeStreamDocument<Document> cambio) {
+        ColeccionCatalogoEnum coleccion = cambio.getNamespace() != null
+                ? this.colecciones.get(cambio.getNamespace().getCollectionName())
+                : null;
+        switch (cambio.getOperationType()) {
+            case INSERT, UPDATE, REPLACE, DELETE -> {
+                if (coleccion != null) {
+                    this.catalogoCambiosService.registrar(coleccion, idDocumento(cambio.getDocumentKey()));
+                }
+            }
+            default -> {
+                // drop, rename, invalidate...: no hay un documento concreto
+                if (coleccion != null) {
+                    this.catalogoCambiosService.registrarColeccion(coleccion);
+                } else {
+                    Arrays.stream(ColeccionCatalogoEnum.values()).forEach(this.catalogoCambiosService::registrarColeccion);
+                }
+            }
+        }
+    }
+
+    private static String idComoTexto(Object id) {
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+
+    private static String idDocumento(BsonDocument documentKey) {
+        if (documentKey == null) {
+            return null;
+        }
+        BsonValue id = documentKey.get("_id");
+        if (id instanceof BsonObjectId objectId) {
+            return objectId.getValue().toHexString();
+        }
+        return id != null && id.isString() ? id.asString().getValue() : null;
+    }
+
+    private MongoCollection<BsonDocument> tokens() {
+        return this.mongoTemplate.getDb().getCollection(COLECCION_TOKENS, BsonDocument.class);
+    }
+
+    private BsonDocument leerToken() {
+        BsonDocument registro = this.tokens().find(Filters.eq("_id", this.nodo)).first();
+        return registro != null ? registro.getDocument("token", null) : null;
+    }
+
+    private void guardarToken(BsonDocument token) {
+        BsonDocument registro = new BsonDocument("_id", new BsonString(this.nodo))
+                .append("token", token)
+                .append("fecha", new BsonDateTime(System.currentTimeMillis()));
+        this.tokens().replaceOne(Filters.eq("_id", this.nodo), registro, new ReplaceOptions().upsert(true));
+    }
+
+    private void borrarToken() {
+        this.tokens().deleteOne(Filters.eq("_id", this.nodo));
+    }
+
+    private void sondear() {
+        while (this.activo) {
+            try {
+                for (ColeccionCatalogoEnum coleccion : ColeccionCatalogoEnum.values()) {
+                    this.sondearColeccion(coleccion);
+                }
+                Thread.sleep(this.intervaloPollingMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (MongoException e) {
+                this.reintentar(e);
+            }
+        }
+    }
+
+    // Solo se leen los documentos cuya fechaModificacion cae dentro del margen anterior a la más alta ya leída.
+    // El margen cubre relojes desfasados entre réplicas y escrituras que se confirman tarde; un documento que ya
+    // se leyó con la misma fecha y versión no se vuelve a registrar (dos escrituras en el mismo milisegundo
+    // comparten fecha, pero no versión).
+    private void sondearColeccion(ColeccionCatalogoEnum coleccion) {
+        MongoCollection<Document> documentos = this.mongoTemplate.getCollection(coleccion.getValor());
+        Map<String, String> anteriores = this.recientes.get(coleccion);
+        Long ultima = this.ultimasFechas.get(coleccion);
+        if (ultima == null) {
+            // Primera lectura: solo se toma la línea base
+            Document masReciente = documentos.find()
+                    .sort(Sorts.descending("fechaModificacion"))
+                    .projection(Projections.include("fechaModificacion"))
+                    .first();
+            Date fecha = masReciente != null ? masReciente.getDate("fechaModificacion") : null;
+            ultima = fecha != null ? fecha.getTime() : 0L;
+        }
+
+        Map<String, String> leidos = new HashMap<>();
+        long maxima = ultima;
+        for (Document documento : documentos
+                .find(Filters.gte("fechaModificacion", new Date(ultima - this.margenPollingMs)))
+                .projection(Projections.include("_id", "fechaModificacion", "version"))) {
+            String id = idComoTexto(documento.get("_id"));
+            long fecha = documento.getDate("fechaModificacion").getTime();
+            String marca = fecha + ":" + documento.get("version");
+            leidos.put(id, marca);
+            maxima = Math.max(maxima, fecha);
+            if (anteriores != null && !marca.equals(anteriores.get(id))) {
+                this.catalogoCambiosService.registrar(coleccion, id);
+            }
+        }
+        this.ultimasFechas.put(coleccion, maxima);
+        this.recientes.put(coleccion, leidos);
+    }
+
+    private void reintentar(MongoException e) {
+        if (!this.activo) {
+            return;
+        }
+        log.error("Error al escuchar cambios del catálogo, se reintentará: {}", e.getMessage());
+        try {
+            Thread.sleep(ESPERA_REINTENTO_MS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            this.activo = false;
+        }
+    }
+}
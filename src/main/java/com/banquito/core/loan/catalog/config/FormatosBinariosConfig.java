@@ -0,0 +1,60 @@
+package com.banquito.core.loan.catalog.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Codificaciones binarias de los mismos DTO, negociadas con Accept: application/cbor o
+// application/x-jackson-smile. El esquema compartido es el contrato OpenAPI de /api-docs: CBOR y Smile
+// describen los mismos campos que el JSON, sin generar clases adicionales. Los mappers parten del builder
+// de Spring Boot, así que fechas, módulos y spring.jackson.* se aplican igual que en JSON.
+@Configuration
+public class FormatosBinariosConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cbor(builder));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smile(builder));
+    }
+
+    // Equivalente para el perfil reactivo: los codecs propios se consultan antes que los Jackson por defecto
+    @Bean
+    public CodecCustomizer formatosBinariosCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cbor = cbor(builder);
+        ObjectMapper smile = smile(builder);
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2CborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor));
+            configurer.customCodecs().register(new Jackson2SmileEncoder(smile));
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smile));
+        };
+    }
+
+    private static ObjectMapper cbor(Jackson2ObjectMapperBuilder builder) {
+        return builder.createXmlMapper(false).factory(new CBORFactory()).build();
+    }
+
+    // Smile ya referencia los nombres de campo repetidos; además se comparten los valores cortos repetidos
+    // (estado, base de cálculo, tipo de cálculo), frecuentes en los listados
+    private static ObjectMapper smile(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return builder.createXmlMapper(false).factory(factory).build();
+    }
+}
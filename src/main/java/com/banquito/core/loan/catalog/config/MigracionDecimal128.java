@@ -0,0 +1,191 @@
+package com.banquito.core.loan.catalog.config;
+
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Convierte en el lugar los montos guardados como String a Decimal128 (ver MongoConversionesConfig). Recorre
+// con un cursor solo los documentos que aún tienen algún campo String y escribe por lotes con bulkWrite no
+// ordenado. Es idempotente y reanudable: un documento migrado deja de coincidir con el filtro, así que un
+// arranque interrumpido continúa donde quedó. Cada actualización exige el valor original, de modo que no
+// pisa una escritura concurrente de otra réplica.
+@Slf4j
+@Component
+@Order(2)
+public class MigracionDecimal128 implements CommandLineRunner {
+
+    private static final Map<Class<?>, List<String>> CAMPOS = new LinkedHashMap<>();
+
+    static {
+        CAMPOS.put(Prestamos.class, List.of("tasaInteres", "montoMinimo", "montoMaximo"));
+        CAMPOS.put(Seguros.class, List.of("montoAsegurado"));
+        CAMPOS.put(Garantias.class, List.of("valor"));
+        CAMPOS.put(TiposComisiones.class, List.of("monto"));
+    }
+
+    private final MongoTemplate mongo;
+    private final boolean habilitada;
+    private final int tamanoLote;
+
+    public MigracionDecimal128(MongoTemplate mongo,
+            @Value("${catalogo.migracion.decimal128.enabled:false}") boolean habilitada,
+            @Value("${catalogo.migracion.decimal128.tamano-lote:500}") int tamanoLote) {
+        this.mongo = mongo;
+        this.habilitada = habilitada;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Override
+    public void run(String... args) {
+        for (Map.Entry<Class<?>, List<String>> entrada : CAMPOS.entrySet()) {
+            String coleccion = this.mongo.getCollectionName(entrada.getKey());
+            try {
+                if (this.habilitada) {
+                    this.migrar(coleccion, entrada.getValue());
+                } else {
+                    long pendientes = this.mongo.getCollection(coleccion)
+                            .countDocuments(pendientes(entrada.getValue()));
+                    if (pendientes > 0) {
+                        log.warn("{} documentos de {} tienen montos guardados como texto; habilite "
+                                + "catalogo.migracion.decimal128.enabled para convertirlos", pendientes, coleccion);
+                    }
+                }
+            } catch (MongoException e) {
+                log.error("No se pudo migrar a Decimal128 la colección {}: {}", coleccion, e.getMessage());
+            }
+        }
+        this.verificarIndiceRangoMontos();
+    }
+
+    private void migrar(String coleccion, List<String> campos) {
+        MongoCollection<Document> documentos = this.mongo.getCollection(coleccion);
+        List<WriteModel<Document>> lote = new ArrayList<>(this.tamanoLote);
+        long migrados = 0;
+        long invalidos = 0;
+
+        try (MongoCursor<Document> cursor = documentos.find(pendientes(campos))
+                .projection(Projections.include(campos))
+                .sort(Sorts.ascending("_id"))
+                .batchSize(this.tamanoLote)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document documento = cursor.next();
+                List<Bson> condiciones = new ArrayList<>();
+                List<Bson> cambios = new ArrayList<>();
+                condiciones.add(Filters.eq("_id", documento.get("_id")));
+                for (String campo : campos) {
+                    if (documento.get(campo) instanceof String texto) {
+                        try {
+                            cambios.add(Updates.set(campo, new Decimal128(new BigDecimal(texto.trim()))));
+                            condiciones.add(Filters.eq(campo, texto));
+                        } catch (NumberFormatException e) {
+                            invalidos++;
+                            log.warn("Valor no numérico en {}.{} del documento {}: '{}'", coleccion, campo,
+                                    documento.get("_id"), texto);
+                        }
+                    }
+                }
+                if (!cambios.isEmpty()) {
+                    lote.add(new UpdateOneModel<>(Filters.and(condiciones), Updates.combine(cambios)));
+                }
+                if (lote.size() >= this.tamanoLote) {
+                    migrados += escribir(documentos, lote);
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            migrados += escribir(documentos, lote);
+        }
+        if (migrados > 0 || invalidos > 0) {
+            log.info("Migración a Decimal128 de {}: {} documentos convertidos, {} valores no numéricos omitidos",
+                    coleccion, migrados, invalidos);
+        }
+    }
+
+    private static long escribir(MongoCollection<Document> documentos, List<WriteModel<Document>> lote) {
+        long modificados = documentos.bulkWrite(lote, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        lote.clear();
+        return modificados;
+    }
+
+    // La consulta de elegibilidad por monto debe resolverse con el índice estado_montoMinimo_montoMaximo
+    private void verificarIndiceRangoMontos() {
+        try {
+            Decimal128 monto = new Decimal128(BigDecimal.ONE);
+            Document plan = this.mongo.getCollection(this.mongo.getCollectionName(Prestamos.class))
+                    .find(Filters.and(Filters.lte("montoMinimo", monto), Filters.gte("montoMaximo", monto),
+                            Filters.eq("estado", EstadoGeneralEnum.ACTIVO.getValor())))
+                    .explain();
+            Document queryPlanner = plan.get("queryPlanner", Document.class);
+            String indice = queryPlanner != null ? indiceUsado(queryPlanner.get("winningPlan", Document.class)) : null;
+            if (indice != null) {
+                log.info("La consulta de préstamos por rango de monto usa el índice {}", indice);
+            } else {
+                log.warn("La consulta de préstamos por rango de monto no usa ningún índice (COLLSCAN)");
+            }
+        } catch (MongoException e) {
+            log.debug("No se pudo obtener el plan de la consulta por rango de monto: {}", e.getMessage());
+        }
+    }
+
+    private static String indiceUsado(Document etapa) {
+        if (etapa == null) {
+            return null;
+        }
+        if ("IXSCAN".equals(etapa.getString("stage"))) {
+            return etapa.getString("indexName");
+        }
+        // Según la versión del servidor la etapa está en inputStage, inputStages o queryPlan
+        for (String hijo : List.of("inputStage", "queryPlan")) {
+            String indice = indiceUsado(etapa.get(hijo, Document.class));
+            if (indice != null) {
+                return indice;
+            }
+        }
+        List<Document> hijos = etapa.getList("inputStages", Document.class);
+        if (hijos != null) {
+            for (Document hijo : hijos) {
+                String indice = indiceUsado(hijo);
+                if (indice != null) {
+                    return indice;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Bson pendientes(List<String> campos) {
+        List<Bson> filtros = new ArrayList<>(campos.size());
+        for (String campo : campos) {
+            filtros.add(Filters.type(campo, "string"));
+        }
+        return Filters.or(filtros);
+    }
+}
@@ -0,0 +1,45 @@
+package com.banquito.core.loan.catalog.config;
+
+import org.bson.types.Decimal128;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Por defecto Spring Data guarda BigDecimal como String: los $lte/$gte de montos comparan texto ("900" >
+// "1000") y no aprovechan el índice como rango numérico. Con estos convertidores se guarda Decimal128,
+// tanto en documentos como en los parámetros de las consultas; los valores String que aún no migró
+// MigracionDecimal128 se siguen leyendo con el convertidor por defecto.
+@Configuration
+public class MongoConversionesConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(BigDecimalADecimal128.INSTANCE, Decimal128ABigDecimal.INSTANCE));
+    }
+
+    @WritingConverter
+    enum BigDecimalADecimal128 implements Converter<BigDecimal, Decimal128> {
+        INSTANCE;
+
+        @Override
+        public Decimal128 convert(BigDecimal valor) {
+            return new Decimal128(valor);
+        }
+    }
+
+    @ReadingConverter
+    enum Decimal128ABigDecimal implements Converter<Decimal128, BigDecimal> {
+        INSTANCE;
+
+        @Override
+        public BigDecimal convert(Decimal128 valor) {
+            return valor.bigDecimalValue();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.banquito.core.loan.catalog.config;
+
+import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import com.mongodb.MongoException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Compara los índices declarados con @CompoundIndexes en los modelos con los existentes en MongoDB:
+// crea los faltantes (spring.data.mongodb.auto-index-creation está deshabilitado por defecto) y reporta
+// los que no están declarados.
+@Slf4j
+@Component
+@Order(1)
+public class MongoIndexReconciler implements CommandLineRunner {
+
+    private static final List<Class<?>> MODELOS = List.of(
+            Prestamos.class, TiposPrestamos.class, Seguros.class, Garantias.class, TiposComisiones.class);
+
+    private final MongoTemplate mongo;
+    private final boolean crearFaltantes;
+
+    public MongoIndexReconciler(MongoTemplate mongo,
+            @Value("${catalogo.indices.crear-faltantes:true}") boolean crearFaltantes) {
+        this.mongo = mongo;
+        this.crearFaltantes = crearFaltantes;
+    }
+
+    @Override
+    public void run(String... args) {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(
+                this.mongo.getConverter().getMappingContext());
+        for (Class<?> modelo : MODELOS) {
+            try {
+                this.reconciliar(modelo, resolver);
+            } catch (MongoException e) {
+                log.error("No se pudieron reconciliar los índices de {}: {}", modelo.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void reconciliar(Class<?> modelo, MongoPersistentEntityIndexResolver resolver) {
+        String coleccion = this.mongo.getCollectionName(modelo);
+        IndexOperations indices = this.mongo.indexOps(modelo);
+        Set<String> existentes = new HashSet<>();
+        for (IndexInfo indice : indices.getIndexInfo()) {
+            existentes.add(indice.getName());
+        }
+
+        Set<String> declarados = new HashSet<>();
+        for (IndexDefinition definicion : resolver.resolveIndexFor(modelo)) {
+            String nombre = definicion.getIndexOptions().getString("name");
+            declarados.add(nombre);
+            if (existentes.contains(nombre)) {
+                continue;
+            }
+            if (this.crearFaltantes) {
+                indices.createIndex(definicion);
+                log.info("Índice {} creado en {}: {}", nombre, coleccion, definicion.getIndexKeys().toJson());
+            } else {
+                log.warn("Índice {} faltante en {}: {}", nombre, coleccion, definicion.getIndexKeys().toJson());
+            }
+        }
+
+        for (String nombre : existentes) {
+            if (!"_id_".equals(nombre) && !declarados.contains(nombre)) {
+                log.warn("Índice {} en {} no está declarado en {}", nombre, coleccion, modelo.getSimpleName());
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.banquito.core.loan.catalog.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Sparse fieldsets (?fields=nombre,tasaInteres,...): los nombres se validan contra el DTO del recurso y se
+// traducen a la proyección que se envía a MongoDB. Un objeto relacionado se pide a la base por el id que lo
+// referencia y solo se resuelve si aparece en la lista. El id se devuelve siempre.
+final class CamposParciales {
+
+    private static final TypeReference<Map<String, Object>> MAPA = new TypeReference<>() {
+    };
+
+    private CamposParciales() {
+    }
+
+    static Set<String> leer(String fields, Class<?> dto) {
+        Set<String> campos = new LinkedHashSet<>();
+        campos.add("id");
+        for (String campo : fields.split(",")) {
+            String nombre = campo.trim();
+            if (nombre.isEmpty()) {
+                continue;
+            }
+            try {
+                dto.getDeclaredField(nombre);
+            } catch (NoSuchFieldException e) {
+                throw new IllegalArgumentException("El campo " + nombre + " no existe");
+            }
+            campos.add(nombre);
+        }
+        return campos;
+    }
+
+    // relaciones: objeto relacionado -> campo del documento que lo referencia
+    static Set<String> proyeccion(Set<String> campos, Map<String, String> relaciones) {
+        Set<String> proyeccion = new HashSet<>();
+        for (String campo : campos) {
+            proyeccion.add(relaciones.getOrDefault(campo, campo));
+        }
+        return proyeccion;
+    }
+
+    static Set<String> relaciones(Set<String> campos, Map<String, String> relaciones) {
+        Set<String> pedidas = new HashSet<>(relaciones.keySet());
+        pedidas.retainAll(campos);
+        return pedidas;
+    }
+
+    static Map<String, Object> recortar(ObjectMapper objectMapper, Object dto, Set<String> campos) {
+        Map<String, Object> completo = objectMapper.convertValue(dto, MAPA);
+        Map<String, Object> recortado = new LinkedHashMap<>();
+        for (String campo : campos) {
+            recortado.put(campo, completo.get(campo));
+        }
+        return recortado;
+    }
+
+    static List<Map<String, Object>> recortar(ObjectMapper objectMapper, List<?> dtos, Set<String> campos) {
+        return dtos.stream()
+                .map(dto -> recortar(objectMapper, dto, campos))
+                .toList();
+    }
+
+    static String id(Map<String, Object> recortado) {
+        return (String) recortado.get("id");
+    }
+}
@@ -0,0 +1,60 @@
+package com.banquito.core.loan.catalog.controller;
+
+import com.banquito.core.loan.catalog.dto.CatalogoSnapshotDTO;
+import com.banquito.core.loan.catalog.service.CatalogoSnapshotService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@Slf4j
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/catalogo/v1/snapshot")
+@CrossOrigin(origins = "*")
+@Tag(name = "Instantánea del catálogo", description = "Catálogo activo completo, preserializado")
+public class CatalogoSnapshotController {
+
+    private final CatalogoSnapshotService catalogoSnapshotService;
+
+    public CatalogoSnapshotController(CatalogoSnapshotService catalogoSnapshotService) {
+        this.catalogoSnapshotService = catalogoSnapshotService;
+    }
+
+    @Operation(summary = "Obtener la instantánea del catálogo activo", description = "Devuelve préstamos con relaciones, tipos de préstamo, garantías, seguros y tipos de comisión en un solo documento ya serializado; se envía comprimido con gzip si el cliente lo acepta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Instantánea del catálogo", content = @Content(schema = @Schema(implementation = CatalogoSnapshotDTO.class))),
+            @ApiResponse(responseCode = "304", description = "La instantánea no cambió desde el ETag indicado", content = @Content)
+    })
+    @GetMapping
+    public ResponseEntity<byte[]> snapshot(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        CatalogoSnapshotService.Snapshot snapshot = this.catalogoSnapshotService.obtener();
+        boolean gzip = ETags.aceptaGzip(acceptEncoding);
+        // Cada codificación es una representación distinta y lleva su propio ETag
+        String etag = ETags.coleccion(gzip ? snapshot.version() + "-gzip" : snapshot.version());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        log.debug("Sirviendo instantánea del catálogo {}", snapshot.version());
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return respuesta.body(snapshot.json());
+    }
+}
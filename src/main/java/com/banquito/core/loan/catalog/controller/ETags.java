@@ -0,0 +1,56 @@
+package com.banquito.core.loan.catalog.controller;
+
+import com.banquito.core.loan.catalog.dto.GarantiasDTO;
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.dto.TiposPrestamosDTO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+public final class ETags {
+
+    private ETags() {
+    }
+
+    // ETag fuerte a partir del id y las versiones del documento y de sus relaciones incluidas
+    public static String recurso(String id, Long... versiones) {
+        StringBuilder etag = new StringBuilder("\"").append(id);
+        for (Long version : versiones) {
+            etag.append('-').append(version != null ? version : 0L);
+        }
+        return etag.append('"').toString();
+    }
+
+    // Las relaciones embebidas forman parte de la representación: un cambio en cualquiera de ellas invalida el ETag
+    public static String prestamo(PrestamosDTO prestamo) {
+        TiposPrestamosDTO tipoPrestamo = prestamo.getTipoPrestamo();
+        GarantiasDTO garantia = tipoPrestamo != null ? tipoPrestamo.getGarantia() : null;
+        return recurso(prestamo.getId(), prestamo.getVersion(),
+                tipoPrestamo != null ? tipoPrestamo.getVersion() : null,
+                garantia != null ? garantia.getVersion() : null,
+                prestamo.getSeguro() != null ? prestamo.getSeguro().getVersion() : null,
+                prestamo.getTipoComision() != null ? prestamo.getTipoComision().getVersion() : null);
+    }
+
+    public static String coleccion(String firma) {
+        return "\"c-" + firma + "\"";
+    }
+
+    // Basta con que gzip aparezca sin q=0; no se ordenan las codificaciones por preferencia
+    public static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length == 1 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    public static long ultimaModificacion(LocalDateTime fecha) {
+        return fecha != null ? fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1L;
+    }
+}
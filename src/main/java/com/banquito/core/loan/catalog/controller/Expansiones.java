@@ -0,0 +1,34 @@
+package com.banquito.core.loan.catalog.controller;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// ?expand=seguro,tipoPrestamo.garantia: relaciones que se resuelven en la respuesta. Por defecto no se expande
+// ninguna; una relación anidada incluye también a la que la contiene.
+public final class Expansiones {
+
+    private Expansiones() {
+    }
+
+    public static Set<String> leer(String expand, Set<String> permitidas) {
+        Set<String> relaciones = new HashSet<>();
+        if (expand == null) {
+            return relaciones;
+        }
+        for (String valor : expand.split(",")) {
+            String relacion = valor.trim();
+            if (relacion.isEmpty()) {
+                continue;
+            }
+            if (!permitidas.contains(relacion)) {
+                throw new IllegalArgumentException("La relación " + relacion + " no se puede expandir");
+            }
+            relaciones.add(relacion);
+            int punto = relacion.lastIndexOf('.');
+            if (punto > 0) {
+                relaciones.add(relacion.substring(0, punto));
+            }
+        }
+        return relaciones;
+    }
+}
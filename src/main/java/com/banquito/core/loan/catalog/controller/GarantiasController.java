@@ -1,12 +1,22 @@
 package com.banquito.core.loan.catalog.controller;
 
+import com.banquito.core.loan.catalog.dto.DesactivacionCascadaDTO;
 import com.banquito.core.loan.catalog.dto.GarantiasDTO;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.UpdateException;
 import com.banquito.core.loan.catalog.mapper.GarantiasMapper;
 import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.CatalogoStreamService;
+import com.banquito.core.loan.catalog.service.DesactivacionCascadaService;
 import com.banquito.core.loan.catalog.service.GarantiasService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,34 +25,81 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @CrossOrigin(origins = "*")
 @RequestMapping("/api/catalogo/v1/garantias")
 @Tag(name = "Garantías", description = "API para gestionar garantías")
 public class GarantiasController {
 
     private final GarantiasService garantiasService;
+    private final CatalogoStreamService catalogoStreamService;
+    private final NdjsonResponse ndjsonResponse;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DesactivacionCascadaService desactivacionCascadaService;
 
-    public GarantiasController(GarantiasService garantiasService) {
+    public GarantiasController(GarantiasService garantiasService,
+            CatalogoStreamService catalogoStreamService, NdjsonResponse ndjsonResponse,
+            CatalogoCambiosService catalogoCambiosService, Validator validator, ObjectMapper objectMapper,
+            DesactivacionCascadaService desactivacionCascadaService) {
         this.garantiasService = garantiasService;
+        this.catalogoStreamService = catalogoStreamService;
+        this.ndjsonResponse = ndjsonResponse;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.desactivacionCascadaService = desactivacionCascadaService;
     }
 
     @Operation(summary = "Obtener todas las garantías activas")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Garantías encontradas", content = @Content(schema = @Schema(implementation = GarantiasDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Garantías encontradas", content = @Content(schema = @Schema(implementation = GarantiasDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Cursor de paginación inválido", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<GarantiasDTO>> findAll() {
+    public ResponseEntity<List<GarantiasDTO>> findAll(
+            @Parameter(description = "ID de la última garantía de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de garantías por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         log.info("Petición para obtener todas las garantías");
+        // El ETag del listado se calcula sin consultar la base: solo depende de las versiones de las colecciones
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.GARANTIAS));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (Paginacion.solicitada(after, cursor, limit)) {
+            try {
+                int tamano = Paginacion.tamano(limit);
+                List<Garantias> pagina = this.garantiasService.findPage(Paginacion.desde(after, cursor), tamano);
+                return Paginacion.respuesta(
+                        pagina.stream().map(GarantiasMapper::mapToDTO).collect(Collectors.toList()),
+                        GarantiasDTO::getId, tamano);
+            } catch (IllegalArgumentException e) {
+                log.error("Error en la paginación de garantías: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         List<GarantiasDTO> garantias = this.garantiasService.findAll()
                 .stream()
                 .map(GarantiasMapper::mapToDTO)
@@ -50,24 +107,110 @@ public class GarantiasController {
         return ResponseEntity.ok(garantias);
     }
 
+    @Operation(summary = "Obtener las garantías activas con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB: solo se leen los campos pedidos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Garantías con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente o cursor de paginación inválido", content = @Content)
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> findAllCampos(
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. tipoGarantia,valor", required = true) @RequestParam String fields,
+            @Parameter(description = "ID de la última garantía de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de garantías por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("Petición para obtener las garantías con los campos {}", fields);
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.GARANTIAS));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        try {
+            Set<String> campos = CamposParciales.leer(fields, GarantiasDTO.class);
+            boolean paginada = Paginacion.solicitada(after, cursor, limit);
+            int tamano = Paginacion.tamano(limit);
+            List<Garantias> garantias = paginada
+                    ? this.garantiasService.findPage(Paginacion.desde(after, cursor), tamano, campos)
+                    : this.garantiasService.findAll(campos);
+            List<Map<String, Object>> resultado = CamposParciales.recortar(this.objectMapper,
+                    garantias.stream().map(GarantiasMapper::mapToDTO).toList(), campos);
+            return paginada
+                    ? Paginacion.respuesta(resultado, CamposParciales::id, tamano)
+                    : ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener garantías con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Transmitir las garantías activas en formato NDJSON", description = "Cada documento se escribe como una línea JSON a medida que se lee del cursor de MongoDB")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de las garantías activas")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Petición para transmitir las garantías activas");
+        return this.ndjsonResponse.of(
+                () -> this.catalogoStreamService.streamActivos(Garantias.class),
+                this.catalogoStreamService.getCursorBatchSize(),
+                lote -> lote.stream().map(GarantiasMapper::mapToDTO).toList());
+    }
+
     @Operation(summary = "Obtener una garantía por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Garantía encontrada", content = @Content(schema = @Schema(implementation = GarantiasDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "Garantía no encontrada", content = @Content)
     })
     @GetMapping("/{id}")
     public ResponseEntity<GarantiasDTO> findById(
-            @Parameter(description = "ID de la garantía", required = true) @PathVariable String id) {
+            @Parameter(description = "ID de la garantía", required = true) @PathVariable String id,
+            WebRequest request) {
         log.info("Petición para obtener garantía con ID: {}", id);
         try {
             Garantias garantia = this.garantiasService.findById(id);
-            return ResponseEntity.ok(GarantiasMapper.mapToDTO(garantia));
+            String etag = ETags.recurso(garantia.getId(), garantia.getVersion());
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(GarantiasMapper.mapToDTO(garantia));
         } catch (EntityNotFoundException e) {
             log.error("Error al obtener garantía: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
 
+    @Operation(summary = "Obtener una garantía con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB: solo se leen los campos pedidos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Garantía con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Garantía no encontrada", content = @Content)
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findByIdCampos(
+            @Parameter(description = "ID de la garantía", required = true) @PathVariable String id,
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. tipoGarantia,valor", required = true) @RequestParam String fields,
+            WebRequest request) {
+        log.info("Petición para obtener garantía con ID {} y los campos {}", id, fields);
+        try {
+            Set<String> campos = CamposParciales.leer(fields, GarantiasDTO.class);
+            Garantias garantia = this.garantiasService.findById(id, campos);
+            String etag = ETags.recurso(garantia.getId(), garantia.getVersion());
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .body(CamposParciales.recortar(this.objectMapper, GarantiasMapper.mapToDTO(garantia), campos));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al obtener garantía: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener garantía con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(summary = "Crear una nueva garantía")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Garantía creada", content = @Content(schema = @Schema(implementation = GarantiasDTO.class))),
@@ -86,25 +229,113 @@ public class GarantiasController {
         }
     }
 
-    @Operation(summary = "Eliminar una garantía por su ID (eliminación lógica)")
+    @Operation(summary = "Actualizar parcialmente una garantía (JSON merge patch)", description = "Solo los campos enviados se escriben con $set; un campo en null se elimina")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Garantía actualizada", content = @Content(schema = @Schema(implementation = GarantiasDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Garantía no encontrada", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Parche inválido", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
+    })
+    @PatchMapping(value = "/{id}", consumes = ParchesMerge.MEDIA_TYPE)
+    public ResponseEntity<GarantiasDTO> patch(
+            @Parameter(description = "ID de la garantía", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @RequestBody JsonNode parche) {
+        log.info("Petición para actualizar parcialmente garantía con ID {}: {}", id, parche);
+        try {
+            Map<String, Object> cambios = ParchesMerge.leer(this.objectMapper, this.validator, parche,
+                    GarantiasDTO.class);
+            Garantias updatedGarantia = this.garantiasService.patch(id, cambios, version);
+
+            return ResponseEntity.ok(GarantiasMapper.mapToDTO(updatedGarantia));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al actualizar parcialmente garantía: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al actualizar parcialmente garantía: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException | UpdateException e) {
+            log.error("Error al actualizar parcialmente garantía: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Eliminar una garantía por su ID (eliminación lógica)", description = "Con cascada=true también desactiva los tipos de préstamo que la usan y sus préstamos, con un solo updateMany por colección, y devuelve cuántos documentos se desactivaron")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Garantía eliminada", content = @Content),
+            @ApiResponse(responseCode = "200", description = "Garantía eliminada junto con sus dependientes (cascada=true)", content = @Content(schema = @Schema(implementation = DesactivacionCascadaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Garantía no encontrada", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Error al eliminar garantía", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Error al eliminar garantía", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(
-            @Parameter(description = "ID de la garantía", required = true) @PathVariable String id) {
+    public ResponseEntity<DesactivacionCascadaDTO> delete(
+            @Parameter(description = "ID de la garantía", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @Parameter(description = "Desactivar también los registros que dependen de la garantía") @RequestParam(defaultValue = "false") boolean cascada) {
         log.info("Petición para eliminar garantía con ID: {}", id);
         try {
-            this.garantiasService.delete(id);
+            if (cascada) {
+                return ResponseEntity.ok(this.desactivacionCascadaService.desactivar(
+                        ColeccionCatalogoEnum.GARANTIAS, id, version));
+            }
+            this.garantiasService.delete(id, version);
             return ResponseEntity.noContent().build();
         } catch (EntityNotFoundException e) {
             log.error("Error al eliminar garantía: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al eliminar garantía: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (DeleteException e) {
             log.error("Error al eliminar garantía: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @Operation(summary = "Calcular el impacto de desactivar una garantía", description = "Simulación de la desactivación en cascada: cuenta los tipos de préstamo que la usan y sus préstamos que siguen activos, sin modificar nada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Documentos que se desactivarían", content = @Content(schema = @Schema(implementation = DesactivacionCascadaDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Garantía no encontrada", content = @Content)
+    })
+    @GetMapping("/{id}/impacto-desactivacion")
+    public ResponseEntity<DesactivacionCascadaDTO> impactoDesactivacion(
+            @Parameter(description = "ID de la garantía", required = true) @PathVariable String id) {
+        log.info("Petición para calcular el impacto de desactivar garantía con ID: {}", id);
+        try {
+            return ResponseEntity.ok(this.desactivacionCascadaService.impacto(ColeccionCatalogoEnum.GARANTIAS, id));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al calcular el impacto de desactivar garantía: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @Operation(summary = "Crear garantías en lote", description = "Escribe todas las garantías en un único bulkWrite no ordenado; devuelve el resultado de cada elemento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<ResultadoBulkDTO>> createBulk(@RequestBody List<GarantiasDTO> garantiasDTO) {
+        log.info("Petición para crear garantías en lote");
+        if (!Lotes.tamanoValido(garantiasDTO)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Lotes.procesar(this.validator, garantiasDTO, GarantiasMapper::mapToEntity,
+                this.garantiasService::createBulk));
+    }
+
+    @Operation(summary = "Eliminar garantías en lote (eliminación lógica)", description = "Desactiva con una sola actualización todos los ids existentes; devuelve el resultado de cada id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk/desactivar")
+    public ResponseEntity<List<ResultadoBulkDTO>> deleteBulk(@RequestBody List<String> ids) {
+        log.info("Petición para eliminar garantías en lote");
+        if (!Lotes.tamanoValido(ids)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(this.garantiasService.deleteBulk(ids));
+    }
 }
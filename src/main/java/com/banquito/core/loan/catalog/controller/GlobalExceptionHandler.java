@@ -1,8 +1,10 @@
 package com.banquito.core.loan.catalog.controller;
 
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.SimulacionException;
 import com.banquito.core.loan.catalog.exception.UpdateException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -53,6 +55,24 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(SimulacionException.class)
+    public ResponseEntity<Object> handleSimulacionException(SimulacionException ex) {
+        log.error("Simulacion exception: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        body.put("error", "Bad Request");
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Object> handleConflictException(ConflictException ex) {
+        log.error("Conflict exception: {}", ex.getMessage());
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", ex.getMessage());
+        body.put("error", "Conflict");
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGeneralException(Exception ex) {
         log.error("General exception: {}", ex.getMessage());
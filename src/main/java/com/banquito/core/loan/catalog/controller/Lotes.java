@@ -0,0 +1,69 @@
+package com.banquito.core.loan.catalog.controller;
+
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
+import com.banquito.core.loan.catalog.enums.ResultadoBulkEnum;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Solicitudes en lote: cada elemento se valida por separado, de modo que uno inválido se informa en su
+// posición sin rechazar el resto; solo los válidos llegan al servicio y a la base.
+final class Lotes {
+
+    static final int TAMANO_MAXIMO = 1000;
+
+    private Lotes() {
+    }
+
+    static boolean tamanoValido(List<?> elementos) {
+        return elementos != null && !elementos.isEmpty() && elementos.size() <= TAMANO_MAXIMO;
+    }
+
+    static <D, E> List<ResultadoBulkDTO> procesar(Validator validator, List<D> elementos, Function<D, E> mapeo,
+            Function<List<E>, List<ResultadoBulkDTO>> operacion) {
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(elementos.size());
+        List<E> validos = new ArrayList<>();
+        List<Integer> posiciones = new ArrayList<>();
+
+        for (int i = 0; i < elementos.size(); i++) {
+            D elemento = elementos.get(i);
+            if (elemento == null) {
+                resultados.add(error(i, "El elemento es requerido"));
+                continue;
+            }
+            Set<ConstraintViolation<D>> violaciones = validator.validate(elemento);
+            if (!violaciones.isEmpty()) {
+                resultados.add(error(i, violaciones.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining(", "))));
+            } else {
+                validos.add(mapeo.apply(elemento));
+                posiciones.add(i);
+            }
+        }
+
+        if (!validos.isEmpty()) {
+            // El servicio numera los resultados sobre la lista de válidos; se traducen a la posición original
+            for (ResultadoBulkDTO resultado : operacion.apply(validos)) {
+                resultado.setIndice(posiciones.get(resultado.getIndice()));
+                resultados.add(resultado);
+            }
+        }
+        resultados.sort(Comparator.comparing(ResultadoBulkDTO::getIndice));
+        return resultados;
+    }
+
+    private static ResultadoBulkDTO error(int indice, String mensaje) {
+        return ResultadoBulkDTO.builder()
+                .indice(indice)
+                .resultado(ResultadoBulkEnum.ERROR.getValor())
+                .mensaje(mensaje)
+                .build();
+    }
+}
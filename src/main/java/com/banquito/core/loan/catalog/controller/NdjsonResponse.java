@@ -0,0 +1,61 @@
+package com.banquito.core.loan.catalog.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Component
+public class NdjsonResponse {
+
+    private static final byte SALTO_LINEA = '\n';
+
+    private final ObjectWriter writer;
+
+    public NdjsonResponse(ObjectMapper objectMapper) {
+        this.writer = objectMapper.writer();
+    }
+
+    // Mapea y escribe los documentos por lotes a medida que llegan del cursor, sin materializar la colección
+    public <T, R> ResponseEntity<StreamingResponseBody> of(Supplier<Stream<T>> fuente, int tamanoLote,
+            Function<List<T>, List<R>> mapeo) {
+        StreamingResponseBody body = salida -> {
+            try (Stream<T> stream = fuente.get()) {
+                Iterator<T> iterator = stream.iterator();
+                List<T> lote = new ArrayList<>(tamanoLote);
+                while (iterator.hasNext()) {
+                    lote.add(iterator.next());
+                    if (lote.size() >= tamanoLote) {
+                        this.escribir(salida, mapeo.apply(lote));
+                        lote.clear();
+                    }
+                }
+                if (!lote.isEmpty()) {
+                    this.escribir(salida, mapeo.apply(lote));
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private <R> void escribir(OutputStream salida, List<R> elementos) throws IOException {
+        for (R elemento : elementos) {
+            salida.write(this.writer.writeValueAsBytes(elemento));
+            salida.write(SALTO_LINEA);
+        }
+        salida.flush();
+    }
+}
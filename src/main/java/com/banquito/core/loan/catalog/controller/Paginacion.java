@@ -0,0 +1,55 @@
+package com.banquito.core.loan.catalog.controller;
+
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+// Paginación por cursor (keyset) sobre _id: cada página es una consulta {estado, _id > after} ordenada
+// por _id, sin skip/offset, con costo constante sin importar la posición en el catálogo.
+final class Paginacion {
+
+    static final String HEADER_SIGUIENTE_CURSOR = "X-Next-Cursor";
+    static final int LIMITE_POR_DEFECTO = 50;
+    static final int LIMITE_MAXIMO = 500;
+
+    private Paginacion() {
+    }
+
+    static boolean solicitada(String after, String cursor, Integer limit) {
+        return after != null || cursor != null || limit != null;
+    }
+
+    static String desde(String after, String cursor) {
+        if (cursor == null) {
+            return after;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido: " + cursor);
+        }
+    }
+
+    static int tamano(Integer limit) {
+        if (limit == null) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+    }
+
+    static <T> ResponseEntity<List<T>> respuesta(List<T> pagina, Function<T, String> id, int tamano) {
+        // Una página incompleta indica que no quedan más documentos
+        if (pagina.isEmpty() || pagina.size() < tamano) {
+            return ResponseEntity.ok(pagina);
+        }
+        String ultimoId = id.apply(pagina.get(pagina.size() - 1));
+        String siguiente = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(ultimoId.getBytes(StandardCharsets.UTF_8));
+        return ResponseEntity.ok()
+                .header(HEADER_SIGUIENTE_CURSOR, siguiente)
+                .body(pagina);
+    }
+}
@@ -0,0 +1,66 @@
+package com.banquito.core.loan.catalog.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Traduce un JSON merge patch (RFC 7396) a un mapa campo -> valor ya tipado. El tipo de cada campo y sus
+// restricciones se toman del DTO del recurso, de modo que un campo enviado se valida igual que en un POST;
+// los campos que no se envían no se tocan. Qué campos son editables lo decide el servicio.
+public final class ParchesMerge {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private ParchesMerge() {
+    }
+
+    public static <D> Map<String, Object> leer(ObjectMapper objectMapper, Validator validator, JsonNode parche,
+            Class<D> dto) {
+        if (parche == null || !parche.isObject()) {
+            throw new IllegalArgumentException("El parche debe ser un objeto JSON");
+        }
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> campos = parche.fields();
+        while (campos.hasNext()) {
+            Map.Entry<String, JsonNode> campo = campos.next();
+            Object valor = valor(objectMapper, dto, campo.getKey(), campo.getValue());
+            Set<ConstraintViolation<D>> violaciones = validator.validateValue(dto, campo.getKey(), valor);
+            if (!violaciones.isEmpty()) {
+                throw new IllegalArgumentException(violaciones.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .collect(Collectors.joining(", ")));
+            }
+            cambios.put(campo.getKey(), valor);
+        }
+        return cambios;
+    }
+
+    private static Object valor(ObjectMapper objectMapper, Class<?> dto, String campo, JsonNode nodo) {
+        Class<?> tipo;
+        try {
+            tipo = dto.getDeclaredField(campo).getType();
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("El campo " + campo + " no existe");
+        }
+        // Los objetos relacionados (tipoPrestamo, seguro...) se modifican por su id, no anidados
+        if (!tipo.getPackageName().startsWith("java.")) {
+            throw new IllegalArgumentException("El campo " + campo + " no se puede modificar");
+        }
+        if (nodo.isNull()) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(nodo, tipo);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("El valor del campo " + campo + " no es válido");
+        }
+    }
+}
@@ -1,19 +1,33 @@
 package com.banquito.core.loan.catalog.controller;
 
+import com.banquito.core.loan.catalog.dto.BusquedaDTO;
+import com.banquito.core.loan.catalog.dto.CalculoComisionDTO;
+import com.banquito.core.loan.catalog.dto.ComisionCalculadaDTO;
 import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
+import com.banquito.core.loan.catalog.dto.ResultadoSimulacionDTO;
+import com.banquito.core.loan.catalog.dto.SimulacionDTO;
+import com.banquito.core.loan.catalog.dto.TablaAmortizacionDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.SimulacionException;
 import com.banquito.core.loan.catalog.exception.UpdateException;
 import com.banquito.core.loan.catalog.mapper.PrestamosMapper;
 import com.banquito.core.loan.catalog.model.Prestamos;
-import com.banquito.core.loan.catalog.model.Seguros;
-import com.banquito.core.loan.catalog.model.TiposComisiones;
-import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import com.banquito.core.loan.catalog.service.AmortizacionService;
+import com.banquito.core.loan.catalog.service.BusquedaCatalogoService;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.CatalogoStreamService;
+import com.banquito.core.loan.catalog.service.ComisionesService;
+import com.banquito.core.loan.catalog.service.ElegibilidadPrestamosService;
+import com.banquito.core.loan.catalog.service.PrestamosRelacionesService;
 import com.banquito.core.loan.catalog.service.PrestamosService;
-import com.banquito.core.loan.catalog.service.SegurosService;
-import com.banquito.core.loan.catalog.service.TiposComisionesService;
-import com.banquito.core.loan.catalog.service.TiposPrestamosService;
+import com.banquito.core.loan.catalog.service.SimulacionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,127 +36,355 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
-import java.util.ArrayList;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/catalogo/v1/prestamos")
 @CrossOrigin(origins = "*")
 @Tag(name = "Préstamos", description = "API para gestionar préstamos")
 public class PrestamosController {
 
+    // Objeto relacionado en PrestamosDTO -> campo del préstamo que lo referencia
+    private static final Map<String, String> RELACIONES = Map.of(
+            PrestamosRelacionesService.TIPO_PRESTAMO, "idTipoPrestamo",
+            PrestamosRelacionesService.SEGURO, "idSeguro",
+            PrestamosRelacionesService.TIPO_COMISION, "idTipoComision");
+
     private final PrestamosService prestamosService;
-    private final TiposPrestamosService tiposPrestamosService;
-    private final SegurosService segurosService;
-    private final TiposComisionesService tiposComisionesService;
+    private final PrestamosRelacionesService prestamosRelacionesService;
+    private final CatalogoStreamService catalogoStreamService;
+    private final NdjsonResponse ndjsonResponse;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final ElegibilidadPrestamosService elegibilidadPrestamosService;
+    private final Validator validator;
+    private final AmortizacionService amortizacionService;
+    private final SimulacionService simulacionService;
+    private final ComisionesService comisionesService;
+    private final BusquedaCatalogoService busquedaCatalogoService;
+    private final ObjectMapper objectMapper;
 
     public PrestamosController(
             PrestamosService prestamosService,
-            TiposPrestamosService tiposPrestamosService,
-            SegurosService segurosService,
-            TiposComisionesService tiposComisionesService) {
+            PrestamosRelacionesService prestamosRelacionesService,
+            CatalogoStreamService catalogoStreamService,
+            NdjsonResponse ndjsonResponse,
+            CatalogoCambiosService catalogoCambiosService,
+            ElegibilidadPrestamosService elegibilidadPrestamosService,
+            Validator validator,
+            AmortizacionService amortizacionService,
+            SimulacionService simulacionService,
+            ComisionesService comisionesService,
+            BusquedaCatalogoService busquedaCatalogoService,
+            ObjectMapper objectMapper) {
         this.prestamosService = prestamosService;
-        this.tiposPrestamosService = tiposPrestamosService;
-        this.segurosService = segurosService;
-        this.tiposComisionesService = tiposComisionesService;
+        this.prestamosRelacionesService = prestamosRelacionesService;
+        this.catalogoStreamService = catalogoStreamService;
+        this.ndjsonResponse = ndjsonResponse;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.elegibilidadPrestamosService = elegibilidadPrestamosService;
+        this.validator = validator;
+        this.amortizacionService = amortizacionService;
+        this.simulacionService = simulacionService;
+        this.comisionesService = comisionesService;
+        this.busquedaCatalogoService = busquedaCatalogoService;
+        this.objectMapper = objectMapper;
     }
 
-    @Operation(summary = "Obtener todos los préstamos activos", description = "Devuelve todos los préstamos con los detalles completos de tipo préstamo, seguros y tipo comisión asociados")
+    @Operation(summary = "Obtener todos los préstamos activos", description = "Sin expand devuelve los préstamos sin relaciones; cada relación indicada en expand se resuelve con una sola consulta en lote")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Préstamos encontrados con detalles completos de entidades relacionadas", content = @Content(schema = @Schema(implementation = PrestamosDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Préstamos encontrados con las relaciones pedidas", content = @Content(schema = @Schema(implementation = PrestamosDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Relación no expandible o cursor de paginación inválido", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<PrestamosDTO>> findAll() {
-        log.info("Petición para obtener todos los préstamos");
-        List<PrestamosDTO> prestamos = new ArrayList<>();
-
-        for (Prestamos prestamo : this.prestamosService.findAll()) {
+    public ResponseEntity<List<PrestamosDTO>> findAll(
+            @Parameter(description = "Relaciones a incluir separadas por comas: tipoPrestamo, tipoPrestamo.garantia, seguro, tipoComision. Por defecto ninguna") @RequestParam(required = false) String expand,
+            @Parameter(description = "ID del último préstamo de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de préstamos por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("Petición para obtener todos los préstamos con las relaciones {}", expand);
+        Set<String> relaciones;
+        try {
+            relaciones = Expansiones.leer(expand, PrestamosRelacionesService.RELACIONES);
+        } catch (IllegalArgumentException e) {
+            log.error("Error en la expansión de préstamos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        // El ETag del listado se calcula sin consultar la base: solo depende de las versiones de las colecciones
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(
+                PrestamosRelacionesService.colecciones(relaciones)));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (Paginacion.solicitada(after, cursor, limit)) {
             try {
-                // Obtener entidades relacionadas
-                TiposPrestamos tipoPrestamo = null;
-                Seguros seguro = null;
-                TiposComisiones tipoComision = null;
-
-                try {
-                    tipoPrestamo = this.tiposPrestamosService.findById(prestamo.getIdTipoPrestamo());
-                } catch (EntityNotFoundException e) {
-                    log.warn("Tipo de préstamo no encontrado para el préstamo {}: {}", prestamo.getId(),
-                            e.getMessage());
-                }
+                int tamano = Paginacion.tamano(limit);
+                List<Prestamos> pagina = this.prestamosService.findPage(Paginacion.desde(after, cursor), tamano);
+                return Paginacion.respuesta(
+                        this.prestamosRelacionesService.mapToDTOsWithRelations(pagina, relaciones),
+                        PrestamosDTO::getId, tamano);
+            } catch (IllegalArgumentException e) {
+                log.error("Error en la paginación de préstamos: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
 
-                try {
-                    seguro = this.segurosService.findById(prestamo.getIdSeguro());
-                } catch (EntityNotFoundException e) {
-                    log.warn("Seguro no encontrado para el préstamo {}: {}", prestamo.getId(), e.getMessage());
-                }
+        List<PrestamosDTO> prestamos = this.prestamosRelacionesService.findAll(relaciones);
+        return ResponseEntity.ok(prestamos);
+    }
 
-                try {
-                    tipoComision = this.tiposComisionesService.findById(prestamo.getIdTipoComision());
-                } catch (EntityNotFoundException e) {
-                    log.warn("Tipo de comisión no encontrado para el préstamo {}: {}", prestamo.getId(),
-                            e.getMessage());
-                }
+    @Operation(summary = "Obtener los préstamos activos con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB; tipoPrestamo, seguro y tipoComision solo se consultan si se piden en fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamos con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente o cursor de paginación inválido", content = @Content)
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> findAllCampos(
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. nombre,tasaInteres,seguro", required = true) @RequestParam String fields,
+            @Parameter(description = "ID del último préstamo de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de préstamos por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("Petición para obtener los préstamos con los campos {}", fields);
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.PRESTAMOS,
+                ColeccionCatalogoEnum.TIPOS_PRESTAMOS, ColeccionCatalogoEnum.GARANTIAS,
+                ColeccionCatalogoEnum.SEGUROS, ColeccionCatalogoEnum.TIPOS_COMISIONES));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        try {
+            Set<String> campos = CamposParciales.leer(fields, PrestamosDTO.class);
+            Set<String> proyeccion = CamposParciales.proyeccion(campos, RELACIONES);
+            boolean paginada = Paginacion.solicitada(after, cursor, limit);
+            int tamano = Paginacion.tamano(limit);
+            List<Prestamos> prestamos = paginada
+                    ? this.prestamosService.findPage(Paginacion.desde(after, cursor), tamano, proyeccion)
+                    : this.prestamosService.findAll(proyeccion);
+            List<Map<String, Object>> resultado = CamposParciales.recortar(this.objectMapper,
+                    this.prestamosRelacionesService.mapToDTOsWithRelations(prestamos, relaciones(campos)), campos);
+            return paginada
+                    ? Paginacion.respuesta(resultado, CamposParciales::id, tamano)
+                    : ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener préstamos con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
-                // Mapear con las relaciones disponibles
-                prestamos.add(PrestamosMapper.mapToDTOWithRelations(prestamo, tipoPrestamo, seguro, tipoComision));
-            } catch (Exception e) {
-                log.error("Error al obtener detalles para el préstamo {}: {}", prestamo.getId(), e.getMessage());
-                // Si hay error, incluir la versión básica
-                prestamos.add(PrestamosMapper.mapToDTO(prestamo));
-            }
+    @Operation(summary = "Transmitir los préstamos activos en formato NDJSON", description = "Cada documento se escribe como una línea JSON a medida que se lee del cursor de MongoDB")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de los préstamos activos"),
+            @ApiResponse(responseCode = "400", description = "Relación no expandible", content = @Content)
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(
+            @Parameter(description = "Relaciones a incluir separadas por comas: tipoPrestamo, tipoPrestamo.garantia, seguro, tipoComision. Por defecto ninguna") @RequestParam(required = false) String expand) {
+        log.info("Petición para transmitir los préstamos activos con las relaciones {}", expand);
+        Set<String> relaciones;
+        try {
+            relaciones = Expansiones.leer(expand, PrestamosRelacionesService.RELACIONES);
+        } catch (IllegalArgumentException e) {
+            log.error("Error en la expansión de préstamos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
+        return this.ndjsonResponse.of(
+                () -> this.catalogoStreamService.streamActivos(Prestamos.class),
+                this.catalogoStreamService.getCursorBatchSize(),
+                lote -> this.prestamosRelacionesService.mapToDTOsWithRelations(lote, relaciones));
+    }
 
+    @Operation(summary = "Obtener los préstamos elegibles para un monto y un plazo", description = "Devuelve los préstamos activos cuyo rango de monto y de plazo en meses incluyen los valores indicados, resueltos desde un índice en memoria")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamos elegibles", content = @Content(schema = @Schema(implementation = PrestamosDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Monto o plazo inválidos", content = @Content)
+    })
+    @GetMapping("/elegibles")
+    public ResponseEntity<List<PrestamosDTO>> findElegibles(
+            @Parameter(description = "Monto solicitado", required = true) @RequestParam BigDecimal monto,
+            @Parameter(description = "Plazo solicitado en meses", required = true) @RequestParam Integer plazo) {
+        log.info("Petición para obtener préstamos elegibles para monto {} y plazo {}", monto, plazo);
+        if (monto.signum() <= 0 || plazo <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<PrestamosDTO> prestamos = this.elegibilidadPrestamosService.findElegibles(monto, plazo)
+                .stream()
+                .map(PrestamosMapper::mapToDTO)
+                .toList();
         return ResponseEntity.ok(prestamos);
     }
 
-    @Operation(summary = "Obtener un préstamo por su ID", description = "Devuelve un préstamo con los detalles completos de tipo préstamo, seguros y tipo comisión asociados")
+    @Operation(summary = "Calcular la tabla de amortización de un préstamo", description = "Genera las cuotas del sistema francés para el monto y el plazo indicados, según la tasa y la base de cálculo del préstamo")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Préstamo encontrado con detalles completos de entidades relacionadas", content = @Content(schema = @Schema(implementation = PrestamosDTO.class))),
+            @ApiResponse(responseCode = "200", description = "Tabla de amortización calculada", content = @Content(schema = @Schema(implementation = TablaAmortizacionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Monto o plazo fuera de los rangos del préstamo", content = @Content),
             @ApiResponse(responseCode = "404", description = "Préstamo no encontrado", content = @Content)
     })
-    @GetMapping("/{id}")
-    public ResponseEntity<PrestamosDTO> findById(
-            @Parameter(description = "ID del préstamo", required = true) @PathVariable String id) {
-        log.info("Petición para obtener préstamo con ID: {}", id);
+    @GetMapping("/{id}/amortizacion")
+    public ResponseEntity<TablaAmortizacionDTO> amortizacion(
+            @Parameter(description = "ID del préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Monto solicitado", required = true) @RequestParam BigDecimal monto,
+            @Parameter(description = "Plazo solicitado en meses", required = true) @RequestParam Integer plazo,
+            @Parameter(description = "Fecha de desembolso; por defecto la fecha actual") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio) {
+        log.info("Petición para calcular la amortización del préstamo {} para monto {} y plazo {}", id, monto, plazo);
         try {
-            Prestamos prestamo = this.prestamosService.findById(id);
+            return ResponseEntity.ok(this.amortizacionService.calcular(id, monto, plazo, fechaInicio));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al calcular amortización: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (SimulacionException e) {
+            log.error("Error al calcular amortización: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
-            // Obtener entidades relacionadas
-            TiposPrestamos tipoPrestamo = null;
-            Seguros seguro = null;
-            TiposComisiones tipoComision = null;
+    @Operation(summary = "Simular cuotas para un lote de escenarios", description = "Calcula en paralelo la cuota, el total de intereses y el costo total de cada combinación de préstamo, monto y plazo; los préstamos se leen una sola vez por lote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por escenario", content = @Content(schema = @Schema(implementation = ResultadoSimulacionDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más escenarios de los permitidos", content = @Content)
+    })
+    @PostMapping("/simulaciones")
+    public ResponseEntity<List<ResultadoSimulacionDTO>> simular(@RequestBody List<SimulacionDTO> simulacionesDTO) {
+        log.info("Petición para simular un lote de escenarios");
+        try {
+            return ResponseEntity.ok(this.simulacionService.simular(simulacionesDTO));
+        } catch (SimulacionException e) {
+            log.error("Error al simular escenarios: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
-            try {
-                tipoPrestamo = this.tiposPrestamosService.findById(prestamo.getIdTipoPrestamo());
-            } catch (EntityNotFoundException e) {
-                log.warn("Tipo de préstamo no encontrado para el préstamo {}: {}", id, e.getMessage());
-            }
+    @Operation(summary = "Calcular la comisión de un préstamo", description = "Aplica el tipo de comisión del préstamo sobre el monto o saldo indicado, con el evaluador precompilado en memoria")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Comisión calculada", content = @Content(schema = @Schema(implementation = ComisionCalculadaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Monto inválido o tipo de comisión inactivo", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Préstamo no encontrado", content = @Content)
+    })
+    @GetMapping("/{id}/comisiones")
+    public ResponseEntity<ComisionCalculadaDTO> calcularComision(
+            @Parameter(description = "ID del préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Monto o saldo sobre el que se aplica la comisión", required = true) @RequestParam BigDecimal monto) {
+        log.info("Petición para calcular la comisión del préstamo {} sobre {}", id, monto);
+        try {
+            return ResponseEntity.ok(this.comisionesService.calcular(id, monto));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al calcular comisión: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (SimulacionException | ArithmeticException e) {
+            log.error("Error al calcular comisión: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
-            try {
-                seguro = this.segurosService.findById(prestamo.getIdSeguro());
-            } catch (EntityNotFoundException e) {
-                log.warn("Seguro no encontrado para el préstamo {}: {}", id, e.getMessage());
-            }
+    @Operation(summary = "Calcular comisiones en lote", description = "Calcula la comisión de cada par préstamo y monto; los préstamos se leen una sola vez por lote")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por cálculo", content = @Content(schema = @Schema(implementation = ComisionCalculadaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/comisiones")
+    public ResponseEntity<List<ComisionCalculadaDTO>> calcularComisiones(
+            @RequestBody List<CalculoComisionDTO> calculosDTO) {
+        log.info("Petición para calcular comisiones en lote");
+        if (!Lotes.tamanoValido(calculosDTO)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(this.comisionesService.calcular(calculosDTO));
+    }
 
-            try {
-                tipoComision = this.tiposComisionesService.findById(prestamo.getIdTipoComision());
-            } catch (EntityNotFoundException e) {
-                log.warn("Tipo de comisión no encontrado para el préstamo {}: {}", id, e.getMessage());
-            }
+    @Operation(summary = "Buscar préstamos y tipos de préstamo por texto", description = "Busca en el nombre y la descripción sin distinguir tildes ni mayúsculas; la última palabra se completa por prefijo. Se resuelve desde un índice invertido en memoria, sin consultar la base")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados ordenados por relevancia y sugerencias de autocompletado", content = @Content(schema = @Schema(implementation = BusquedaDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Consulta vacía o límite inválido", content = @Content)
+    })
+    @GetMapping("/buscar")
+    public ResponseEntity<BusquedaDTO> buscar(
+            @Parameter(description = "Texto a buscar", required = true) @RequestParam String q,
+            @Parameter(description = "Número máximo de resultados") @RequestParam(defaultValue = "10") Integer limit) {
+        log.debug("Petición de búsqueda en el catálogo: {}", q);
+        if (q.isBlank() || limit <= 0 || limit > Paginacion.LIMITE_MAXIMO) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(this.busquedaCatalogoService.buscar(q, limit));
+    }
 
-            // Devolver DTO con relaciones
-            return ResponseEntity
-                    .ok(PrestamosMapper.mapToDTOWithRelations(prestamo, tipoPrestamo, seguro, tipoComision));
+    @Operation(summary = "Obtener un préstamo por su ID", description = "Sin expand devuelve el préstamo sin relaciones; expand indica qué relaciones incluir")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamo encontrado con las relaciones pedidas", content = @Content(schema = @Schema(implementation = PrestamosDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Relación no expandible", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Préstamo no encontrado", content = @Content)
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<PrestamosDTO> findById(
+            @Parameter(description = "ID del préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Relaciones a incluir separadas por comas: tipoPrestamo, tipoPrestamo.garantia, seguro, tipoComision. Por defecto ninguna") @RequestParam(required = false) String expand,
+            WebRequest request) {
+        log.info("Petición para obtener préstamo con ID {} y las relaciones {}", id, expand);
+        try {
+            PrestamosDTO prestamo = this.prestamosRelacionesService.findById(id,
+                    Expansiones.leer(expand, PrestamosRelacionesService.RELACIONES));
+            String etag = ETags.prestamo(prestamo);
+            if (request.checkNotModified(etag, ETags.ultimaModificacion(prestamo.getFechaModificacion()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(prestamo);
+        } catch (EntityNotFoundException e) {
+            log.error("Error al obtener préstamo: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error en la expansión del préstamo: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
+    @Operation(summary = "Obtener un préstamo con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB; tipoPrestamo, seguro y tipoComision solo se consultan si se piden en fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamo con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Préstamo no encontrado", content = @Content)
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findByIdCampos(
+            @Parameter(description = "ID del préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. nombre,tasaInteres,seguro", required = true) @RequestParam String fields,
+            WebRequest request) {
+        log.info("Petición para obtener préstamo con ID {} y los campos {}", id, fields);
+        try {
+            Set<String> campos = CamposParciales.leer(fields, PrestamosDTO.class);
+            Prestamos prestamo = this.prestamosService.findById(id, CamposParciales.proyeccion(campos, RELACIONES));
+            PrestamosDTO prestamoDTO = this.prestamosRelacionesService.mapToDTOsWithRelations(List.of(prestamo),
+                    relaciones(campos)).get(0);
+            String etag = ETags.prestamo(prestamoDTO);
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .body(CamposParciales.recortar(this.objectMapper, prestamoDTO, campos));
         } catch (EntityNotFoundException e) {
             log.error("Error al obtener préstamo: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener préstamo con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -158,32 +400,8 @@ public class PrestamosController {
             Prestamos prestamo = PrestamosMapper.mapToEntity(prestamoDTO);
             Prestamos savedPrestamo = this.prestamosService.create(prestamo);
 
-            // Obtener entidades relacionadas para la respuesta
-            TiposPrestamos tipoPrestamo = null;
-            Seguros seguro = null;
-            TiposComisiones tipoComision = null;
-
-            try {
-                tipoPrestamo = this.tiposPrestamosService.findById(savedPrestamo.getIdTipoPrestamo());
-            } catch (EntityNotFoundException e) {
-                log.warn("Tipo de préstamo no encontrado para el préstamo creado: {}", e.getMessage());
-            }
-
-            try {
-                seguro = this.segurosService.findById(savedPrestamo.getIdSeguro());
-            } catch (EntityNotFoundException e) {
-                log.warn("Seguro no encontrado para el préstamo creado: {}", e.getMessage());
-            }
-
-            try {
-                tipoComision = this.tiposComisionesService.findById(savedPrestamo.getIdTipoComision());
-            } catch (EntityNotFoundException e) {
-                log.warn("Tipo de comisión no encontrado para el préstamo creado: {}", e.getMessage());
-            }
-
             return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(PrestamosMapper.mapToDTOWithRelations(savedPrestamo, tipoPrestamo, seguro, tipoComision));
-
+                    .body(this.prestamosRelacionesService.mapToDTOWithRelations(savedPrestamo));
         } catch (CreateException e) {
             log.error("Error al crear préstamo: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
@@ -194,7 +412,8 @@ public class PrestamosController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Préstamo actualizado", content = @Content(schema = @Schema(implementation = PrestamosDTO.class))),
             @ApiResponse(responseCode = "404", description = "Préstamo no encontrado", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
     })
     @PutMapping("/{id}")
     public ResponseEntity<PrestamosDTO> update(
@@ -205,59 +424,127 @@ public class PrestamosController {
             Prestamos prestamo = PrestamosMapper.mapToEntity(prestamoDTO);
             Prestamos updatedPrestamo = this.prestamosService.update(id, prestamo);
 
-            // Obtener entidades relacionadas para la respuesta
-            TiposPrestamos tipoPrestamo = null;
-            Seguros seguro = null;
-            TiposComisiones tipoComision = null;
-
-            try {
-                tipoPrestamo = this.tiposPrestamosService.findById(updatedPrestamo.getIdTipoPrestamo());
-            } catch (EntityNotFoundException e) {
-                log.warn("Tipo de préstamo no encontrado para el préstamo actualizado: {}", e.getMessage());
-            }
-
-            try {
-                seguro = this.segurosService.findById(updatedPrestamo.getIdSeguro());
-            } catch (EntityNotFoundException e) {
-                log.warn("Seguro no encontrado para el préstamo actualizado: {}", e.getMessage());
-            }
-
-            try {
-                tipoComision = this.tiposComisionesService.findById(updatedPrestamo.getIdTipoComision());
-            } catch (EntityNotFoundException e) {
-                log.warn("Tipo de comisión no encontrado para el préstamo actualizado: {}", e.getMessage());
-            }
-
-            return ResponseEntity
-                    .ok(PrestamosMapper.mapToDTOWithRelations(updatedPrestamo, tipoPrestamo, seguro, tipoComision));
+            return ResponseEntity.ok(this.prestamosRelacionesService.mapToDTOWithRelations(updatedPrestamo));
         } catch (EntityNotFoundException e) {
             log.error("Error al actualizar préstamo: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al actualizar préstamo: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (UpdateException e) {
             log.error("Error al actualizar préstamo: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @Operation(summary = "Actualizar parcialmente un préstamo (JSON merge patch)", description = "Solo los campos enviados se escriben con $set; un campo en null se elimina. Solo se validan las referencias incluidas (por ejemplo, solo idSeguro si solo cambia el seguro)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Préstamo actualizado", content = @Content(schema = @Schema(implementation = PrestamosDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Préstamo no encontrado", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Parche inválido", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
+    })
+    @PatchMapping(value = "/{id}", consumes = ParchesMerge.MEDIA_TYPE)
+    public ResponseEntity<PrestamosDTO> patch(
+            @Parameter(description = "ID del préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @RequestBody JsonNode parche) {
+        log.info("Petición para actualizar parcialmente préstamo con ID {}: {}", id, parche);
+        try {
+            Map<String, Object> cambios = ParchesMerge.leer(this.objectMapper, this.validator, parche,
+                    PrestamosDTO.class);
+            Prestamos updatedPrestamo = this.prestamosService.patch(id, cambios, version);
+
+            return ResponseEntity.ok(this.prestamosRelacionesService.mapToDTOWithRelations(updatedPrestamo));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al actualizar parcialmente préstamo: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al actualizar parcialmente préstamo: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException | UpdateException e) {
+            log.error("Error al actualizar parcialmente préstamo: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(summary = "Eliminar un préstamo por su ID (eliminación lógica)")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Préstamo eliminado", content = @Content),
             @ApiResponse(responseCode = "404", description = "Préstamo no encontrado", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Error al eliminar préstamo", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Error al eliminar préstamo", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(
-            @Parameter(description = "ID del préstamo", required = true) @PathVariable String id) {
+            @Parameter(description = "ID del préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version) {
         log.info("Petición para eliminar préstamo con ID: {}", id);
         try {
-            this.prestamosService.delete(id);
+            this.prestamosService.delete(id, version);
             return ResponseEntity.noContent().build();
         } catch (EntityNotFoundException e) {
             log.error("Error al eliminar préstamo: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al eliminar préstamo: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (DeleteException e) {
             log.error("Error al eliminar préstamo: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @Operation(summary = "Crear préstamos en lote", description = "Valida las referencias con una consulta por colección y escribe todos los préstamos en un único bulkWrite no ordenado; devuelve el resultado de cada elemento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<ResultadoBulkDTO>> createBulk(@RequestBody List<PrestamosDTO> prestamosDTO) {
+        log.info("Petición para crear préstamos en lote");
+        if (!Lotes.tamanoValido(prestamosDTO)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Lotes.procesar(this.validator, prestamosDTO, PrestamosMapper::mapToEntity,
+                this.prestamosService::createBulk));
+    }
+
+    @Operation(summary = "Actualizar préstamos en lote", description = "Cada elemento debe incluir su id; los existentes se leen con una sola consulta y se actualizan en un único bulkWrite no ordenado, cada uno condicionado a su versión; un elemento modificado por otra operación se informa como CONFLICTO")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PutMapping("/bulk")
+    public ResponseEntity<List<ResultadoBulkDTO>> updateBulk(@RequestBody List<PrestamosDTO> prestamosDTO) {
+        log.info("Petición para actualizar préstamos en lote");
+        if (!Lotes.tamanoValido(prestamosDTO)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Lotes.procesar(this.validator, prestamosDTO, PrestamosMapper::mapToEntity,
+                this.prestamosService::updateBulk));
+    }
+
+    @Operation(summary = "Eliminar préstamos en lote (eliminación lógica)", description = "Desactiva con una sola actualización todos los ids existentes; devuelve el resultado de cada id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk/desactivar")
+    public ResponseEntity<List<ResultadoBulkDTO>> deleteBulk(@RequestBody List<String> ids) {
+        log.info("Petición para eliminar préstamos en lote");
+        if (!Lotes.tamanoValido(ids)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(this.prestamosService.deleteBulk(ids));
+    }
+
+    // Con fields, un tipo de préstamo pedido se devuelve completo, con su garantía
+    private static Set<String> relaciones(Set<String> campos) {
+        Set<String> relaciones = CamposParciales.relaciones(campos, RELACIONES);
+        if (relaciones.contains(PrestamosRelacionesService.TIPO_PRESTAMO)) {
+            relaciones.add(PrestamosRelacionesService.TIPO_PRESTAMO_GARANTIA);
+        }
+        return relaciones;
+    }
 }
@@ -1,12 +1,22 @@
 package com.banquito.core.loan.catalog.controller;
 
+import com.banquito.core.loan.catalog.dto.DesactivacionCascadaDTO;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
 import com.banquito.core.loan.catalog.dto.SegurosDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.UpdateException;
 import com.banquito.core.loan.catalog.mapper.SegurosMapper;
 import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.CatalogoStreamService;
+import com.banquito.core.loan.catalog.service.DesactivacionCascadaService;
 import com.banquito.core.loan.catalog.service.SegurosService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,34 +25,81 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @CrossOrigin(origins = "*")
 @RequestMapping("/api/catalogo/v1/seguros")
 @Tag(name = "Seguros", description = "API para gestionar seguros")
 public class SegurosController {
 
     private final SegurosService segurosService;
+    private final CatalogoStreamService catalogoStreamService;
+    private final NdjsonResponse ndjsonResponse;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DesactivacionCascadaService desactivacionCascadaService;
 
-    public SegurosController(SegurosService segurosService) {
+    public SegurosController(SegurosService segurosService,
+            CatalogoStreamService catalogoStreamService, NdjsonResponse ndjsonResponse,
+            CatalogoCambiosService catalogoCambiosService, Validator validator, ObjectMapper objectMapper,
+            DesactivacionCascadaService desactivacionCascadaService) {
         this.segurosService = segurosService;
+        this.catalogoStreamService = catalogoStreamService;
+        this.ndjsonResponse = ndjsonResponse;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.desactivacionCascadaService = desactivacionCascadaService;
     }
 
     @Operation(summary = "Obtener todos los seguros activos")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Seguros encontrados", content = @Content(schema = @Schema(implementation = SegurosDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Seguros encontrados", content = @Content(schema = @Schema(implementation = SegurosDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Cursor de paginación inválido", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<SegurosDTO>> findAll() {
+    public ResponseEntity<List<SegurosDTO>> findAll(
+            @Parameter(description = "ID del último seguro de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de seguros por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         log.info("Petición para obtener todos los seguros");
+        // El ETag del listado se calcula sin consultar la base: solo depende de las versiones de las colecciones
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.SEGUROS));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (Paginacion.solicitada(after, cursor, limit)) {
+            try {
+                int tamano = Paginacion.tamano(limit);
+                List<Seguros> pagina = this.segurosService.findPage(Paginacion.desde(after, cursor), tamano);
+                return Paginacion.respuesta(
+                        pagina.stream().map(SegurosMapper::mapToDTO).collect(Collectors.toList()),
+                        SegurosDTO::getId, tamano);
+            } catch (IllegalArgumentException e) {
+                log.error("Error en la paginación de seguros: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         List<SegurosDTO> seguros = this.segurosService.findAll()
                 .stream()
                 .map(SegurosMapper::mapToDTO)
@@ -50,24 +107,110 @@ public class SegurosController {
         return ResponseEntity.ok(seguros);
     }
 
+    @Operation(summary = "Obtener los seguros activos con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB: solo se leen los campos pedidos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Seguros con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente o cursor de paginación inválido", content = @Content)
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> findAllCampos(
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. tipoSeguro,compania,montoAsegurado", required = true) @RequestParam String fields,
+            @Parameter(description = "ID del último seguro de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de seguros por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("Petición para obtener los seguros con los campos {}", fields);
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.SEGUROS));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        try {
+            Set<String> campos = CamposParciales.leer(fields, SegurosDTO.class);
+            boolean paginada = Paginacion.solicitada(after, cursor, limit);
+            int tamano = Paginacion.tamano(limit);
+            List<Seguros> seguros = paginada
+                    ? this.segurosService.findPage(Paginacion.desde(after, cursor), tamano, campos)
+                    : this.segurosService.findAll(campos);
+            List<Map<String, Object>> resultado = CamposParciales.recortar(this.objectMapper,
+                    seguros.stream().map(SegurosMapper::mapToDTO).toList(), campos);
+            return paginada
+                    ? Paginacion.respuesta(resultado, CamposParciales::id, tamano)
+                    : ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener seguros con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Transmitir los seguros activos en formato NDJSON", description = "Cada documento se escribe como una línea JSON a medida que se lee del cursor de MongoDB")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de los seguros activos")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Petición para transmitir los seguros activos");
+        return this.ndjsonResponse.of(
+                () -> this.catalogoStreamService.streamActivos(Seguros.class),
+                this.catalogoStreamService.getCursorBatchSize(),
+                lote -> lote.stream().map(SegurosMapper::mapToDTO).toList());
+    }
+
     @Operation(summary = "Obtener un seguro por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Seguro encontrado", content = @Content(schema = @Schema(implementation = SegurosDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "Seguro no encontrado", content = @Content)
     })
     @GetMapping("/{id}")
     public ResponseEntity<SegurosDTO> findById(
-            @Parameter(description = "ID del seguro", required = true) @PathVariable String id) {
+            @Parameter(description = "ID del seguro", required = true) @PathVariable String id,
+            WebRequest request) {
         log.info("Petición para obtener seguro con ID: {}", id);
         try {
             Seguros seguro = this.segurosService.findById(id);
-            return ResponseEntity.ok(SegurosMapper.mapToDTO(seguro));
+            String etag = ETags.recurso(seguro.getId(), seguro.getVersion());
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(SegurosMapper.mapToDTO(seguro));
         } catch (EntityNotFoundException e) {
             log.error("Error al obtener seguro: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
 
+    @Operation(summary = "Obtener un seguro con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB: solo se leen los campos pedidos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Seguro con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Seguro no encontrado", content = @Content)
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findByIdCampos(
+            @Parameter(description = "ID del seguro", required = true) @PathVariable String id,
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. tipoSeguro,compania,montoAsegurado", required = true) @RequestParam String fields,
+            WebRequest request) {
+        log.info("Petición para obtener seguro con ID {} y los campos {}", id, fields);
+        try {
+            Set<String> campos = CamposParciales.leer(fields, SegurosDTO.class);
+            Seguros seguro = this.segurosService.findById(id, campos);
+            String etag = ETags.recurso(seguro.getId(), seguro.getVersion());
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .body(CamposParciales.recortar(this.objectMapper, SegurosMapper.mapToDTO(seguro), campos));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al obtener seguro: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener seguro con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(summary = "Crear un nuevo seguro")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Seguro creado", content = @Content(schema = @Schema(implementation = SegurosDTO.class))),
@@ -86,25 +229,113 @@ public class SegurosController {
         }
     }
 
-    @Operation(summary = "Eliminar un seguro por su ID (eliminación lógica)")
+    @Operation(summary = "Actualizar parcialmente un seguro (JSON merge patch)", description = "Solo los campos enviados se escriben con $set; un campo en null se elimina")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Seguro actualizado", content = @Content(schema = @Schema(implementation = SegurosDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Seguro no encontrado", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Parche inválido", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
+    })
+    @PatchMapping(value = "/{id}", consumes = ParchesMerge.MEDIA_TYPE)
+    public ResponseEntity<SegurosDTO> patch(
+            @Parameter(description = "ID del seguro", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @RequestBody JsonNode parche) {
+        log.info("Petición para actualizar parcialmente seguro con ID {}: {}", id, parche);
+        try {
+            Map<String, Object> cambios = ParchesMerge.leer(this.objectMapper, this.validator, parche,
+                    SegurosDTO.class);
+            Seguros updatedSeguro = this.segurosService.patch(id, cambios, version);
+
+            return ResponseEntity.ok(SegurosMapper.mapToDTO(updatedSeguro));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al actualizar parcialmente seguro: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al actualizar parcialmente seguro: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException | UpdateException e) {
+            log.error("Error al actualizar parcialmente seguro: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Eliminar un seguro por su ID (eliminación lógica)", description = "Con cascada=true también desactiva los préstamos que lo usan, con un solo updateMany por colección, y devuelve cuántos documentos se desactivaron")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Seguro eliminado", content = @Content),
+            @ApiResponse(responseCode = "200", description = "Seguro eliminado junto con sus dependientes (cascada=true)", content = @Content(schema = @Schema(implementation = DesactivacionCascadaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Seguro no encontrado", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Error al eliminar seguro", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Error al eliminar seguro", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(
-            @Parameter(description = "ID del seguro", required = true) @PathVariable String id) {
+    public ResponseEntity<DesactivacionCascadaDTO> delete(
+            @Parameter(description = "ID del seguro", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @Parameter(description = "Desactivar también los registros que dependen del seguro") @RequestParam(defaultValue = "false") boolean cascada) {
         log.info("Petición para eliminar seguro con ID: {}", id);
         try {
-            this.segurosService.delete(id);
+            if (cascada) {
+                return ResponseEntity.ok(this.desactivacionCascadaService.desactivar(
+                        ColeccionCatalogoEnum.SEGUROS, id, version));
+            }
+            this.segurosService.delete(id, version);
             return ResponseEntity.noContent().build();
         } catch (EntityNotFoundException e) {
             log.error("Error al eliminar seguro: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al eliminar seguro: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (DeleteException e) {
             log.error("Error al eliminar seguro: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @Operation(summary = "Calcular el impacto de desactivar un seguro", description = "Simulación de la desactivación en cascada: cuenta los préstamos que lo usan que siguen activos, sin modificar nada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Documentos que se desactivarían", content = @Content(schema = @Schema(implementation = DesactivacionCascadaDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Seguro no encontrado", content = @Content)
+    })
+    @GetMapping("/{id}/impacto-desactivacion")
+    public ResponseEntity<DesactivacionCascadaDTO> impactoDesactivacion(
+            @Parameter(description = "ID del seguro", required = true) @PathVariable String id) {
+        log.info("Petición para calcular el impacto de desactivar seguro con ID: {}", id);
+        try {
+            return ResponseEntity.ok(this.desactivacionCascadaService.impacto(ColeccionCatalogoEnum.SEGUROS, id));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al calcular el impacto de desactivar seguro: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @Operation(summary = "Crear seguros en lote", description = "Escribe todos los seguros en un único bulkWrite no ordenado; devuelve el resultado de cada elemento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<ResultadoBulkDTO>> createBulk(@RequestBody List<SegurosDTO> segurosDTO) {
+        log.info("Petición para crear seguros en lote");
+        if (!Lotes.tamanoValido(segurosDTO)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Lotes.procesar(this.validator, segurosDTO, SegurosMapper::mapToEntity,
+                this.segurosService::createBulk));
+    }
+
+    @Operation(summary = "Eliminar seguros en lote (eliminación lógica)", description = "Desactiva con una sola actualización todos los ids existentes; devuelve el resultado de cada id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk/desactivar")
+    public ResponseEntity<List<ResultadoBulkDTO>> deleteBulk(@RequestBody List<String> ids) {
+        log.info("Petición para eliminar seguros en lote");
+        if (!Lotes.tamanoValido(ids)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(this.segurosService.deleteBulk(ids));
+    }
 }
@@ -1,12 +1,22 @@
 package com.banquito.core.loan.catalog.controller;
 
+import com.banquito.core.loan.catalog.dto.DesactivacionCascadaDTO;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
 import com.banquito.core.loan.catalog.dto.TiposComisionesDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.UpdateException;
 import com.banquito.core.loan.catalog.mapper.TiposComisionesMapper;
 import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.CatalogoStreamService;
+import com.banquito.core.loan.catalog.service.DesactivacionCascadaService;
 import com.banquito.core.loan.catalog.service.TiposComisionesService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,34 +25,81 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @CrossOrigin(origins = "*")
 @RequestMapping("/api/catalogo/v1/tipos-comisiones")
 @Tag(name = "Tipos de Comisiones", description = "API para gestionar tipos de comisiones")
 public class TiposComisionesController {
 
     private final TiposComisionesService tiposComisionesService;
+    private final CatalogoStreamService catalogoStreamService;
+    private final NdjsonResponse ndjsonResponse;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DesactivacionCascadaService desactivacionCascadaService;
 
-    public TiposComisionesController(TiposComisionesService tiposComisionesService) {
+    public TiposComisionesController(TiposComisionesService tiposComisionesService,
+            CatalogoStreamService catalogoStreamService, NdjsonResponse ndjsonResponse,
+            CatalogoCambiosService catalogoCambiosService, Validator validator, ObjectMapper objectMapper,
+            DesactivacionCascadaService desactivacionCascadaService) {
         this.tiposComisionesService = tiposComisionesService;
+        this.catalogoStreamService = catalogoStreamService;
+        this.ndjsonResponse = ndjsonResponse;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.desactivacionCascadaService = desactivacionCascadaService;
     }
 
     @Operation(summary = "Obtener todos los tipos de comisiones activos")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Tipos de comisiones encontrados", content = @Content(schema = @Schema(implementation = TiposComisionesDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Tipos de comisiones encontrados", content = @Content(schema = @Schema(implementation = TiposComisionesDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Cursor de paginación inválido", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<TiposComisionesDTO>> findAll() {
+    public ResponseEntity<List<TiposComisionesDTO>> findAll(
+            @Parameter(description = "ID del último tipo de comisión de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de tipos de comisiones por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         log.info("Petición para obtener todos los tipos de comisiones");
+        // El ETag del listado se calcula sin consultar la base: solo depende de las versiones de las colecciones
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.TIPOS_COMISIONES));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (Paginacion.solicitada(after, cursor, limit)) {
+            try {
+                int tamano = Paginacion.tamano(limit);
+                List<TiposComisiones> pagina = this.tiposComisionesService.findPage(Paginacion.desde(after, cursor), tamano);
+                return Paginacion.respuesta(
+                        pagina.stream().map(TiposComisionesMapper::mapToDTO).collect(Collectors.toList()),
+                        TiposComisionesDTO::getId, tamano);
+            } catch (IllegalArgumentException e) {
+                log.error("Error en la paginación de tipos de comisiones: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
         List<TiposComisionesDTO> tiposComisiones = this.tiposComisionesService.findAll()
                 .stream()
                 .map(TiposComisionesMapper::mapToDTO)
@@ -50,24 +107,111 @@ public class TiposComisionesController {
         return ResponseEntity.ok(tiposComisiones);
     }
 
+    @Operation(summary = "Obtener los tipos de comisiones activos con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB: solo se leen los campos pedidos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tipos de comisiones con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente o cursor de paginación inválido", content = @Content)
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> findAllCampos(
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. nombre,tipoCalculo,monto", required = true) @RequestParam String fields,
+            @Parameter(description = "ID del último tipo de comisión de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de tipos de comisiones por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("Petición para obtener los tipos de comisiones con los campos {}", fields);
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.TIPOS_COMISIONES));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        try {
+            Set<String> campos = CamposParciales.leer(fields, TiposComisionesDTO.class);
+            boolean paginada = Paginacion.solicitada(after, cursor, limit);
+            int tamano = Paginacion.tamano(limit);
+            List<TiposComisiones> tiposComisiones = paginada
+                    ? this.tiposComisionesService.findPage(Paginacion.desde(after, cursor), tamano, campos)
+                    : this.tiposComisionesService.findAll(campos);
+            List<Map<String, Object>> resultado = CamposParciales.recortar(this.objectMapper,
+                    tiposComisiones.stream().map(TiposComisionesMapper::mapToDTO).toList(), campos);
+            return paginada
+                    ? Paginacion.respuesta(resultado, CamposParciales::id, tamano)
+                    : ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener tipos de comisiones con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Transmitir los tipos de comisiones activos en formato NDJSON", description = "Cada documento se escribe como una línea JSON a medida que se lee del cursor de MongoDB")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de los tipos de comisiones activos")
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        log.info("Petición para transmitir los tipos de comisiones activos");
+        return this.ndjsonResponse.of(
+                () -> this.catalogoStreamService.streamActivos(TiposComisiones.class),
+                this.catalogoStreamService.getCursorBatchSize(),
+                lote -> lote.stream().map(TiposComisionesMapper::mapToDTO).toList());
+    }
+
     @Operation(summary = "Obtener un tipo de comisión por su ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Tipo de comisión encontrado", content = @Content(schema = @Schema(implementation = TiposComisionesDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
             @ApiResponse(responseCode = "404", description = "Tipo de comisión no encontrado", content = @Content)
     })
     @GetMapping("/{id}")
     public ResponseEntity<TiposComisionesDTO> findById(
-            @Parameter(description = "ID del tipo de comisión", required = true) @PathVariable String id) {
+            @Parameter(description = "ID del tipo de comisión", required = true) @PathVariable String id,
+            WebRequest request) {
         log.info("Petición para obtener tipo de comisión con ID: {}", id);
         try {
             TiposComisiones tipoComision = this.tiposComisionesService.findById(id);
-            return ResponseEntity.ok(TiposComisionesMapper.mapToDTO(tipoComision));
+            String etag = ETags.recurso(tipoComision.getId(), tipoComision.getVersion());
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(TiposComisionesMapper.mapToDTO(tipoComision));
         } catch (EntityNotFoundException e) {
             log.error("Error al obtener tipo de comisión: {}", e.getMessage());
             return ResponseEntity.notFound().build();
         }
     }
 
+    @Operation(summary = "Obtener un tipo de comisión con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB: solo se leen los campos pedidos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tipo de comisión con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tipo de comisión no encontrado", content = @Content)
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findByIdCampos(
+            @Parameter(description = "ID del tipo de comisión", required = true) @PathVariable String id,
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. nombre,tipoCalculo,monto", required = true) @RequestParam String fields,
+            WebRequest request) {
+        log.info("Petición para obtener tipo de comisión con ID {} y los campos {}", id, fields);
+        try {
+            Set<String> campos = CamposParciales.leer(fields, TiposComisionesDTO.class);
+            TiposComisiones tipoComision = this.tiposComisionesService.findById(id, campos);
+            String etag = ETags.recurso(tipoComision.getId(), tipoComision.getVersion());
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .body(CamposParciales.recortar(this.objectMapper, TiposComisionesMapper.mapToDTO(tipoComision),
+                            campos));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al obtener tipo de comisión: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener tipo de comisión con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @Operation(summary = "Crear un nuevo tipo de comisión")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Tipo de comisión creado", content = @Content(schema = @Schema(implementation = TiposComisionesDTO.class))),
@@ -86,25 +230,114 @@ public class TiposComisionesController {
         }
     }
 
-    @Operation(summary = "Eliminar un tipo de comisión por su ID (eliminación lógica)")
+    @Operation(summary = "Actualizar parcialmente un tipo de comisión (JSON merge patch)", description = "Solo los campos enviados se escriben con $set; un campo en null se elimina")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tipo de comisión actualizado", content = @Content(schema = @Schema(implementation = TiposComisionesDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Tipo de comisión no encontrado", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Parche inválido", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
+    })
+    @PatchMapping(value = "/{id}", consumes = ParchesMerge.MEDIA_TYPE)
+    public ResponseEntity<TiposComisionesDTO> patch(
+            @Parameter(description = "ID del tipo de comisión", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @RequestBody JsonNode parche) {
+        log.info("Petición para actualizar parcialmente tipo de comisión con ID {}: {}", id, parche);
+        try {
+            Map<String, Object> cambios = ParchesMerge.leer(this.objectMapper, this.validator, parche,
+                    TiposComisionesDTO.class);
+            TiposComisiones updatedTipoComision = this.tiposComisionesService.patch(id, cambios, version);
+
+            return ResponseEntity.ok(TiposComisionesMapper.mapToDTO(updatedTipoComision));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al actualizar parcialmente tipo de comisión: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al actualizar parcialmente tipo de comisión: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException | UpdateException e) {
+            log.error("Error al actualizar parcialmente tipo de comisión: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Eliminar un tipo de comisión por su ID (eliminación lógica)", description = "Con cascada=true también desactiva los préstamos que lo usan, con un solo updateMany por colección, y devuelve cuántos documentos se desactivaron")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Tipo de comisión eliminado", content = @Content),
+            @ApiResponse(responseCode = "200", description = "Tipo de comisión eliminado junto con sus dependientes (cascada=true)", content = @Content(schema = @Schema(implementation = DesactivacionCascadaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Tipo de comisión no encontrado", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Error al eliminar tipo de comisión", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Error al eliminar tipo de comisión", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(
-            @Parameter(description = "ID del tipo de comisión", required = true) @PathVariable String id) {
+    public ResponseEntity<DesactivacionCascadaDTO> delete(
+            @Parameter(description = "ID del tipo de comisión", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @Parameter(description = "Desactivar también los registros que dependen del tipo de comisión") @RequestParam(defaultValue = "false") boolean cascada) {
         log.info("Petición para eliminar tipo de comisión con ID: {}", id);
         try {
-            this.tiposComisionesService.delete(id);
+            if (cascada) {
+                return ResponseEntity.ok(this.desactivacionCascadaService.desactivar(
+                        ColeccionCatalogoEnum.TIPOS_COMISIONES, id, version));
+            }
+            this.tiposComisionesService.delete(id, version);
             return ResponseEntity.noContent().build();
         } catch (EntityNotFoundException e) {
             log.error("Error al eliminar tipo de comisión: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al eliminar tipo de comisión: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (DeleteException e) {
             log.error("Error al eliminar tipo de comisión: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @Operation(summary = "Calcular el impacto de desactivar un tipo de comisión", description = "Simulación de la desactivación en cascada: cuenta los préstamos que lo usan que siguen activos, sin modificar nada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Documentos que se desactivarían", content = @Content(schema = @Schema(implementation = DesactivacionCascadaDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Tipo de comisión no encontrado", content = @Content)
+    })
+    @GetMapping("/{id}/impacto-desactivacion")
+    public ResponseEntity<DesactivacionCascadaDTO> impactoDesactivacion(
+            @Parameter(description = "ID del tipo de comisión", required = true) @PathVariable String id) {
+        log.info("Petición para calcular el impacto de desactivar tipo de comisión con ID: {}", id);
+        try {
+            return ResponseEntity.ok(
+                    this.desactivacionCascadaService.impacto(ColeccionCatalogoEnum.TIPOS_COMISIONES, id));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al calcular el impacto de desactivar tipo de comisión: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @Operation(summary = "Crear tipos de comisión en lote", description = "Escribe todos los tipos de comisión en un único bulkWrite no ordenado; devuelve el resultado de cada elemento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<ResultadoBulkDTO>> createBulk(@RequestBody List<TiposComisionesDTO> tiposComisionesDTO) {
+        log.info("Petición para crear tipos de comisión en lote");
+        if (!Lotes.tamanoValido(tiposComisionesDTO)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Lotes.procesar(this.validator, tiposComisionesDTO,
+                TiposComisionesMapper::mapToEntity, this.tiposComisionesService::createBulk));
+    }
+
+    @Operation(summary = "Eliminar tipos de comisión en lote (eliminación lógica)", description = "Desactiva con una sola actualización todos los ids existentes; devuelve el resultado de cada id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk/desactivar")
+    public ResponseEntity<List<ResultadoBulkDTO>> deleteBulk(@RequestBody List<String> ids) {
+        log.info("Petición para eliminar tipos de comisión en lote");
+        if (!Lotes.tamanoValido(ids)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(this.tiposComisionesService.deleteBulk(ids));
+    }
 }
@@ -1,6 +1,11 @@
 package com.banquito.core.loan.catalog.controller;
 
+import com.banquito.core.loan.catalog.dto.DesactivacionCascadaDTO;
+import com.banquito.core.loan.catalog.dto.GarantiasDTO;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
 import com.banquito.core.loan.catalog.dto.TiposPrestamosDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
@@ -8,8 +13,13 @@ import com.banquito.core.loan.catalog.exception.UpdateException;
 import com.banquito.core.loan.catalog.mapper.TiposPrestamosMapper;
 import com.banquito.core.loan.catalog.model.Garantias;
 import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.CatalogoStreamService;
+import com.banquito.core.loan.catalog.service.DesactivacionCascadaService;
 import com.banquito.core.loan.catalog.service.GarantiasService;
 import com.banquito.core.loan.catalog.service.TiposPrestamosService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,79 +28,244 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @RestController
+@Profile("!reactive")
 @CrossOrigin(origins = "*")
 @RequestMapping("/api/catalogo/v1/tipos-prestamos")
 @Tag(name = "Tipos de Préstamos", description = "API para gestionar tipos de préstamos")
 public class TiposPrestamosController {
 
+    private static final String GARANTIA = "garantia";
+    // Objeto relacionado en TiposPrestamosDTO -> campo del tipo de préstamo que lo referencia
+    private static final Map<String, String> RELACIONES = Map.of(GARANTIA, "idGarantia");
+    private static final Set<String> EXPANSIONES = Set.of(GARANTIA);
+
     private final TiposPrestamosService tiposPrestamosService;
     private final GarantiasService garantiasService;
+    private final CatalogoStreamService catalogoStreamService;
+    private final NdjsonResponse ndjsonResponse;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DesactivacionCascadaService desactivacionCascadaService;
 
-    public TiposPrestamosController(TiposPrestamosService tiposPrestamosService, GarantiasService garantiasService) {
+    public TiposPrestamosController(TiposPrestamosService tiposPrestamosService, GarantiasService garantiasService,
+            CatalogoStreamService catalogoStreamService, NdjsonResponse ndjsonResponse,
+            CatalogoCambiosService catalogoCambiosService, Validator validator, ObjectMapper objectMapper,
+            DesactivacionCascadaService desactivacionCascadaService) {
         this.tiposPrestamosService = tiposPrestamosService;
         this.garantiasService = garantiasService;
+        this.catalogoStreamService = catalogoStreamService;
+        this.ndjsonResponse = ndjsonResponse;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.desactivacionCascadaService = desactivacionCascadaService;
     }
 
-    @Operation(summary = "Obtener todos los tipos de préstamos activos", description = "Devuelve todos los tipos de préstamos con los detalles completos de las garantías asociadas")
+    @Operation(summary = "Obtener todos los tipos de préstamos activos", description = "Sin expand devuelve los tipos de préstamos sin la garantía; con expand=garantia las garantías se leen con una sola consulta en lote")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Tipos de préstamos encontrados con detalles de garantías", content = @Content(schema = @Schema(implementation = TiposPrestamosDTO.class)))
+            @ApiResponse(responseCode = "200", description = "Tipos de préstamos encontrados con las relaciones pedidas", content = @Content(schema = @Schema(implementation = TiposPrestamosDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Relación no expandible o cursor de paginación inválido", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<TiposPrestamosDTO>> findAll() {
-        log.info("Petición para obtener todos los tipos de préstamos");
-        List<TiposPrestamosDTO> tiposPrestamos = new ArrayList<>();
-
-        for (TiposPrestamos tipoPrestamo : this.tiposPrestamosService.findAll()) {
+    public ResponseEntity<List<TiposPrestamosDTO>> findAll(
+            @Parameter(description = "Relaciones a incluir: garantia. Por defecto ninguna") @RequestParam(required = false) String expand,
+            @Parameter(description = "ID del último tipo de préstamo de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de tipos de préstamos por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("Petición para obtener todos los tipos de préstamos con las relaciones {}", expand);
+        boolean conGarantia;
+        try {
+            conGarantia = Expansiones.leer(expand, EXPANSIONES).contains(GARANTIA);
+        } catch (IllegalArgumentException e) {
+            log.error("Error en la expansión de tipos de préstamos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        // El ETag del listado se calcula sin consultar la base: solo depende de las versiones de las colecciones
+        String etag = ETags.coleccion(conGarantia
+                ? this.catalogoCambiosService.firma(ColeccionCatalogoEnum.TIPOS_PRESTAMOS,
+                        ColeccionCatalogoEnum.GARANTIAS)
+                : this.catalogoCambiosService.firma(ColeccionCatalogoEnum.TIPOS_PRESTAMOS));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (Paginacion.solicitada(after, cursor, limit)) {
             try {
-                // Intentar obtener la garantía asociada
-                Garantias garantia = this.garantiasService.findById(tipoPrestamo.getIdGarantia());
-                tiposPrestamos.add(TiposPrestamosMapper.mapToDTOWithGarantia(tipoPrestamo, garantia));
-            } catch (EntityNotFoundException e) {
-                log.warn("Garantía no encontrada para el tipo de préstamo {}: {}", tipoPrestamo.getId(),
-                        e.getMessage());
-                // Si no se encuentra la garantía, incluir el tipo de préstamo sin detalles de
-                // garantía
-                tiposPrestamos.add(TiposPrestamosMapper.mapToDTO(tipoPrestamo));
+                int tamano = Paginacion.tamano(limit);
+                List<TiposPrestamos> pagina = this.tiposPrestamosService.findPage(Paginacion.desde(after, cursor), tamano);
+                return Paginacion.respuesta(
+                        this.mapToDTOs(pagina, conGarantia),
+                        TiposPrestamosDTO::getId, tamano);
+            } catch (IllegalArgumentException e) {
+                log.error("Error en la paginación de tipos de préstamos: {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
             }
         }
 
-        return ResponseEntity.ok(tiposPrestamos);
+        return ResponseEntity.ok(this.mapToDTOs(this.tiposPrestamosService.findAll(), conGarantia));
     }
 
-    @Operation(summary = "Obtener un tipo de préstamo por su ID", description = "Devuelve el tipo de préstamo con todos los detalles de la garantía asociada")
+    @Operation(summary = "Obtener los tipos de préstamos activos con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB; la garantía solo se consulta si se pide en fields")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Tipo de préstamo encontrado con detalles completos de garantía", content = @Content(schema = @Schema(implementation = TiposPrestamosDTO.class))),
+            @ApiResponse(responseCode = "200", description = "Tipos de préstamos con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente o cursor de paginación inválido", content = @Content)
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> findAllCampos(
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. nombre,tipoCliente,garantia", required = true) @RequestParam String fields,
+            @Parameter(description = "ID del último tipo de préstamo de la página anterior") @RequestParam(required = false) String after,
+            @Parameter(description = "Token de continuación recibido en la cabecera X-Next-Cursor") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Número máximo de tipos de préstamos por página") @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        log.info("Petición para obtener los tipos de préstamos con los campos {}", fields);
+        String etag = ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.TIPOS_PRESTAMOS,
+                ColeccionCatalogoEnum.GARANTIAS));
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        try {
+            Set<String> campos = CamposParciales.leer(fields, TiposPrestamosDTO.class);
+            Set<String> proyeccion = CamposParciales.proyeccion(campos, RELACIONES);
+            boolean paginada = Paginacion.solicitada(after, cursor, limit);
+            int tamano = Paginacion.tamano(limit);
+            List<TiposPrestamos> tiposPrestamos = paginada
+                    ? this.tiposPrestamosService.findPage(Paginacion.desde(after, cursor), tamano, proyeccion)
+                    : this.tiposPrestamosService.findAll(proyeccion);
+            List<Map<String, Object>> resultado = CamposParciales.recortar(this.objectMapper,
+                    this.mapToDTOs(tiposPrestamos, campos.contains(GARANTIA)), campos);
+            return paginada
+                    ? Paginacion.respuesta(resultado, CamposParciales::id, tamano)
+                    : ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener tipos de préstamos con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Transmitir los tipos de préstamos activos en formato NDJSON", description = "Cada documento se escribe como una línea JSON a medida que se lee del cursor de MongoDB")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo NDJSON de los tipos de préstamos activos"),
+            @ApiResponse(responseCode = "400", description = "Relación no expandible", content = @Content)
+    })
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll(
+            @Parameter(description = "Relaciones a incluir: garantia. Por defecto ninguna") @RequestParam(required = false) String expand) {
+        log.info("Petición para transmitir los tipos de préstamos activos con las relaciones {}", expand);
+        boolean conGarantia;
+        try {
+            conGarantia = Expansiones.leer(expand, EXPANSIONES).contains(GARANTIA);
+        } catch (IllegalArgumentException e) {
+            log.error("Error en la expansión de tipos de préstamos: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        return this.ndjsonResponse.of(
+                () -> this.catalogoStreamService.streamActivos(TiposPrestamos.class),
+                this.catalogoStreamService.getCursorBatchSize(),
+                lote -> this.mapToDTOs(lote, conGarantia));
+    }
+
+    @Operation(summary = "Obtener un tipo de préstamo por su ID", description = "Sin expand devuelve el tipo de préstamo sin la garantía; expand=garantia la incluye")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tipo de préstamo encontrado con las relaciones pedidas", content = @Content(schema = @Schema(implementation = TiposPrestamosDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Relación no expandible", content = @Content),
             @ApiResponse(responseCode = "404", description = "Tipo de préstamo no encontrado", content = @Content)
     })
     @GetMapping("/{id}")
     public ResponseEntity<TiposPrestamosDTO> findById(
-            @Parameter(description = "ID del tipo de préstamo", required = true) @PathVariable String id) {
-        log.info("Petición para obtener tipo de préstamo con ID: {}", id);
+            @Parameter(description = "ID del tipo de préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Relaciones a incluir: garantia. Por defecto ninguna") @RequestParam(required = false) String expand,
+            WebRequest request) {
+        log.info("Petición para obtener tipo de préstamo con ID {} y las relaciones {}", id, expand);
         try {
+            boolean conGarantia = Expansiones.leer(expand, EXPANSIONES).contains(GARANTIA);
             TiposPrestamos tipoPrestamo = this.tiposPrestamosService.findById(id);
-            // Fetch the associated Garantia
-            String idGarantia = tipoPrestamo.getIdGarantia();
-            try {
-                Garantias garantia = this.garantiasService.findById(idGarantia);
-                return ResponseEntity.ok(TiposPrestamosMapper.mapToDTOWithGarantia(tipoPrestamo, garantia));
-            } catch (EntityNotFoundException e) {
-                log.warn("Garantía no encontrada para el tipo de préstamo {}: {}", id, e.getMessage());
-                // Return the DTO without garantia details
-                return ResponseEntity.ok(TiposPrestamosMapper.mapToDTO(tipoPrestamo));
+            if (conGarantia && tipoPrestamo.getIdGarantia() != null) {
+                try {
+                    Garantias garantia = this.garantiasService.findById(tipoPrestamo.getIdGarantia());
+                    // La garantía se incluye en la respuesta, por lo que su versión también forma parte del ETag
+                    String etag = ETags.recurso(tipoPrestamo.getId(), tipoPrestamo.getVersion(),
+                            garantia.getVersion());
+                    if (request.checkNotModified(etag,
+                            ETags.ultimaModificacion(tipoPrestamo.getFechaModificacion()))) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                    }
+                    return ResponseEntity.ok().eTag(etag)
+                            .body(TiposPrestamosMapper.mapToDTOWithGarantia(tipoPrestamo, garantia));
+                } catch (EntityNotFoundException e) {
+                    // Se responde sin los detalles de la garantía
+                    log.warn("Garantía no encontrada para el tipo de préstamo {}: {}", id, e.getMessage());
+                }
+            }
+            String etag = ETags.recurso(tipoPrestamo.getId(), tipoPrestamo.getVersion());
+            if (request.checkNotModified(etag, ETags.ultimaModificacion(tipoPrestamo.getFechaModificacion()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
             }
+            return ResponseEntity.ok().eTag(etag).body(TiposPrestamosMapper.mapToDTO(tipoPrestamo));
         } catch (EntityNotFoundException e) {
             log.error("Error al obtener tipo de préstamo: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error en la expansión del tipo de préstamo: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Obtener un tipo de préstamo con solo los campos indicados", description = "La proyección se aplica en la consulta a MongoDB; la garantía solo se consulta si se pide en fields")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tipo de préstamo con los campos pedidos"),
+            @ApiResponse(responseCode = "304", description = "Sin cambios desde la versión indicada en If-None-Match", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Campo inexistente", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Tipo de préstamo no encontrado", content = @Content)
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> findByIdCampos(
+            @Parameter(description = "ID del tipo de préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Campos a devolver separados por comas, p. ej. nombre,tipoCliente,garantia", required = true) @RequestParam String fields,
+            WebRequest request) {
+        log.info("Petición para obtener tipo de préstamo con ID {} y los campos {}", id, fields);
+        try {
+            Set<String> campos = CamposParciales.leer(fields, TiposPrestamosDTO.class);
+            TiposPrestamos tipoPrestamo = this.tiposPrestamosService.findById(id,
+                    CamposParciales.proyeccion(campos, RELACIONES));
+            TiposPrestamosDTO tipoPrestamoDTO = this.mapToDTOs(List.of(tipoPrestamo), campos.contains(GARANTIA))
+                    .get(0);
+            GarantiasDTO garantia = tipoPrestamoDTO.getGarantia();
+            String etag = ETags.recurso(tipoPrestamo.getId(), tipoPrestamo.getVersion(),
+                    garantia != null ? garantia.getVersion() : null);
+            if (request.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag)
+                    .body(CamposParciales.recortar(this.objectMapper, tipoPrestamoDTO, campos));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al obtener tipo de préstamo: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            log.error("Error al obtener tipo de préstamo con campos parciales: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         }
     }
 
@@ -125,7 +300,8 @@ public class TiposPrestamosController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Tipo de préstamo actualizado", content = @Content(schema = @Schema(implementation = TiposPrestamosDTO.class))),
             @ApiResponse(responseCode = "404", description = "Tipo de préstamo no encontrado", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Datos inválidos", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
     })
     @PutMapping("/{id}")
     public ResponseEntity<TiposPrestamosDTO> update(
@@ -147,31 +323,174 @@ public class TiposPrestamosController {
         } catch (EntityNotFoundException e) {
             log.error("Error al actualizar tipo de préstamo: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al actualizar tipo de préstamo: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (UpdateException e) {
             log.error("Error al actualizar tipo de préstamo: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
-    @Operation(summary = "Eliminar un tipo de préstamo por su ID (eliminación lógica)")
+    @Operation(summary = "Actualizar parcialmente un tipo de préstamo (JSON merge patch)", description = "Solo los campos enviados se escriben con $set; un campo en null se elimina. La garantía solo se valida si idGarantia viene en el parche")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tipo de préstamo actualizado", content = @Content(schema = @Schema(implementation = TiposPrestamosDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Tipo de préstamo no encontrado", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Parche inválido", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
+    })
+    @PatchMapping(value = "/{id}", consumes = ParchesMerge.MEDIA_TYPE)
+    public ResponseEntity<TiposPrestamosDTO> patch(
+            @Parameter(description = "ID del tipo de préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @RequestBody JsonNode parche) {
+        log.info("Petición para actualizar parcialmente tipo de préstamo con ID {}: {}", id, parche);
+        try {
+            Map<String, Object> cambios = ParchesMerge.leer(this.objectMapper, this.validator, parche,
+                    TiposPrestamosDTO.class);
+            TiposPrestamos updatedTipoPrestamo = this.tiposPrestamosService.patch(id, cambios, version);
+
+            try {
+                // Obtener la garantía asociada para incluirla en la respuesta
+                Garantias garantia = this.garantiasService.findById(updatedTipoPrestamo.getIdGarantia());
+                return ResponseEntity.ok(TiposPrestamosMapper.mapToDTOWithGarantia(updatedTipoPrestamo, garantia));
+            } catch (EntityNotFoundException e) {
+                log.warn("Garantía no encontrada para el tipo de préstamo actualizado: {}", e.getMessage());
+                return ResponseEntity.ok(TiposPrestamosMapper.mapToDTO(updatedTipoPrestamo));
+            }
+        } catch (EntityNotFoundException e) {
+            log.error("Error al actualizar parcialmente tipo de préstamo: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al actualizar parcialmente tipo de préstamo: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException | UpdateException e) {
+            log.error("Error al actualizar parcialmente tipo de préstamo: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Eliminar un tipo de préstamo por su ID (eliminación lógica)", description = "Con cascada=true también desactiva los préstamos que lo usan, con un solo updateMany por colección, y devuelve cuántos documentos se desactivaron")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Tipo de préstamo eliminado", content = @Content),
+            @ApiResponse(responseCode = "200", description = "Tipo de préstamo eliminado junto con sus dependientes (cascada=true)", content = @Content(schema = @Schema(implementation = DesactivacionCascadaDTO.class))),
             @ApiResponse(responseCode = "404", description = "Tipo de préstamo no encontrado", content = @Content),
-            @ApiResponse(responseCode = "400", description = "Error al eliminar tipo de préstamo", content = @Content)
+            @ApiResponse(responseCode = "400", description = "Error al eliminar tipo de préstamo", content = @Content),
+            @ApiResponse(responseCode = "409", description = "La versión indicada ya no es la vigente", content = @Content)
     })
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> delete(
-            @Parameter(description = "ID del tipo de préstamo", required = true) @PathVariable String id) {
+    public ResponseEntity<DesactivacionCascadaDTO> delete(
+            @Parameter(description = "ID del tipo de préstamo", required = true) @PathVariable String id,
+            @Parameter(description = "Versión leída; si ya no es la vigente se responde 409") @RequestParam(required = false) Long version,
+            @Parameter(description = "Desactivar también los registros que dependen del tipo de préstamo") @RequestParam(defaultValue = "false") boolean cascada) {
         log.info("Petición para eliminar tipo de préstamo con ID: {}", id);
         try {
-            this.tiposPrestamosService.delete(id);
+            if (cascada) {
+                return ResponseEntity.ok(this.desactivacionCascadaService.desactivar(
+                        ColeccionCatalogoEnum.TIPOS_PRESTAMOS, id, version));
+            }
+            this.tiposPrestamosService.delete(id, version);
             return ResponseEntity.noContent().build();
         } catch (EntityNotFoundException e) {
             log.error("Error al eliminar tipo de préstamo: {}", e.getMessage());
             return ResponseEntity.notFound().build();
+        } catch (ConflictException e) {
+            log.error("Error al eliminar tipo de préstamo: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (DeleteException e) {
             log.error("Error al eliminar tipo de préstamo: {}", e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @Operation(summary = "Calcular el impacto de desactivar un tipo de préstamo", description = "Simulación de la desactivación en cascada: cuenta los préstamos que lo usan que siguen activos, sin modificar nada")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Documentos que se desactivarían", content = @Content(schema = @Schema(implementation = DesactivacionCascadaDTO.class))),
+            @ApiResponse(responseCode = "404", description = "Tipo de préstamo no encontrado", content = @Content)
+    })
+    @GetMapping("/{id}/impacto-desactivacion")
+    public ResponseEntity<DesactivacionCascadaDTO> impactoDesactivacion(
+            @Parameter(description = "ID del tipo de préstamo", required = true) @PathVariable String id) {
+        log.info("Petición para calcular el impacto de desactivar tipo de préstamo con ID: {}", id);
+        try {
+            return ResponseEntity.ok(
+                    this.desactivacionCascadaService.impacto(ColeccionCatalogoEnum.TIPOS_PRESTAMOS, id));
+        } catch (EntityNotFoundException e) {
+            log.error("Error al calcular el impacto de desactivar tipo de préstamo: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private List<TiposPrestamosDTO> mapToDTOs(List<TiposPrestamos> tiposPrestamos, boolean conGarantia) {
+        if (conGarantia) {
+            return this.mapToDTOsWithGarantias(tiposPrestamos);
+        }
+        return tiposPrestamos.stream().map(TiposPrestamosMapper::mapToDTO).toList();
+    }
+
+    private List<TiposPrestamosDTO> mapToDTOsWithGarantias(List<TiposPrestamos> tiposPrestamos) {
+        Set<String> idsGarantias = new HashSet<>();
+        for (TiposPrestamos tipoPrestamo : tiposPrestamos) {
+            if (tipoPrestamo.getIdGarantia() != null) {
+                idsGarantias.add(tipoPrestamo.getIdGarantia());
+            }
+        }
+        Map<String, Garantias> garantias = new HashMap<>();
+        for (Garantias garantia : this.garantiasService.findAllById(idsGarantias)) {
+            garantias.put(garantia.getId(), garantia);
+        }
+
+        List<TiposPrestamosDTO> resultado = new ArrayList<>(tiposPrestamos.size());
+        for (TiposPrestamos tipoPrestamo : tiposPrestamos) {
+            Garantias garantia = garantias.get(tipoPrestamo.getIdGarantia());
+            resultado.add(garantia != null
+                    ? TiposPrestamosMapper.mapToDTOWithGarantia(tipoPrestamo, garantia)
+                    : TiposPrestamosMapper.mapToDTO(tipoPrestamo));
+        }
+        return resultado;
+    }
+
+    @Operation(summary = "Crear tipos de préstamo en lote", description = "Valida las garantías con una sola consulta y escribe todos los tipos de préstamo en un único bulkWrite no ordenado; devuelve el resultado de cada elemento")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<List<ResultadoBulkDTO>> createBulk(@RequestBody List<TiposPrestamosDTO> tiposPrestamosDTO) {
+        log.info("Petición para crear tipos de préstamo en lote");
+        if (!Lotes.tamanoValido(tiposPrestamosDTO)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Lotes.procesar(this.validator, tiposPrestamosDTO, TiposPrestamosMapper::mapToEntity,
+                this.tiposPrestamosService::createBulk));
+    }
+
+    @Operation(summary = "Actualizar tipos de préstamo en lote", description = "Cada elemento debe incluir su id; los existentes se leen con una sola consulta y se actualizan en un único bulkWrite no ordenado, cada uno condicionado a su versión; un elemento modificado por otra operación se informa como CONFLICTO")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PutMapping("/bulk")
+    public ResponseEntity<List<ResultadoBulkDTO>> updateBulk(@RequestBody List<TiposPrestamosDTO> tiposPrestamosDTO) {
+        log.info("Petición para actualizar tipos de préstamo en lote");
+        if (!Lotes.tamanoValido(tiposPrestamosDTO)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(Lotes.procesar(this.validator, tiposPrestamosDTO, TiposPrestamosMapper::mapToEntity,
+                this.tiposPrestamosService::updateBulk));
+    }
+
+    @Operation(summary = "Eliminar tipos de préstamo en lote (eliminación lógica)", description = "Desactiva con una sola actualización todos los ids existentes; devuelve el resultado de cada id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultado por elemento", content = @Content(schema = @Schema(implementation = ResultadoBulkDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Lote vacío o con más elementos de los permitidos", content = @Content)
+    })
+    @PostMapping("/bulk/desactivar")
+    public ResponseEntity<List<ResultadoBulkDTO>> deleteBulk(@RequestBody List<String> ids) {
+        log.info("Petición para eliminar tipos de préstamo en lote");
+        if (!Lotes.tamanoValido(ids)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(this.tiposPrestamosService.deleteBulk(ids));
+    }
 }
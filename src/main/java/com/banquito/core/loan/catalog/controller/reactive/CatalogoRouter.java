@@ -0,0 +1,98 @@
+package com.banquito.core.loan.catalog.controller.reactive;
+
+import com.banquito.core.loan.catalog.controller.ParchesMerge;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.List;
+
+// Rutas del API reactivo, con las mismas URLs y códigos de respuesta que los controladores servlet para lo que
+// sirve: listados completos (JSON o NDJSON, con ETag), consulta por id, elegibles, búsqueda, impacto de
+// desactivación, instantánea y escrituras individuales (?version, ?cascada). De las opciones de consulta solo
+// acepta ?expand en préstamos; los tipos de préstamo se devuelven siempre con su garantía. No ofrece paginación
+// (?after, ?cursor, ?limit), proyección (?fields), operaciones en lote (/bulk) ni /amortizacion, /simulaciones y
+// /comisiones: esas rutas solo existen en el perfil servlet.
+@Configuration
+@Profile("reactive")
+public class CatalogoRouter {
+
+    private static final String BASE = "/api/catalogo/v1";
+    private static final RequestPredicate PARCHE = RequestPredicates.contentType(
+            MediaType.valueOf(ParchesMerge.MEDIA_TYPE));
+
+    @Bean
+    public RouterFunction<ServerResponse> rutasCatalogo(
+            PrestamosHandler prestamos,
+            TiposPrestamosHandler tiposPrestamos,
+            SegurosHandler seguros,
+            GarantiasHandler garantias,
+            TiposComisionesHandler tiposComisiones,
+            CatalogoSnapshotHandler snapshot) {
+        return RouterFunctions.route()
+                .path(BASE + "/prestamos", builder -> builder
+                        .GET("", prestamos::findAll)
+                        .GET("/elegibles", prestamos::findElegibles)
+                        .GET("/buscar", prestamos::buscar)
+                        .GET("/{id}", prestamos::findById)
+                        .POST("", prestamos::create)
+                        .PUT("/{id}", prestamos::update)
+                        .PATCH("/{id}", PARCHE, prestamos::patch)
+                        .DELETE("/{id}", prestamos::delete))
+                .path(BASE + "/tipos-prestamos", builder -> builder
+                        .GET("", tiposPrestamos::findAll)
+                        .GET("/{id}", tiposPrestamos::findById)
+                        .GET("/{id}/impacto-desactivacion", tiposPrestamos::impactoDesactivacion)
+                        .POST("", tiposPrestamos::create)
+                        .PUT("/{id}", tiposPrestamos::update)
+                        .PATCH("/{id}", PARCHE, tiposPrestamos::patch)
+                        .DELETE("/{id}", tiposPrestamos::delete))
+                .path(BASE + "/seguros", builder -> builder
+                        .GET("", seguros::findAll)
+                        .GET("/{id}", seguros::findById)
+                        .GET("/{id}/impacto-desactivacion", seguros::impactoDesactivacion)
+                        .POST("", seguros::create)
+                        .PATCH("/{id}", PARCHE, seguros::patch)
+                        .DELETE("/{id}", seguros::delete))
+                .path(BASE + "/garantias", builder -> builder
+                        .GET("", garantias::findAll)
+                        .GET("/{id}", garantias::findById)
+                        .GET("/{id}/impacto-desactivacion", garantias::impactoDesactivacion)
+                        .POST("", garantias::create)
+                        .PATCH("/{id}", PARCHE, garantias::patch)
+                        .DELETE("/{id}", garantias::delete))
+                .path(BASE + "/tipos-comisiones", builder -> builder
+                        .GET("", tiposComisiones::findAll)
+                        .GET("/{id}", tiposComisiones::findById)
+                        .GET("/{id}/impacto-desactivacion", tiposComisiones::impactoDesactivacion)
+                        .POST("", tiposComisiones::create)
+                        .PATCH("/{id}", PARCHE, tiposComisiones::patch)
+                        .DELETE("/{id}", tiposComisiones::delete))
+                .GET(BASE + "/snapshot", snapshot::snapshot)
+                .build();
+    }
+
+    // Equivalente reactivo de la configuración CORS de CatalogApplication
+    @Bean
+    public CorsWebFilter corsWebFilter() {
+        CorsConfiguration configuracion = new CorsConfiguration();
+        configuracion.setAllowedOriginPatterns(List.of("*"));
+        configuracion.setAllowedMethods(List.of("*"));
+        configuracion.setAllowedHeaders(List.of("*"));
+        configuracion.setExposedHeaders(List.of("X-Next-Cursor", "ETag"));
+        configuracion.setAllowCredentials(false);
+        configuracion.setMaxAge(3600L);
+        UrlBasedCorsConfigurationSource fuente = new UrlBasedCorsConfigurationSource();
+        fuente.registerCorsConfiguration("/**", configuracion);
+        return new CorsWebFilter(fuente);
+    }
+}
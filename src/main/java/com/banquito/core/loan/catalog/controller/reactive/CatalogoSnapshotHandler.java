@@ -0,0 +1,44 @@
+package com.banquito.core.loan.catalog.controller.reactive;
+
+import com.banquito.core.loan.catalog.controller.ETags;
+import com.banquito.core.loan.catalog.service.CatalogoSnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+@Profile("reactive")
+public class CatalogoSnapshotHandler {
+
+    private final CatalogoSnapshotService catalogoSnapshotService;
+
+    public CatalogoSnapshotHandler(CatalogoSnapshotService catalogoSnapshotService) {
+        this.catalogoSnapshotService = catalogoSnapshotService;
+    }
+
+    public Mono<ServerResponse> snapshot(ServerRequest request) {
+        // Solo la primera petición antes de la construcción inicial consulta la base
+        return RespuestasReactivas.bloqueante(this.catalogoSnapshotService::obtener)
+                .flatMap(snapshot -> {
+                    boolean gzip = ETags.aceptaGzip(request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING));
+                    String etag = ETags.coleccion(gzip ? snapshot.version() + "-gzip" : snapshot.version());
+                    return request.checkNotModified(etag).switchIfEmpty(Mono.defer(() -> {
+                        log.debug("Sirviendo instantánea del catálogo {}", snapshot.version());
+                        ServerResponse.BodyBuilder respuesta = ServerResponse.ok()
+                                .eTag(etag)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                        if (gzip) {
+                            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+                        }
+                        return respuesta.bodyValue(gzip ? snapshot.gzip() : snapshot.json());
+                    }));
+                });
+    }
+}
@@ -0,0 +1,107 @@
+package com.banquito.core.loan.catalog.controller.reactive;
+
+import com.banquito.core.loan.catalog.controller.ETags;
+import com.banquito.core.loan.catalog.dto.GarantiasDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.mapper.GarantiasMapper;
+import com.banquito.core.loan.catalog.repository.reactive.ReactiveGarantiasRepository;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.DesactivacionCascadaService;
+import com.banquito.core.loan.catalog.service.GarantiasService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+@Profile("reactive")
+public class GarantiasHandler {
+
+    private final ReactiveGarantiasRepository garantiasRepository;
+    private final GarantiasService garantiasService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DesactivacionCascadaService desactivacionCascadaService;
+
+    public GarantiasHandler(ReactiveGarantiasRepository garantiasRepository, GarantiasService garantiasService,
+            CatalogoCambiosService catalogoCambiosService, Validator validator, ObjectMapper objectMapper,
+            DesactivacionCascadaService desactivacionCascadaService) {
+        this.garantiasRepository = garantiasRepository;
+        this.garantiasService = garantiasService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.desactivacionCascadaService = desactivacionCascadaService;
+    }
+
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+        log.info("Petición reactiva para obtener todas las garantías");
+        return RespuestasReactivas.listado(request,
+                () -> ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.GARANTIAS)),
+                this.garantiasRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor())
+                        .map(GarantiasMapper::mapToDTO),
+                GarantiasDTO.class);
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para obtener garantía con ID: {}", id);
+        return RespuestasReactivas.recurso(request,
+                this.garantiasRepository.findById(id).map(GarantiasMapper::mapToDTO),
+                garantia -> ETags.recurso(garantia.getId(), garantia.getVersion()));
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(GarantiasDTO.class)
+                .flatMap(dto -> RespuestasReactivas.validar(this.validator, dto))
+                .flatMap(dto -> RespuestasReactivas.bloqueante(
+                        () -> this.garantiasService.create(GarantiasMapper.mapToEntity(dto))))
+                .flatMap(saved -> ServerResponse.status(HttpStatus.CREATED)
+                        .bodyValue(GarantiasMapper.mapToDTO(saved)))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> patch(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para actualizar parcialmente garantía con ID: {}", id);
+        return RespuestasReactivas.parche(request, this.objectMapper, this.validator, GarantiasDTO.class)
+                .flatMap(cambios -> RespuestasReactivas.bloqueante(
+                        () -> this.garantiasService.patch(id, cambios, RespuestasReactivas.version(request))))
+                .flatMap(actualizada -> ServerResponse.ok().bodyValue(GarantiasMapper.mapToDTO(actualizada)))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> delete(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para eliminar garantía con ID: {}", id);
+        if (request.queryParam("cascada").map(Boolean::parseBoolean).orElse(false)) {
+            return RespuestasReactivas.bloqueante(() -> this.desactivacionCascadaService.desactivar(
+                    ColeccionCatalogoEnum.GARANTIAS, id, RespuestasReactivas.version(request)))
+                    .flatMap(resultado -> ServerResponse.ok().bodyValue(resultado))
+                    .onErrorResume(RespuestasReactivas::error);
+        }
+        return RespuestasReactivas.bloqueante(() -> {
+            this.garantiasService.delete(id, RespuestasReactivas.version(request));
+            return id;
+        })
+                .flatMap(eliminado -> ServerResponse.noContent().build())
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> impactoDesactivacion(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para calcular el impacto de desactivar garantía con ID: {}", id);
+        return RespuestasReactivas.bloqueante(
+                () -> this.desactivacionCascadaService.impacto(ColeccionCatalogoEnum.GARANTIAS, id))
+                .flatMap(impacto -> ServerResponse.ok().bodyValue(impacto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+}
@@ -0,0 +1,170 @@
+package com.banquito.core.loan.catalog.controller.reactive;
+
+import com.banquito.core.loan.catalog.controller.ETags;
+import com.banquito.core.loan.catalog.controller.Expansiones;
+import com.banquito.core.loan.catalog.dto.BusquedaDTO;
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.mapper.PrestamosMapper;
+import com.banquito.core.loan.catalog.service.BusquedaCatalogoService;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.ElegibilidadPrestamosService;
+import com.banquito.core.loan.catalog.service.PrestamosRelacionesService;
+import com.banquito.core.loan.catalog.service.PrestamosService;
+import com.banquito.core.loan.catalog.service.reactive.RelacionesReactiveService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+@Slf4j
+@Component
+@Profile("reactive")
+public class PrestamosHandler {
+
+    private static final int LIMITE_MAXIMO_BUSQUEDA = 500;
+
+    private final PrestamosService prestamosService;
+    private final RelacionesReactiveService relacionesReactiveService;
+    private final ElegibilidadPrestamosService elegibilidadPrestamosService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final BusquedaCatalogoService busquedaCatalogoService;
+    private final ObjectMapper objectMapper;
+
+    public PrestamosHandler(PrestamosService prestamosService, RelacionesReactiveService relacionesReactiveService,
+            ElegibilidadPrestamosService elegibilidadPrestamosService,
+            CatalogoCambiosService catalogoCambiosService, Validator validator,
+            BusquedaCatalogoService busquedaCatalogoService, ObjectMapper objectMapper) {
+        this.prestamosService = prestamosService;
+        this.relacionesReactiveService = relacionesReactiveService;
+        this.elegibilidadPrestamosService = elegibilidadPrestamosService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.busquedaCatalogoService = busquedaCatalogoService;
+        this.objectMapper = objectMapper;
+    }
+
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+        String expand = request.queryParam("expand").orElse(null);
+        log.info("Petición reactiva para obtener todos los préstamos con las relaciones {}", expand);
+        Set<String> relaciones;
+        try {
+            relaciones = Expansiones.leer(expand, PrestamosRelacionesService.RELACIONES);
+        } catch (IllegalArgumentException e) {
+            log.error("Error en la expansión de préstamos: {}", e.getMessage());
+            return ServerResponse.badRequest().build();
+        }
+        return RespuestasReactivas.listado(request,
+                () -> ETags.coleccion(this.catalogoCambiosService.firma(
+                        PrestamosRelacionesService.colecciones(relaciones))),
+                this.relacionesReactiveService.findAllPrestamosWithRelations(relaciones),
+                PrestamosDTO.class);
+    }
+
+    public Mono<ServerResponse> findElegibles(ServerRequest request) {
+        BigDecimal monto;
+        Integer plazo;
+        try {
+            monto = request.queryParam("monto").map(BigDecimal::new).orElse(null);
+            plazo = request.queryParam("plazo").map(Integer::valueOf).orElse(null);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        if (monto == null || plazo == null || monto.signum() <= 0 || plazo <= 0) {
+            return ServerResponse.badRequest().build();
+        }
+        log.info("Petición reactiva para obtener préstamos elegibles para monto {} y plazo {}", monto, plazo);
+        // El índice responde desde memoria; solo consulta MongoDB mientras se carga
+        Flux<PrestamosDTO> elegibles = RespuestasReactivas
+                .bloqueante(() -> this.elegibilidadPrestamosService.findElegibles(monto, plazo))
+                .flatMapMany(Flux::fromIterable)
+                .map(PrestamosMapper::mapToDTO);
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(elegibles, PrestamosDTO.class);
+    }
+
+    public Mono<ServerResponse> buscar(ServerRequest request) {
+        String q = request.queryParam("q").orElse("");
+        int limit;
+        try {
+            limit = request.queryParam("limit").map(Integer::parseInt).orElse(10);
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+        if (q.isBlank() || limit <= 0 || limit > LIMITE_MAXIMO_BUSQUEDA) {
+            return ServerResponse.badRequest().build();
+        }
+        log.debug("Petición reactiva de búsqueda en el catálogo: {}", q);
+        // El índice está en memoria: la búsqueda no bloquea y se resuelve en el hilo del event loop
+        BusquedaDTO busqueda = this.busquedaCatalogoService.buscar(q, limit);
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(busqueda);
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        String expand = request.queryParam("expand").orElse(null);
+        log.info("Petición reactiva para obtener préstamo con ID {} y las relaciones {}", id, expand);
+        Set<String> relaciones;
+        try {
+            relaciones = Expansiones.leer(expand, PrestamosRelacionesService.RELACIONES);
+        } catch (IllegalArgumentException e) {
+            log.error("Error en la expansión del préstamo: {}", e.getMessage());
+            return ServerResponse.badRequest().build();
+        }
+        return RespuestasReactivas.recurso(request,
+                this.relacionesReactiveService.findPrestamoByIdWithRelations(id, relaciones),
+                ETags::prestamo);
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(PrestamosDTO.class)
+                .flatMap(dto -> RespuestasReactivas.validar(this.validator, dto))
+                .flatMap(dto -> RespuestasReactivas.bloqueante(
+                        () -> this.prestamosService.create(PrestamosMapper.mapToEntity(dto))))
+                .flatMap(this.relacionesReactiveService::mapToDTOWithRelations)
+                .flatMap(dto -> ServerResponse.status(HttpStatus.CREATED).bodyValue(dto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> update(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return request.bodyToMono(PrestamosDTO.class)
+                .flatMap(dto -> RespuestasReactivas.validar(this.validator, dto))
+                .flatMap(dto -> RespuestasReactivas.bloqueante(
+                        () -> this.prestamosService.update(id, PrestamosMapper.mapToEntity(dto))))
+                .flatMap(this.relacionesReactiveService::mapToDTOWithRelations)
+                .flatMap(dto -> ServerResponse.ok().bodyValue(dto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> patch(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para actualizar parcialmente préstamo con ID: {}", id);
+        return RespuestasReactivas.parche(request, this.objectMapper, this.validator, PrestamosDTO.class)
+                .flatMap(cambios -> RespuestasReactivas.bloqueante(
+                        () -> this.prestamosService.patch(id, cambios, RespuestasReactivas.version(request))))
+                .flatMap(this.relacionesReactiveService::mapToDTOWithRelations)
+                .flatMap(dto -> ServerResponse.ok().bodyValue(dto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> delete(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para eliminar préstamo con ID: {}", id);
+        return RespuestasReactivas.bloqueante(() -> {
+            this.prestamosService.delete(id, RespuestasReactivas.version(request));
+            return id;
+        })
+                .flatMap(eliminado -> ServerResponse.noContent().build())
+                .onErrorResume(RespuestasReactivas::error);
+    }
+}
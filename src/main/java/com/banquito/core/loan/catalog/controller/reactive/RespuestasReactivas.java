@@ -0,0 +1,117 @@
+package com.banquito.core.loan.catalog.controller.reactive;
+
+import com.banquito.core.loan.catalog.controller.ParchesMerge;
+import com.banquito.core.loan.catalog.exception.ConflictException;
+import com.banquito.core.loan.catalog.exception.CreateException;
+import com.banquito.core.loan.catalog.exception.DeleteException;
+import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.UpdateException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+final class RespuestasReactivas {
+
+    private RespuestasReactivas() {
+    }
+
+    // Con Accept: application/x-ndjson cada documento se escribe como una línea; en ambos casos el Flux se
+    // consume a la velocidad a la que el cliente lee la respuesta. El ETag se calcula fuera del event loop: la
+    // firma de las colecciones consulta MongoDB cuando no está en memoria.
+    static <T> Mono<ServerResponse> listado(ServerRequest request, Callable<String> etag, Flux<T> elementos,
+            Class<T> tipo) {
+        return bloqueante(etag).flatMap(valor -> request.checkNotModified(valor).switchIfEmpty(Mono.defer(() -> {
+            boolean ndjson = request.headers().accept().contains(MediaType.APPLICATION_NDJSON);
+            return ServerResponse.ok()
+                    .eTag(valor)
+                    .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                    .body(elementos, tipo);
+        })));
+    }
+
+    static <T> Mono<ServerResponse> recurso(ServerRequest request, Mono<T> recurso, Function<T, String> etag) {
+        return recurso
+                .flatMap(encontrado -> {
+                    String valor = etag.apply(encontrado);
+                    return request.checkNotModified(valor).switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                            .eTag(valor)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(encontrado)));
+                })
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    // Las escrituras reutilizan los servicios existentes (validaciones, cachés, registro de cambios),
+    // fuera del event loop
+    static <T> Mono<T> bloqueante(Callable<T> operacion) {
+        return Mono.fromCallable(operacion).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    static <T> Mono<T> validar(Validator validator, T dto) {
+        Set<ConstraintViolation<T>> violaciones = validator.validate(dto);
+        if (violaciones.isEmpty()) {
+            return Mono.just(dto);
+        }
+        String mensaje = violaciones.stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, mensaje));
+    }
+
+    static <D> Mono<Map<String, Object>> parche(ServerRequest request, ObjectMapper objectMapper,
+            Validator validator, Class<D> dto) {
+        return request.bodyToMono(JsonNode.class)
+                .switchIfEmpty(Mono.error(
+                        new ResponseStatusException(HttpStatus.BAD_REQUEST, "El parche es requerido")))
+                .map(parche -> {
+                    try {
+                        return ParchesMerge.leer(objectMapper, validator, parche, dto);
+                    } catch (IllegalArgumentException e) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+                    }
+                });
+    }
+
+    // Versión opcional que el cliente leyó, para la concurrencia optimista de las escrituras
+    static Long version(ServerRequest request) {
+        try {
+            return request.queryParam("version").map(Long::valueOf).orElse(null);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Versión inválida");
+        }
+    }
+
+    static Mono<ServerResponse> error(Throwable e) {
+        if (e instanceof EntityNotFoundException) {
+            log.error("Entidad no encontrada: {}", e.getMessage());
+            return ServerResponse.notFound().build();
+        }
+        if (e instanceof ConflictException) {
+            log.error("Conflicto de versión: {}", e.getMessage());
+            return ServerResponse.status(HttpStatus.CONFLICT).build();
+        }
+        if (e instanceof CreateException || e instanceof UpdateException || e instanceof DeleteException
+                || e instanceof ResponseStatusException) {
+            log.error("Petición inválida: {}", e.getMessage());
+            return ServerResponse.badRequest().build();
+        }
+        return Mono.error(e);
+    }
+}
@@ -0,0 +1,107 @@
+package com.banquito.core.loan.catalog.controller.reactive;
+
+import com.banquito.core.loan.catalog.controller.ETags;
+import com.banquito.core.loan.catalog.dto.SegurosDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.mapper.SegurosMapper;
+import com.banquito.core.loan.catalog.repository.reactive.ReactiveSegurosRepository;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.DesactivacionCascadaService;
+import com.banquito.core.loan.catalog.service.SegurosService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+@Profile("reactive")
+public class SegurosHandler {
+
+    private final ReactiveSegurosRepository segurosRepository;
+    private final SegurosService segurosService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DesactivacionCascadaService desactivacionCascadaService;
+
+    public SegurosHandler(ReactiveSegurosRepository segurosRepository, SegurosService segurosService,
+            CatalogoCambiosService catalogoCambiosService, Validator validator, ObjectMapper objectMapper,
+            DesactivacionCascadaService desactivacionCascadaService) {
+        this.segurosRepository = segurosRepository;
+        this.segurosService = segurosService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.desactivacionCascadaService = desactivacionCascadaService;
+    }
+
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+        log.info("Petición reactiva para obtener todos los seguros");
+        return RespuestasReactivas.listado(request,
+                () -> ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.SEGUROS)),
+                this.segurosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor())
+                        .map(SegurosMapper::mapToDTO),
+                SegurosDTO.class);
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para obtener seguro con ID: {}", id);
+        return RespuestasReactivas.recurso(request,
+                this.segurosRepository.findById(id).map(SegurosMapper::mapToDTO),
+                seguro -> ETags.recurso(seguro.getId(), seguro.getVersion()));
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(SegurosDTO.class)
+                .flatMap(dto -> RespuestasReactivas.validar(this.validator, dto))
+                .flatMap(dto -> RespuestasReactivas.bloqueante(
+                        () -> this.segurosService.create(SegurosMapper.mapToEntity(dto))))
+                .flatMap(saved -> ServerResponse.status(HttpStatus.CREATED)
+                        .bodyValue(SegurosMapper.mapToDTO(saved)))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> patch(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para actualizar parcialmente seguro con ID: {}", id);
+        return RespuestasReactivas.parche(request, this.objectMapper, this.validator, SegurosDTO.class)
+                .flatMap(cambios -> RespuestasReactivas.bloqueante(
+                        () -> this.segurosService.patch(id, cambios, RespuestasReactivas.version(request))))
+                .flatMap(actualizado -> ServerResponse.ok().bodyValue(SegurosMapper.mapToDTO(actualizado)))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> delete(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para eliminar seguro con ID: {}", id);
+        if (request.queryParam("cascada").map(Boolean::parseBoolean).orElse(false)) {
+            return RespuestasReactivas.bloqueante(() -> this.desactivacionCascadaService.desactivar(
+                    ColeccionCatalogoEnum.SEGUROS, id, RespuestasReactivas.version(request)))
+                    .flatMap(resultado -> ServerResponse.ok().bodyValue(resultado))
+                    .onErrorResume(RespuestasReactivas::error);
+        }
+        return RespuestasReactivas.bloqueante(() -> {
+            this.segurosService.delete(id, RespuestasReactivas.version(request));
+            return id;
+        })
+                .flatMap(eliminado -> ServerResponse.noContent().build())
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> impactoDesactivacion(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para calcular el impacto de desactivar seguro con ID: {}", id);
+        return RespuestasReactivas.bloqueante(
+                () -> this.desactivacionCascadaService.impacto(ColeccionCatalogoEnum.SEGUROS, id))
+                .flatMap(impacto -> ServerResponse.ok().bodyValue(impacto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+}
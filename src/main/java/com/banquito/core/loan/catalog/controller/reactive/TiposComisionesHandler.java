@@ -0,0 +1,108 @@
+package com.banquito.core.loan.catalog.controller.reactive;
+
+import com.banquito.core.loan.catalog.controller.ETags;
+import com.banquito.core.loan.catalog.dto.TiposComisionesDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.mapper.TiposComisionesMapper;
+import com.banquito.core.loan.catalog.repository.reactive.ReactiveTiposComisionesRepository;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.DesactivacionCascadaService;
+import com.banquito.core.loan.catalog.service.TiposComisionesService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+@Profile("reactive")
+public class TiposComisionesHandler {
+
+    private final ReactiveTiposComisionesRepository tiposComisionesRepository;
+    private final TiposComisionesService tiposComisionesService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DesactivacionCascadaService desactivacionCascadaService;
+
+    public TiposComisionesHandler(ReactiveTiposComisionesRepository tiposComisionesRepository,
+            TiposComisionesService tiposComisionesService, CatalogoCambiosService catalogoCambiosService,
+            Validator validator, ObjectMapper objectMapper, DesactivacionCascadaService desactivacionCascadaService) {
+        this.tiposComisionesRepository = tiposComisionesRepository;
+        this.tiposComisionesService = tiposComisionesService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.desactivacionCascadaService = desactivacionCascadaService;
+    }
+
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+        log.info("Petición reactiva para obtener todos los tipos de comisiones");
+        return RespuestasReactivas.listado(request,
+                () -> ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.TIPOS_COMISIONES)),
+                this.tiposComisionesRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor())
+                        .map(TiposComisionesMapper::mapToDTO),
+                TiposComisionesDTO.class);
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para obtener tipo de comisión con ID: {}", id);
+        return RespuestasReactivas.recurso(request,
+                this.tiposComisionesRepository.findById(id).map(TiposComisionesMapper::mapToDTO),
+                tipoComision -> ETags.recurso(tipoComision.getId(), tipoComision.getVersion()));
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(TiposComisionesDTO.class)
+                .flatMap(dto -> RespuestasReactivas.validar(this.validator, dto))
+                .flatMap(dto -> RespuestasReactivas.bloqueante(
+                        () -> this.tiposComisionesService.create(TiposComisionesMapper.mapToEntity(dto))))
+                .flatMap(saved -> ServerResponse.status(HttpStatus.CREATED)
+                        .bodyValue(TiposComisionesMapper.mapToDTO(saved)))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> patch(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para actualizar parcialmente tipo de comisión con ID: {}", id);
+        return RespuestasReactivas.parche(request, this.objectMapper, this.validator, TiposComisionesDTO.class)
+                .flatMap(cambios -> RespuestasReactivas.bloqueante(
+                        () -> this.tiposComisionesService.patch(id, cambios, RespuestasReactivas.version(request))))
+                .flatMap(actualizado -> ServerResponse.ok()
+                        .bodyValue(TiposComisionesMapper.mapToDTO(actualizado)))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> delete(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para eliminar tipo de comisión con ID: {}", id);
+        if (request.queryParam("cascada").map(Boolean::parseBoolean).orElse(false)) {
+            return RespuestasReactivas.bloqueante(() -> this.desactivacionCascadaService.desactivar(
+                    ColeccionCatalogoEnum.TIPOS_COMISIONES, id, RespuestasReactivas.version(request)))
+                    .flatMap(resultado -> ServerResponse.ok().bodyValue(resultado))
+                    .onErrorResume(RespuestasReactivas::error);
+        }
+        return RespuestasReactivas.bloqueante(() -> {
+            this.tiposComisionesService.delete(id, RespuestasReactivas.version(request));
+            return id;
+        })
+                .flatMap(eliminado -> ServerResponse.noContent().build())
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> impactoDesactivacion(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para calcular el impacto de desactivar tipo de comisión con ID: {}", id);
+        return RespuestasReactivas.bloqueante(
+                () -> this.desactivacionCascadaService.impacto(ColeccionCatalogoEnum.TIPOS_COMISIONES, id))
+                .flatMap(impacto -> ServerResponse.ok().bodyValue(impacto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+}
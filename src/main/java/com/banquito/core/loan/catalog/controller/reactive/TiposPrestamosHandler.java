@@ -0,0 +1,124 @@
+package com.banquito.core.loan.catalog.controller.reactive;
+
+import com.banquito.core.loan.catalog.controller.ETags;
+import com.banquito.core.loan.catalog.dto.TiposPrestamosDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.mapper.TiposPrestamosMapper;
+import com.banquito.core.loan.catalog.repository.reactive.ReactiveTiposPrestamosRepository;
+import com.banquito.core.loan.catalog.service.CatalogoCambiosService;
+import com.banquito.core.loan.catalog.service.DesactivacionCascadaService;
+import com.banquito.core.loan.catalog.service.TiposPrestamosService;
+import com.banquito.core.loan.catalog.service.reactive.RelacionesReactiveService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+@Profile("reactive")
+public class TiposPrestamosHandler {
+
+    private final ReactiveTiposPrestamosRepository tiposPrestamosRepository;
+    private final TiposPrestamosService tiposPrestamosService;
+    private final RelacionesReactiveService relacionesReactiveService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final DesactivacionCascadaService desactivacionCascadaService;
+
+    public TiposPrestamosHandler(ReactiveTiposPrestamosRepository tiposPrestamosRepository,
+            TiposPrestamosService tiposPrestamosService, RelacionesReactiveService relacionesReactiveService,
+            CatalogoCambiosService catalogoCambiosService, Validator validator, ObjectMapper objectMapper,
+            DesactivacionCascadaService desactivacionCascadaService) {
+        this.tiposPrestamosRepository = tiposPrestamosRepository;
+        this.tiposPrestamosService = tiposPrestamosService;
+        this.relacionesReactiveService = relacionesReactiveService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.desactivacionCascadaService = desactivacionCascadaService;
+    }
+
+    public Mono<ServerResponse> findAll(ServerRequest request) {
+        log.info("Petición reactiva para obtener todos los tipos de préstamos");
+        return RespuestasReactivas.listado(request,
+                () -> ETags.coleccion(this.catalogoCambiosService.firma(ColeccionCatalogoEnum.TIPOS_PRESTAMOS,
+                        ColeccionCatalogoEnum.GARANTIAS)),
+                this.relacionesReactiveService.findAllTiposPrestamosWithGarantia(),
+                TiposPrestamosDTO.class);
+    }
+
+    public Mono<ServerResponse> findById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para obtener tipo de préstamo con ID: {}", id);
+        return RespuestasReactivas.recurso(request,
+                this.tiposPrestamosRepository.findById(id)
+                        .flatMap(this.relacionesReactiveService::mapToDTOWithGarantia),
+                tipoPrestamo -> ETags.recurso(tipoPrestamo.getId(), tipoPrestamo.getVersion(),
+                        tipoPrestamo.getGarantia() != null ? tipoPrestamo.getGarantia().getVersion() : null));
+    }
+
+    public Mono<ServerResponse> create(ServerRequest request) {
+        return request.bodyToMono(TiposPrestamosDTO.class)
+                .flatMap(dto -> RespuestasReactivas.validar(this.validator, dto))
+                .flatMap(dto -> RespuestasReactivas.bloqueante(
+                        () -> this.tiposPrestamosService.create(TiposPrestamosMapper.mapToEntity(dto))))
+                .flatMap(this.relacionesReactiveService::mapToDTOWithGarantia)
+                .flatMap(dto -> ServerResponse.status(HttpStatus.CREATED).bodyValue(dto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> update(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return request.bodyToMono(TiposPrestamosDTO.class)
+                .flatMap(dto -> RespuestasReactivas.validar(this.validator, dto))
+                .flatMap(dto -> RespuestasReactivas.bloqueante(
+                        () -> this.tiposPrestamosService.update(id, TiposPrestamosMapper.mapToEntity(dto))))
+                .flatMap(this.relacionesReactiveService::mapToDTOWithGarantia)
+                .flatMap(dto -> ServerResponse.ok().bodyValue(dto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> patch(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para actualizar parcialmente tipo de préstamo con ID: {}", id);
+        return RespuestasReactivas.parche(request, this.objectMapper, this.validator, TiposPrestamosDTO.class)
+                .flatMap(cambios -> RespuestasReactivas.bloqueante(
+                        () -> this.tiposPrestamosService.patch(id, cambios, RespuestasReactivas.version(request))))
+                .flatMap(this.relacionesReactiveService::mapToDTOWithGarantia)
+                .flatMap(dto -> ServerResponse.ok().bodyValue(dto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> delete(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para eliminar tipo de préstamo con ID: {}", id);
+        if (request.queryParam("cascada").map(Boolean::parseBoolean).orElse(false)) {
+            return RespuestasReactivas.bloqueante(() -> this.desactivacionCascadaService.desactivar(
+                    ColeccionCatalogoEnum.TIPOS_PRESTAMOS, id, RespuestasReactivas.version(request)))
+                    .flatMap(resultado -> ServerResponse.ok().bodyValue(resultado))
+                    .onErrorResume(RespuestasReactivas::error);
+        }
+        return RespuestasReactivas.bloqueante(() -> {
+            this.tiposPrestamosService.delete(id, RespuestasReactivas.version(request));
+            return id;
+        })
+                .flatMap(eliminado -> ServerResponse.noContent().build())
+                .onErrorResume(RespuestasReactivas::error);
+    }
+
+    public Mono<ServerResponse> impactoDesactivacion(ServerRequest request) {
+        String id = request.pathVariable("id");
+        log.info("Petición reactiva para calcular el impacto de desactivar tipo de préstamo con ID: {}", id);
+        return RespuestasReactivas.bloqueante(
+                () -> this.desactivacionCascadaService.impacto(ColeccionCatalogoEnum.TIPOS_PRESTAMOS, id))
+                .flatMap(impacto -> ServerResponse.ok().bodyValue(impacto))
+                .onErrorResume(RespuestasReactivas::error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.banquito.core.loan.catalog.dto;
+
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BusquedaDTO {
+
+    private String consulta;
+    private List<ResultadoBusquedaDTO> resultados;
+    // Términos del índice que completan la última palabra de la consulta
+    private List<String> sugerencias;
+}
@@ -0,0 +1,23 @@
+package com.banquito.core.loan.catalog.dto;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CalculoComisionDTO {
+
+    @NotEmpty(message = "ID de préstamo es requerido")
+    private String idPrestamo;
+
+    // Monto del préstamo o saldo sobre el que se aplica la comisión
+    @NotNull(message = "Monto es requerido")
+    @PositiveOrZero(message = "Monto no puede ser negativo")
+    private BigDecimal monto;
+}
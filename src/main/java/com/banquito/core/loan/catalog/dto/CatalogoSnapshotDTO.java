@@ -0,0 +1,21 @@
+package com.banquito.core.loan.catalog.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CatalogoSnapshotDTO {
+
+    // Firma de las cinco colecciones en el momento de construir la instantánea
+    private String version;
+    private LocalDateTime generado;
+    private List<PrestamosDTO> prestamos;
+    private List<TiposPrestamosDTO> tiposPrestamos;
+    private List<GarantiasDTO> garantias;
+    private List<SegurosDTO> seguros;
+    private List<TiposComisionesDTO> tiposComisiones;
+}
@@ -0,0 +1,21 @@
+package com.banquito.core.loan.catalog.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ComisionCalculadaDTO {
+
+    // Posición del cálculo en la solicitud
+    private Integer indice;
+    private String idPrestamo;
+    private String idTipoComision;
+    private String tipo;
+    private String tipoCalculo;
+    private BigDecimal base;
+    private BigDecimal valor;
+    private String error;
+}
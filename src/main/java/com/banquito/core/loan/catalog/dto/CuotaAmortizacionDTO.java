@@ -0,0 +1,19 @@
+package com.banquito.core.loan.catalog.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CuotaAmortizacionDTO {
+
+    private Integer numero;
+    private LocalDate fechaVencimiento;
+    private BigDecimal cuota;
+    private BigDecimal capital;
+    private BigDecimal interes;
+    private BigDecimal saldo;
+}
@@ -0,0 +1,18 @@
+package com.banquito.core.loan.catalog.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class DesactivacionCascadaDTO {
+
+    private String coleccion;
+    private String id;
+    // true cuando solo se calculó el impacto, sin desactivar nada
+    private Boolean simulacion;
+    // false si los dependientes se desactivaron pero el registro raíz cambió antes de desactivarlo
+    private Boolean raizDesactivada;
+    private Long tiposPrestamos;
+    private Long prestamos;
+}
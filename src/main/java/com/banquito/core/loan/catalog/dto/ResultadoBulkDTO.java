@@ -0,0 +1,15 @@
+package com.banquito.core.loan.catalog.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResultadoBulkDTO {
+
+    // Posición del elemento en la solicitud
+    private Integer indice;
+    private String id;
+    private String resultado;
+    private String mensaje;
+}
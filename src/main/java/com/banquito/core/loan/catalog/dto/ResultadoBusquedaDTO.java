@@ -0,0 +1,16 @@
+package com.banquito.core.loan.catalog.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResultadoBusquedaDTO {
+
+    // PRESTAMO o TIPO_PRESTAMO
+    private String tipo;
+    private String id;
+    private String nombre;
+    private String descripcion;
+    private Double puntaje;
+}
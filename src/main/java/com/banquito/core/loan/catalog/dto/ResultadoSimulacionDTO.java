@@ -0,0 +1,21 @@
+package com.banquito.core.loan.catalog.dto;
+
+import java.math.BigDecimal;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ResultadoSimulacionDTO {
+
+    // Posición del escenario en la solicitud
+    private Integer indice;
+    private String idPrestamo;
+    private BigDecimal monto;
+    private Integer plazo;
+    private BigDecimal cuota;
+    private BigDecimal totalIntereses;
+    private BigDecimal costoTotal;
+    private String error;
+}
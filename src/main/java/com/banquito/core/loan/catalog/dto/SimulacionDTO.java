@@ -0,0 +1,29 @@
+package com.banquito.core.loan.catalog.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SimulacionDTO {
+
+    @NotEmpty(message = "ID de préstamo es requerido")
+    private String idPrestamo;
+
+    @NotNull(message = "Monto es requerido")
+    @Positive(message = "Monto debe ser mayor a cero")
+    private BigDecimal monto;
+
+    @NotNull(message = "Plazo es requerido")
+    @Positive(message = "Plazo debe ser mayor a cero")
+    private Integer plazo;
+
+    private LocalDate fechaInicio;
+}
@@ -0,0 +1,25 @@
+package com.banquito.core.loan.catalog.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TablaAmortizacionDTO {
+
+    private String idPrestamo;
+    private String esquemaAmortizacion;
+    private String baseCalculo;
+    private BigDecimal tasaInteres;
+    private BigDecimal monto;
+    private Integer plazo;
+    private LocalDate fechaInicio;
+    private BigDecimal cuota;
+    private BigDecimal totalIntereses;
+    private BigDecimal totalPagado;
+    private List<CuotaAmortizacionDTO> cuotas;
+}
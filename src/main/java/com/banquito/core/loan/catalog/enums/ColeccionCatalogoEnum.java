@@ -0,0 +1,19 @@
+package com.banquito.core.loan.catalog.enums;
+
+public enum ColeccionCatalogoEnum {
+    PRESTAMOS("prestamos"),
+    TIPOS_PRESTAMOS("tipos_prestamos"),
+    SEGUROS("seguros"),
+    GARANTIAS("garantias"),
+    TIPOS_COMISIONES("tipos_comisiones");
+
+    private final String valor;
+
+    ColeccionCatalogoEnum(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+}
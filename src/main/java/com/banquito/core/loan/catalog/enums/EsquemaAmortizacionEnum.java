@@ -0,0 +1,17 @@
+package com.banquito.core.loan.catalog.enums;
+
+public enum EsquemaAmortizacionEnum {
+    FRANCES("FRANCES"),
+    AMERICANO("AMERICANO"),
+    ALEMAN("ALEMAN");
+
+    private final String valor;
+
+    EsquemaAmortizacionEnum(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+}
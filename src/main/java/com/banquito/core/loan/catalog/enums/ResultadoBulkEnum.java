@@ -0,0 +1,19 @@
+package com.banquito.core.loan.catalog.enums;
+
+public enum ResultadoBulkEnum {
+    CREADO("CREADO"),
+    ACTUALIZADO("ACTUALIZADO"),
+    DESACTIVADO("DESACTIVADO"),
+    CONFLICTO("CONFLICTO"),
+    ERROR("ERROR");
+
+    private final String valor;
+
+    ResultadoBulkEnum(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+}
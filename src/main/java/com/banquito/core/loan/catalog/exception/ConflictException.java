@@ -0,0 +1,18 @@
+package com.banquito.core.loan.catalog.exception;
+
+public class ConflictException extends RuntimeException {
+
+    private final Integer errorCode;
+    private final String entityName;
+
+    public ConflictException(String entityName, String message) {
+        super(message);
+        this.errorCode = 6;
+        this.entityName = entityName;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Error Code: " + errorCode + "; Entity Name: " + entityName + "; Message: " + super.getMessage();
+    }
+}
@@ -0,0 +1,19 @@
+package com.banquito.core.loan.catalog.exception;
+
+public class SimulacionException extends RuntimeException {
+
+    private final Integer errorCode;
+    private final String entityName;
+
+    public SimulacionException(String entityName, String message) {
+
+        super(message);
+        this.errorCode = 5;
+        this.entityName = entityName;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Error Code: " + errorCode + "; Entity Name: " + entityName + "; Message: " + super.getMessage();
+    }
+}
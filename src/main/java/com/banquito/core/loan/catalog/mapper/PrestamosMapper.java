@@ -1,6 +1,7 @@
 package com.banquito.core.loan.catalog.mapper;
 
 import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.model.Garantias;
 import com.banquito.core.loan.catalog.model.Prestamos;
 import com.banquito.core.loan.catalog.model.Seguros;
 import com.banquito.core.loan.catalog.model.TiposComisiones;
@@ -38,6 +39,15 @@ public class PrestamosMapper {
             TiposPrestamos tipoPrestamo,
             Seguros seguro,
             TiposComisiones tipoComision) {
+        return mapToDTOWithRelations(entity, tipoPrestamo, null, seguro, tipoComision);
+    }
+
+    public static PrestamosDTO mapToDTOWithRelations(
+            Prestamos entity,
+            TiposPrestamos tipoPrestamo,
+            Garantias garantia,
+            Seguros seguro,
+            TiposComisiones tipoComision) {
         log.info("Mapeando entidad Prestamos a DTO con relaciones incluidas: {}", entity);
         PrestamosDTO dto = mapToDTO(entity);
 
@@ -49,7 +59,9 @@ public class PrestamosMapper {
         // Mapear tipo de préstamo con garantía si está disponible
         if (tipoPrestamo != null) {
             try {
-                dto.setTipoPrestamo(TiposPrestamosMapper.mapToDTO(tipoPrestamo));
+                dto.setTipoPrestamo(garantia != null
+                        ? TiposPrestamosMapper.mapToDTOWithGarantia(tipoPrestamo, garantia)
+                        : TiposPrestamosMapper.mapToDTO(tipoPrestamo));
                 log.info("TipoPrestamo mapeado correctamente: {}", dto.getTipoPrestamo().getId());
             } catch (Exception e) {
                 log.error("Error al mapear TipoPrestamo: {}", e.getMessage(), e);
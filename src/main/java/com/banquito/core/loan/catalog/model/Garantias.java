@@ -1,6 +1,8 @@
 package com.banquito.core.loan.catalog.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Getter;
@@ -9,12 +11,18 @@ import lombok.Setter;
 import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 @Document(collection = "garantias")
+@CompoundIndexes({
+        @CompoundIndex(name = "estado_id", def = "{'estado': 1, '_id': 1}"),
+        @CompoundIndex(name = "tipoGarantia_estado", def = "{'tipoGarantia': 1, 'estado': 1}"),
+        @CompoundIndex(name = "fechaModificacion", def = "{'fechaModificacion': 1}")
+})
 public class Garantias {
 
     @Id
@@ -23,6 +31,7 @@ public class Garantias {
     private String tipoGarantia;
     private String descripcion;
     private BigDecimal valor;
+    private LocalDateTime fechaModificacion;
     private String estado;
     private Long version;
 
@@ -1,6 +1,8 @@
 package com.banquito.core.loan.catalog.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Getter;
@@ -16,6 +18,16 @@ import java.time.LocalDateTime;
 @ToString
 @NoArgsConstructor
 @Document(collection = "prestamos")
+@CompoundIndexes({
+        @CompoundIndex(name = "estado_id", def = "{'estado': 1, '_id': 1}"),
+        @CompoundIndex(name = "idTipoPrestamo_estado", def = "{'idTipoPrestamo': 1, 'estado': 1}"),
+        @CompoundIndex(name = "idMoneda_estado", def = "{'idMoneda': 1, 'estado': 1}"),
+        @CompoundIndex(name = "idSeguro_estado", def = "{'idSeguro': 1, 'estado': 1}"),
+        @CompoundIndex(name = "idTipoComision_estado", def = "{'idTipoComision': 1, 'estado': 1}"),
+        @CompoundIndex(name = "estado_montoMinimo_montoMaximo", def = "{'estado': 1, 'montoMinimo': 1, 'montoMaximo': 1}"),
+        @CompoundIndex(name = "estado_plazoMinimoMeses_plazoMaximoMeses", def = "{'estado': 1, 'plazoMinimoMeses': 1, 'plazoMaximoMeses': 1}"),
+        @CompoundIndex(name = "fechaModificacion", def = "{'fechaModificacion': 1}")
+})
 public class Prestamos {
 
     @Id
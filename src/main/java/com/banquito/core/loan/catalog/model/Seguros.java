@@ -1,6 +1,8 @@
 package com.banquito.core.loan.catalog.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Getter;
@@ -10,12 +12,20 @@ import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 @Document(collection = "seguros")
+@CompoundIndexes({
+        @CompoundIndex(name = "estado_id", def = "{'estado': 1, '_id': 1}"),
+        @CompoundIndex(name = "tipoSeguro_estado", def = "{'tipoSeguro': 1, 'estado': 1}"),
+        @CompoundIndex(name = "estado_fechaFin", def = "{'estado': 1, 'fechaFin': 1}"),
+        @CompoundIndex(name = "compania_estado", def = "{'compania': 1, 'estado': 1}"),
+        @CompoundIndex(name = "fechaModificacion", def = "{'fechaModificacion': 1}")
+})
 public class Seguros {
 
     @Id
@@ -26,6 +36,7 @@ public class Seguros {
     private BigDecimal montoAsegurado;
     private LocalDate fechaInicio;
     private LocalDate fechaFin;
+    private LocalDateTime fechaModificacion;
     private String estado;
     private Long version;
 
@@ -1,6 +1,8 @@
 package com.banquito.core.loan.catalog.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Getter;
@@ -9,12 +11,19 @@ import lombok.Setter;
 import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 @Document(collection = "tipos_comisiones")
+@CompoundIndexes({
+        @CompoundIndex(name = "estado_id", def = "{'estado': 1, '_id': 1}"),
+        @CompoundIndex(name = "tipo_estado", def = "{'tipo': 1, 'estado': 1}"),
+        @CompoundIndex(name = "tipoCalculo_estado", def = "{'tipoCalculo': 1, 'estado': 1}"),
+        @CompoundIndex(name = "fechaModificacion", def = "{'fechaModificacion': 1}")
+})
 public class TiposComisiones {
 
     @Id
@@ -25,6 +34,7 @@ public class TiposComisiones {
     private String descripcion;
     private String tipoCalculo;
     private BigDecimal monto;
+    private LocalDateTime fechaModificacion;
     private String estado;
     private Long version;
 
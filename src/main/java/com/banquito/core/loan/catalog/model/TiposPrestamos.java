@@ -1,6 +1,8 @@
 package com.banquito.core.loan.catalog.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.Getter;
@@ -15,6 +17,12 @@ import java.time.LocalDateTime;
 @ToString
 @NoArgsConstructor
 @Document(collection = "tipos_prestamos")
+@CompoundIndexes({
+        @CompoundIndex(name = "estado_id", def = "{'estado': 1, '_id': 1}"),
+        @CompoundIndex(name = "tipoCliente_estado", def = "{'tipoCliente': 1, 'estado': 1}"),
+        @CompoundIndex(name = "idGarantia_estado", def = "{'idGarantia': 1, 'estado': 1}"),
+        @CompoundIndex(name = "fechaModificacion", def = "{'fechaModificacion': 1}")
+})
 public class TiposPrestamos {
 
     @Id
@@ -1,5 +1,6 @@
 package com.banquito.core.loan.catalog.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Repository;
 import com.banquito.core.loan.catalog.model.Garantias;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -12,4 +13,8 @@ public interface GarantiasRepository extends MongoRepository<Garantias, String>
     List<Garantias> findByTipoGarantiaAndEstado(String tipoGarantia, String estado);
 
     List<Garantias> findByEstado(String estado);
+
+    List<Garantias> findByEstadoOrderByIdAsc(String estado, Limit limit);
+
+    List<Garantias> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, String id, Limit limit);
 }
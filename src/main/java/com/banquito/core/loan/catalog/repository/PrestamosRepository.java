@@ -1,5 +1,6 @@
 package com.banquito.core.loan.catalog.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,12 +10,16 @@ import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
-public interface PrestamosRepository extends MongoRepository<Prestamos, String> {
+public interface PrestamosRepository extends MongoRepository<Prestamos, String>, PrestamosRepositoryCustom {
 
     List<Prestamos> findByIdTipoPrestamoAndEstado(String idTipoPrestamo, String estado);
 
     List<Prestamos> findByEstado(String estado);
 
+    List<Prestamos> findByEstadoOrderByIdAsc(String estado, Limit limit);
+
+    List<Prestamos> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, String id, Limit limit);
+
     List<Prestamos> findByIdMonedaAndEstado(String idMoneda, String estado);
 
     @Query("{'montoMinimo': {$lte: ?0}, 'montoMaximo': {$gte: ?0}, 'estado': ?1}")
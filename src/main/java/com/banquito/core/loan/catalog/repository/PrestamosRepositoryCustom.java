@@ -0,0 +1,13 @@
+package com.banquito.core.loan.catalog.repository;
+
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface PrestamosRepositoryCustom {
+
+    List<PrestamosDTO> findWithRelationsByEstado(String estado);
+
+    Optional<PrestamosDTO> findWithRelationsById(String id);
+}
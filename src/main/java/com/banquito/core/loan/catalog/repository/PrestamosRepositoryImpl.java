@@ -0,0 +1,114 @@
+package com.banquito.core.loan.catalog.repository;
+
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.mapper.PrestamosMapper;
+import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+public class PrestamosRepositoryImpl implements PrestamosRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public PrestamosRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<PrestamosDTO> findWithRelationsByEstado(String estado) {
+        log.info("Obteniendo préstamos con relaciones mediante agregación, estado: {}", estado);
+        return this.ejecutar(Criteria.where("estado").is(estado));
+    }
+
+    @Override
+    public Optional<PrestamosDTO> findWithRelationsById(String id) {
+        log.info("Obteniendo préstamo con relaciones mediante agregación, ID: {}", id);
+        Object idDocumento = ObjectId.isValid(id) ? new ObjectId(id) : id;
+        return this.ejecutar(Criteria.where("_id").is(idDocumento)).stream().findFirst();
+    }
+
+    private List<PrestamosDTO> ejecutar(Criteria filtro) {
+        // Tipo de préstamo con su garantía anidada, seguro y tipo de comisión en un solo pipeline
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(filtro),
+                lookup("tipos_prestamos", "idTipoPrestamo", "tipoPrestamo",
+                        lookupDocument("garantias", "idGarantia", "garantia"),
+                        unwindDocument("garantia")),
+                unwind("tipoPrestamo"),
+                lookup("seguros", "idSeguro", "seguro"),
+                unwind("seguro"),
+                lookup("tipos_comisiones", "idTipoComision", "tipoComision"),
+                unwind("tipoComision"));
+
+        List<Document> documentos = this.mongoTemplate
+                .aggregate(aggregation, this.mongoTemplate.getCollectionName(Prestamos.class), Document.class)
+                .getMappedResults();
+
+        MongoConverter converter = this.mongoTemplate.getConverter();
+        List<PrestamosDTO> prestamos = new ArrayList<>(documentos.size());
+        for (Document documento : documentos) {
+            Prestamos prestamo = converter.read(Prestamos.class, documento);
+            Document tipoPrestamoDoc = documento.get("tipoPrestamo", Document.class);
+            Document garantiaDoc = tipoPrestamoDoc != null ? tipoPrestamoDoc.get("garantia", Document.class) : null;
+            Document seguroDoc = documento.get("seguro", Document.class);
+            Document tipoComisionDoc = documento.get("tipoComision", Document.class);
+
+            prestamos.add(PrestamosMapper.mapToDTOWithRelations(
+                    prestamo,
+                    tipoPrestamoDoc != null ? converter.read(TiposPrestamos.class, tipoPrestamoDoc) : null,
+                    garantiaDoc != null ? converter.read(Garantias.class, garantiaDoc) : null,
+                    seguroDoc != null ? converter.read(Seguros.class, seguroDoc) : null,
+                    tipoComisionDoc != null ? converter.read(TiposComisiones.class, tipoComisionDoc) : null));
+        }
+        return prestamos;
+    }
+
+    private static AggregationOperation lookup(String coleccion, String campoReferencia, String alias,
+            Document... etapasAdicionales) {
+        Document etapa = lookupDocument(coleccion, campoReferencia, alias, etapasAdicionales);
+        return context -> etapa;
+    }
+
+    private static AggregationOperation unwind(String campo) {
+        Document etapa = unwindDocument(campo);
+        return context -> etapa;
+    }
+
+    private static Document lookupDocument(String coleccion, String campoReferencia, String alias,
+            Document... etapasAdicionales) {
+        // Las referencias se guardan como String y los _id como ObjectId: se convierte antes de comparar
+        Document idReferencia = new Document("$convert", new Document("input", "$$ref")
+                .append("to", "objectId")
+                .append("onError", "$$ref")
+                .append("onNull", null));
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match",
+                new Document("$expr", new Document("$eq", List.of("$_id", idReferencia)))));
+        pipeline.addAll(List.of(etapasAdicionales));
+
+        return new Document("$lookup", new Document("from", coleccion)
+                .append("let", new Document("ref", "$" + campoReferencia))
+                .append("pipeline", pipeline)
+                .append("as", alias));
+    }
+
+    private static Document unwindDocument(String campo) {
+        return new Document("$unwind", new Document("path", "$" + campo)
+                .append("preserveNullAndEmptyArrays", true));
+    }
+}
@@ -1,5 +1,6 @@
 package com.banquito.core.loan.catalog.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 import com.banquito.core.loan.catalog.model.Seguros;
@@ -14,6 +15,10 @@ public interface SegurosRepository extends MongoRepository<Seguros, String> {
 
     List<Seguros> findByEstado(String estado);
 
+    List<Seguros> findByEstadoOrderByIdAsc(String estado, Limit limit);
+
+    List<Seguros> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, String id, Limit limit);
+
     List<Seguros> findByFechaFinAfterAndEstado(LocalDate fecha, String estado);
 
     List<Seguros> findByCompaniaAndEstado(String compania, String estado);
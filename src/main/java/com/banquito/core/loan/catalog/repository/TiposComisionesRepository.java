@@ -1,5 +1,6 @@
 package com.banquito.core.loan.catalog.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 import com.banquito.core.loan.catalog.model.TiposComisiones;
@@ -13,5 +14,9 @@ public interface TiposComisionesRepository extends MongoRepository<TiposComision
 
     List<TiposComisiones> findByEstado(String estado);
 
+    List<TiposComisiones> findByEstadoOrderByIdAsc(String estado, Limit limit);
+
+    List<TiposComisiones> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, String id, Limit limit);
+
     List<TiposComisiones> findByTipoCalculoAndEstado(String tipoCalculo, String estado);
 }
@@ -1,5 +1,6 @@
 package com.banquito.core.loan.catalog.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 import com.banquito.core.loan.catalog.model.TiposPrestamos;
@@ -11,6 +12,10 @@ public interface TiposPrestamosRepository extends MongoRepository<TiposPrestamos
 
     List<TiposPrestamos> findByEstado(String estado);
 
+    List<TiposPrestamos> findByEstadoOrderByIdAsc(String estado, Limit limit);
+
+    List<TiposPrestamos> findByEstadoAndIdGreaterThanOrderByIdAsc(String estado, String id, Limit limit);
+
     List<TiposPrestamos> findByTipoCliente(String tipoCliente);
 
     List<TiposPrestamos> findByTipoClienteAndEstado(String tipoCliente, String estado);
@@ -0,0 +1,14 @@
+package com.banquito.core.loan.catalog.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import com.banquito.core.loan.catalog.model.Garantias;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveGarantiasRepository extends ReactiveMongoRepository<Garantias, String> {
+
+    Flux<Garantias> findByTipoGarantiaAndEstado(String tipoGarantia, String estado);
+
+    Flux<Garantias> findByEstado(String estado);
+}
@@ -0,0 +1,25 @@
+package com.banquito.core.loan.catalog.repository.reactive;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface ReactivePrestamosRepository extends ReactiveMongoRepository<Prestamos, String> {
+
+    Flux<Prestamos> findByIdTipoPrestamoAndEstado(String idTipoPrestamo, String estado);
+
+    Flux<Prestamos> findByEstado(String estado);
+
+    Flux<Prestamos> findByIdMonedaAndEstado(String idMoneda, String estado);
+
+    @Query("{'montoMinimo': {$lte: ?0}, 'montoMaximo': {$gte: ?0}, 'estado': ?1}")
+    Flux<Prestamos> findByMontoRangeAndEstado(BigDecimal monto, String estado);
+
+    @Query("{'plazoMinimoMeses': {$lte: ?0}, 'plazoMaximoMeses': {$gte: ?0}, 'estado': ?1}")
+    Flux<Prestamos> findByPlazoRangeAndEstado(Integer plazoMeses, String estado);
+}
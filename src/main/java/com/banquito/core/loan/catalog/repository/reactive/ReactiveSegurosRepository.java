@@ -0,0 +1,20 @@
+package com.banquito.core.loan.catalog.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import com.banquito.core.loan.catalog.model.Seguros;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+@Repository
+public interface ReactiveSegurosRepository extends ReactiveMongoRepository<Seguros, String> {
+
+    Flux<Seguros> findByTipoSeguroAndEstado(String tipoSeguro, String estado);
+
+    Flux<Seguros> findByEstado(String estado);
+
+    Flux<Seguros> findByFechaFinAfterAndEstado(LocalDate fecha, String estado);
+
+    Flux<Seguros> findByCompaniaAndEstado(String compania, String estado);
+}
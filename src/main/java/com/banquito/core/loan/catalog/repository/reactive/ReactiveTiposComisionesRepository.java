@@ -0,0 +1,16 @@
+package com.banquito.core.loan.catalog.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveTiposComisionesRepository extends ReactiveMongoRepository<TiposComisiones, String> {
+
+    Flux<TiposComisiones> findByTipoAndEstado(String tipo, String estado);
+
+    Flux<TiposComisiones> findByEstado(String estado);
+
+    Flux<TiposComisiones> findByTipoCalculoAndEstado(String tipoCalculo, String estado);
+}
@@ -0,0 +1,16 @@
+package com.banquito.core.loan.catalog.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveTiposPrestamosRepository extends ReactiveMongoRepository<TiposPrestamos, String> {
+
+    Flux<TiposPrestamos> findByEstado(String estado);
+
+    Flux<TiposPrestamos> findByTipoCliente(String tipoCliente);
+
+    Flux<TiposPrestamos> findByTipoClienteAndEstado(String tipoCliente, String estado);
+}
@@ -0,0 +1,199 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.CuotaAmortizacionDTO;
+import com.banquito.core.loan.catalog.dto.TablaAmortizacionDTO;
+import com.banquito.core.loan.catalog.enums.BaseCalculoEnum;
+import com.banquito.core.loan.catalog.enums.EsquemaAmortizacionEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.exception.SimulacionException;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Motor de amortización francesa (cuota fija). Internamente los montos son centavos en long y las tasas
+// enteros en punto fijo; BigDecimal solo se usa al leer el producto y al construir la respuesta, de modo
+// que el simulador puede recalcular la tabla en cada pulsación sin presión sobre el recolector.
+@Slf4j
+@Service
+public class AmortizacionService {
+
+    // Tasa por período con 10 decimales: 1 % mensual = 100_000_000
+    private static final long ESCALA_TASA = 10_000_000_000L;
+    private static final int DECIMALES_MONTO = 2;
+    private static final int MESES_POR_ANIO = 12;
+    private static final int DIAS_POR_ANIO = 365;
+
+    private final PrestamosService prestamosService;
+
+    public AmortizacionService(PrestamosService prestamosService) {
+        this.prestamosService = prestamosService;
+    }
+
+    public TablaAmortizacionDTO calcular(String idPrestamo, BigDecimal monto, int plazo, LocalDate fechaInicio) {
+        return this.calcular(this.prestamosService.findById(idPrestamo), monto, plazo, fechaInicio);
+    }
+
+    public TablaAmortizacionDTO calcular(Prestamos prestamo, BigDecimal monto, int plazo, LocalDate fechaInicio) {
+        log.debug("Calculando tabla de amortización del préstamo {} para monto {} y plazo {}", prestamo.getId(),
+                monto, plazo);
+        validar(prestamo, monto, plazo);
+        LocalDate inicio = fechaInicio != null ? fechaInicio : LocalDate.now();
+        Tabla tabla = generar(aCentavos(monto), prestamo.getTasaInteres(), prestamo.getBaseCalculo(), plazo, inicio,
+                true);
+
+        List<CuotaAmortizacionDTO> cuotas = new ArrayList<>(plazo);
+        for (int i = 0; i < plazo; i++) {
+            cuotas.add(CuotaAmortizacionDTO.builder()
+                    .numero(i + 1)
+                    .fechaVencimiento(inicio.plusMonths(i + 1))
+                    .cuota(aMonto(tabla.cuotas[i]))
+                    .capital(aMonto(tabla.capital[i]))
+                    .interes(aMonto(tabla.intereses[i]))
+                    .saldo(aMonto(tabla.saldos[i]))
+                    .build());
+        }
+
+        return TablaAmortizacionDTO.builder()
+                .idPrestamo(prestamo.getId())
+                .esquemaAmortizacion(EsquemaAmortizacionEnum.FRANCES.getValor())
+                .baseCalculo(prestamo.getBaseCalculo())
+                .tasaInteres(prestamo.getTasaInteres())
+                .monto(aMonto(aCentavos(monto)))
+                .plazo(plazo)
+                .fechaInicio(inicio)
+                .cuota(aMonto(tabla.cuotaFija))
+                .totalIntereses(aMonto(tabla.totalIntereses))
+                .totalPagado(aMonto(tabla.totalPagado))
+                .cuotas(cuotas)
+                .build();
+    }
+
+    // Solo la cuota y los totales, sin el detalle por período: es la forma que usan las simulaciones masivas
+    Tabla resumir(Prestamos prestamo, BigDecimal monto, int plazo, LocalDate inicio) {
+        validar(prestamo, monto, plazo);
+        return generar(aCentavos(monto), prestamo.getTasaInteres(), prestamo.getBaseCalculo(), plazo, inicio, false);
+    }
+
+    private static void validar(Prestamos prestamo, BigDecimal monto, int plazo) {
+        if (!EstadoGeneralEnum.ACTIVO.getValor().equals(prestamo.getEstado())) {
+            throw new SimulacionException("Préstamo", "El préstamo está inactivo");
+        }
+        if (prestamo.getTipoAmortizacion() != null
+                && !EsquemaAmortizacionEnum.FRANCES.getValor().equals(prestamo.getTipoAmortizacion())) {
+            throw new SimulacionException("Préstamo",
+                    "El esquema de amortización no está soportado: " + prestamo.getTipoAmortizacion());
+        }
+        if (prestamo.getTasaInteres() == null || prestamo.getTasaInteres().signum() < 0) {
+            throw new SimulacionException("Préstamo", "La tasa de interés del préstamo no es válida");
+        }
+        if (monto == null || monto.signum() <= 0) {
+            throw new SimulacionException("Préstamo", "El monto debe ser mayor a cero");
+        }
+        if (plazo <= 0) {
+            throw new SimulacionException("Préstamo", "El plazo debe ser mayor a cero");
+        }
+        if ((prestamo.getMontoMinimo() != null && monto.compareTo(prestamo.getMontoMinimo()) < 0)
+                || (prestamo.getMontoMaximo() != null && monto.compareTo(prestamo.getMontoMaximo()) > 0)) {
+            throw new SimulacionException("Préstamo", "El monto está fuera del rango del préstamo");
+        }
+        if ((prestamo.getPlazoMinimoMeses() != null && plazo < prestamo.getPlazoMinimoMeses())
+                || (prestamo.getPlazoMaximoMeses() != null && plazo > prestamo.getPlazoMaximoMeses())) {
+            throw new SimulacionException("Préstamo", "El plazo está fuera del rango del préstamo");
+        }
+    }
+
+    // La cuota fija se obtiene con la fórmula francesa sobre la tasa nominal mensual; el interés de cada
+    // período se calcula según la base: 30/360 usa la tasa mensual y 31/365 los días reales del período.
+    // La última cuota absorbe el residuo de redondeo para que el saldo termine exactamente en cero.
+    static Tabla generar(long monto, BigDecimal tasaAnual, String baseCalculo, int plazo, LocalDate inicio,
+            boolean detalle) {
+        boolean base30360 = BaseCalculoEnum.BASE_30_360.getValor().equals(baseCalculo);
+        if (!base30360 && !BaseCalculoEnum.BASE_31_365.getValor().equals(baseCalculo)) {
+            throw new SimulacionException("Préstamo", "La base de cálculo no es válida");
+        }
+        // tasaInteres se expresa en porcentaje anual
+        long tasaAnualEscalada = tasaAnual.movePointLeft(2)
+                .multiply(BigDecimal.valueOf(ESCALA_TASA))
+                .setScale(0, RoundingMode.HALF_EVEN)
+                .longValueExact();
+        long tasaMensual = dividirRedondeando(tasaAnualEscalada, MESES_POR_ANIO);
+
+        Tabla tabla = new Tabla(detalle ? plazo : 0);
+        tabla.cuotaFija = cuotaFija(monto, (double) tasaMensual / ESCALA_TASA, plazo);
+
+        long saldo = monto;
+        long inicioPeriodo = inicio.toEpochDay();
+        for (int i = 0; i < plazo; i++) {
+            long tasaPeriodo = tasaMensual;
+            if (!base30360) {
+                long finPeriodo = inicio.plusMonths(i + 1).toEpochDay();
+                tasaPeriodo = dividirRedondeando(tasaAnualEscalada * (finPeriodo - inicioPeriodo), DIAS_POR_ANIO);
+                inicioPeriodo = finPeriodo;
+            }
+            long interes = interes(saldo, tasaPeriodo);
+            long capital = i == plazo - 1 ? saldo : Math.min(Math.max(tabla.cuotaFija - interes, 0), saldo);
+            saldo -= capital;
+
+            if (detalle) {
+                tabla.intereses[i] = interes;
+                tabla.capital[i] = capital;
+                tabla.cuotas[i] = capital + interes;
+                tabla.saldos[i] = saldo;
+            }
+            tabla.totalIntereses += interes;
+            tabla.totalPagado += capital + interes;
+        }
+        return tabla;
+    }
+
+    private static long cuotaFija(long monto, double tasaMensual, int plazo) {
+        if (tasaMensual == 0) {
+            return (monto + plazo - 1) / plazo;
+        }
+        return Math.round(monto * tasaMensual / (1 - Math.pow(1 + tasaMensual, -plazo)));
+    }
+
+    private static long interes(long saldo, long tasaPeriodo) {
+        try {
+            return dividirRedondeando(Math.multiplyExact(saldo, tasaPeriodo), ESCALA_TASA);
+        } catch (ArithmeticException e) {
+            throw new SimulacionException("Préstamo", "El monto excede el rango soportado por la simulación");
+        }
+    }
+
+    // División entera con redondeo half-up para valores no negativos
+    private static long dividirRedondeando(long dividendo, long divisor) {
+        return (dividendo + divisor / 2) / divisor;
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        return monto.setScale(DECIMALES_MONTO, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal aMonto(long centavos) {
+        return BigDecimal.valueOf(centavos, DECIMALES_MONTO);
+    }
+
+    static final class Tabla {
+        final long[] cuotas;
+        final long[] capital;
+        final long[] intereses;
+        final long[] saldos;
+        long cuotaFija;
+        long totalIntereses;
+        long totalPagado;
+
+        private Tabla(int plazo) {
+            this.cuotas = new long[plazo];
+            this.capital = new long[plazo];
+            this.intereses = new long[plazo];
+            this.saldos = new long[plazo];
+        }
+    }
+}
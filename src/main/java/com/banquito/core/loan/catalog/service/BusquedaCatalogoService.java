@@ -0,0 +1,277 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.BusquedaDTO;
+import com.banquito.core.loan.catalog.dto.ResultadoBusquedaDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import com.banquito.core.loan.catalog.repository.PrestamosRepository;
+import com.banquito.core.loan.catalog.repository.TiposPrestamosRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria sobre los préstamos y tipos de préstamo activos. Los términos se normalizan
+// sin tildes ni mayúsculas y se guardan en un mapa ordenado concurrente, que resuelve tanto la búsqueda
+// exacta como el autocompletado por prefijo (subMap). Cada cambio reindexa solo el documento afectado;
+// las lecturas no se bloquean ni consultan MongoDB.
+@Slf4j
+@Service
+public class BusquedaCatalogoService {
+
+    private static final String TIPO_PRESTAMO = "PRESTAMO";
+    private static final String TIPO_TIPO_PRESTAMO = "TIPO_PRESTAMO";
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    // Letras (con sus marcas) y dígitos de cualquier alfabeto: \p{Alnum} solo reconoce ASCII y partiría
+    // "préstamo" en dos
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{M}\\p{N}]+");
+    private static final Set<String> VACIAS = Set.of("a", "al", "con", "de", "del", "el", "en", "la", "las", "lo",
+            "los", "o", "para", "por", "que", "se", "su", "sus", "un", "una", "y");
+    private static final float PESO_NOMBRE = 3f;
+    private static final float PESO_TEXTO = 1f;
+    // Los términos completados por prefijo puntúan menos que una coincidencia exacta
+    private static final double FACTOR_PREFIJO = 0.5;
+    private static final int MAXIMO_EXPANSION_PREFIJO = 50;
+    private static final int MAXIMO_SUGERENCIAS = 10;
+
+    private final PrestamosRepository prestamosRepository;
+    private final TiposPrestamosRepository tiposPrestamosRepository;
+    // término -> (documento -> peso del término en el documento)
+    private final ConcurrentSkipListMap<String, Map<String, Float>> terminos = new ConcurrentSkipListMap<>();
+    private final Map<String, Documento> documentos = new ConcurrentHashMap<>();
+    // Forma original (con tildes) de cada término, para las sugerencias
+    private final Map<String, String> formas = new ConcurrentHashMap<>();
+
+    public BusquedaCatalogoService(PrestamosRepository prestamosRepository,
+            TiposPrestamosRepository tiposPrestamosRepository) {
+        this.prestamosRepository = prestamosRepository;
+        this.tiposPrestamosRepository = tiposPrestamosRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void cargar() {
+        this.cargarPrestamos();
+        this.cargarTiposPrestamos();
+        log.info("Índice de búsqueda cargado con {} documentos y {} términos", this.documentos.size(),
+                this.terminos.size());
+    }
+
+    @EventListener
+    public synchronized void onCambio(CatalogoCambioEvent evento) {
+        if (evento.getColeccion() == ColeccionCatalogoEnum.PRESTAMOS) {
+            if (evento.isColeccionCompleta()) {
+                this.cargarPrestamos();
+            } else {
+                this.prestamosRepository.findById(evento.getId())
+                        .filter(prestamo -> EstadoGeneralEnum.ACTIVO.getValor().equals(prestamo.getEstado()))
+                        .ifPresentOrElse(this::indexar, () -> this.eliminar(clave(TIPO_PRESTAMO, evento.getId())));
+            }
+        } else if (evento.getColeccion() == ColeccionCatalogoEnum.TIPOS_PRESTAMOS) {
+            if (evento.isColeccionCompleta()) {
+                this.cargarTiposPrestamos();
+            } else {
+                this.tiposPrestamosRepository.findById(evento.getId())
+                        .filter(tipo -> EstadoGeneralEnum.ACTIVO.getValor().equals(tipo.getEstado()))
+                        .ifPresentOrElse(this::indexar,
+                                () -> this.eliminar(clave(TIPO_TIPO_PRESTAMO, evento.getId())));
+            }
+        }
+    }
+
+    public BusquedaDTO buscar(String consulta, int limite) {
+        List<String> tokens = new ArrayList<>();
+        for (String palabra : palabras(consulta)) {
+            String termino = normalizar(palabra);
+            if (!termino.isEmpty()) {
+                tokens.add(termino);
+            }
+        }
+        if (tokens.isEmpty()) {
+            return BusquedaDTO.builder().consulta(consulta).resultados(List.of()).sugerencias(List.of()).build();
+        }
+
+        int total = Math.max(1, this.documentos.size());
+        Map<String, Double> puntajes = new HashMap<>();
+        for (String token : tokens) {
+            this.puntuar(this.terminos.get(token), total, 1.0, puntajes);
+        }
+        // La última palabra se trata también como prefijo: el usuario puede estar escribiéndola
+        String ultimo = tokens.get(tokens.size() - 1);
+        ConcurrentNavigableMap<String, Map<String, Float>> completados = this.prefijo(ultimo);
+        List<String> sugerencias = new ArrayList<>();
+        int expandidos = 0;
+        for (Map.Entry<String, Map<String, Float>> entrada : completados.entrySet()) {
+            if (expandidos++ >= MAXIMO_EXPANSION_PREFIJO) {
+                break;
+            }
+            if (!entrada.getKey().equals(ultimo)) {
+                this.puntuar(entrada.getValue(), total, FACTOR_PREFIJO, puntajes);
+            }
+            sugerencias.add(entrada.getKey());
+        }
+
+        List<ResultadoBusquedaDTO> resultados = puntajes.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(limite)
+                .map(entrada -> this.resultado(entrada.getKey(), entrada.getValue()))
+                .filter(resultado -> resultado != null)
+                .toList();
+
+        return BusquedaDTO.builder()
+                .consulta(consulta)
+                .resultados(resultados)
+                .sugerencias(sugerencias.stream()
+                        .sorted(Comparator.comparingInt((String termino) -> -this.frecuencia(termino))
+                                .thenComparing(Comparator.naturalOrder()))
+                        .limit(MAXIMO_SUGERENCIAS)
+                        .map(termino -> this.formas.getOrDefault(termino, termino))
+                        .toList())
+                .build();
+    }
+
+    private void puntuar(Map<String, Float> documentosTermino, int total, double factor,
+            Map<String, Double> puntajes) {
+        if (documentosTermino == null || documentosTermino.isEmpty()) {
+            return;
+        }
+        // tf ponderado por campo x idf
+        double idf = Math.log(1.0 + (double) total / documentosTermino.size());
+        for (Map.Entry<String, Float> entrada : documentosTermino.entrySet()) {
+            puntajes.merge(entrada.getKey(), entrada.getValue() * idf * factor, Double::sum);
+        }
+    }
+
+    private ConcurrentNavigableMap<String, Map<String, Float>> prefijo(String prefijo) {
+        return this.terminos.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+    }
+
+    private int frecuencia(String termino) {
+        Map<String, Float> documentosTermino = this.terminos.get(termino);
+        return documentosTermino != null ? documentosTermino.size() : 0;
+    }
+
+    private ResultadoBusquedaDTO resultado(String clave, double puntaje) {
+        Documento documento = this.documentos.get(clave);
+        if (documento == null) {
+            return null;
+        }
+        return ResultadoBusquedaDTO.builder()
+                .tipo(documento.tipo())
+                .id(documento.id())
+                .nombre(documento.nombre())
+                .descripcion(documento.descripcion())
+                .puntaje(Math.round(puntaje * 1000) / 1000.0)
+                .build();
+    }
+
+    private void cargarPrestamos() {
+        this.eliminarTipo(TIPO_PRESTAMO);
+        this.prestamosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor()).forEach(this::indexar);
+    }
+
+    private void cargarTiposPrestamos() {
+        this.eliminarTipo(TIPO_TIPO_PRESTAMO);
+        this.tiposPrestamosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor()).forEach(this::indexar);
+    }
+
+    private void indexar(Prestamos prestamo) {
+        Map<String, Float> pesos = new HashMap<>();
+        Map<String, String> formasDocumento = new HashMap<>();
+        acumular(pesos, formasDocumento, prestamo.getNombre(), PESO_NOMBRE);
+        acumular(pesos, formasDocumento, prestamo.getDescripcion(), PESO_TEXTO);
+        this.indexar(new Documento(TIPO_PRESTAMO, prestamo.getId(), prestamo.getNombre(),
+                prestamo.getDescripcion(), pesos, formasDocumento));
+    }
+
+    private void indexar(TiposPrestamos tipoPrestamo) {
+        Map<String, Float> pesos = new HashMap<>();
+        Map<String, String> formasDocumento = new HashMap<>();
+        acumular(pesos, formasDocumento, tipoPrestamo.getNombre(), PESO_NOMBRE);
+        acumular(pesos, formasDocumento, tipoPrestamo.getDescripcion(), PESO_TEXTO);
+        acumular(pesos, formasDocumento, tipoPrestamo.getRequisitos(), PESO_TEXTO);
+        this.indexar(new Documento(TIPO_TIPO_PRESTAMO, tipoPrestamo.getId(), tipoPrestamo.getNombre(),
+                tipoPrestamo.getDescripcion(), pesos, formasDocumento));
+    }
+
+    private void indexar(Documento documento) {
+        String clave = clave(documento.tipo(), documento.id());
+        this.eliminar(clave);
+        this.documentos.put(clave, documento);
+        for (Map.Entry<String, Float> peso : documento.pesos().entrySet()) {
+            this.terminos.computeIfAbsent(peso.getKey(), termino -> new ConcurrentHashMap<>())
+                    .put(clave, peso.getValue());
+        }
+        documento.formas().forEach(this.formas::putIfAbsent);
+    }
+
+    private void eliminar(String clave) {
+        Documento anterior = this.documentos.remove(clave);
+        if (anterior == null) {
+            return;
+        }
+        for (String termino : anterior.pesos().keySet()) {
+            this.terminos.computeIfPresent(termino, (t, documentosTermino) -> {
+                documentosTermino.remove(clave);
+                return documentosTermino.isEmpty() ? null : documentosTermino;
+            });
+            // Sin documentos el término sale del índice y su forma ya no debe sugerirse
+            if (!this.terminos.containsKey(termino)) {
+                this.formas.remove(termino);
+            }
+        }
+    }
+
+    private void eliminarTipo(String tipo) {
+        for (Documento documento : List.copyOf(this.documentos.values())) {
+            if (documento.tipo().equals(tipo)) {
+                this.eliminar(clave(tipo, documento.id()));
+            }
+        }
+    }
+
+    private static void acumular(Map<String, Float> pesos, Map<String, String> formas, String texto, float peso) {
+        for (String palabra : palabras(texto)) {
+            String termino = normalizar(palabra);
+            if (termino.length() > 1 && !VACIAS.contains(termino)) {
+                pesos.merge(termino, peso, Float::sum);
+                formas.putIfAbsent(termino, palabra.toLowerCase());
+            }
+        }
+    }
+
+    private static String[] palabras(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return new String[0];
+        }
+        return SEPARADORES.split(texto.trim());
+    }
+
+    // Sin tildes ni diéresis y en minúsculas: "PRÉSTAMO" y "prestamo" producen el mismo término
+    private static String normalizar(String palabra) {
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(palabra, Normalizer.Form.NFD)).replaceAll("");
+        return sinMarcas.toLowerCase();
+    }
+
+    private static String clave(String tipo, String id) {
+        return tipo + ":" + id;
+    }
+
+    private record Documento(String tipo, String id, String nombre, String descripcion, Map<String, Float> pesos,
+            Map<String, String> formas) {
+    }
+}
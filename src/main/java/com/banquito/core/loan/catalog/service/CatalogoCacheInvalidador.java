@@ -0,0 +1,52 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.config.CacheConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Mantiene las cachés locales coherentes con los cambios del catálogo, tanto los escritos por esta
+// réplica como los detectados por CatalogoCambiosListener en otras réplicas.
+@Slf4j
+@Component
+public class CatalogoCacheInvalidador {
+
+    private final CacheManager cacheManager;
+
+    public CatalogoCacheInvalidador(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener
+    public void onCambio(CatalogoCambioEvent evento) {
+        switch (evento.getColeccion()) {
+            case SEGUROS -> this.invalidar(evento, CacheConfig.SEGUROS, CacheConfig.SEGUROS_ACTIVOS);
+            case TIPOS_COMISIONES -> this.invalidar(evento, CacheConfig.TIPOS_COMISIONES,
+                    CacheConfig.TIPOS_COMISIONES_ACTIVOS);
+            case TIPOS_PRESTAMOS -> this.invalidar(evento, CacheConfig.TIPOS_PRESTAMOS,
+                    CacheConfig.TIPOS_PRESTAMOS_ACTIVOS);
+            case GARANTIAS -> this.invalidar(evento, CacheConfig.GARANTIAS, CacheConfig.GARANTIAS_ACTIVAS);
+            case PRESTAMOS -> {
+                // Los préstamos no se guardan en caché
+            }
+        }
+    }
+
+    private void invalidar(CatalogoCambioEvent evento, String cachePorId, String cacheActivos) {
+        Cache porId = this.cacheManager.getCache(cachePorId);
+        if (porId != null) {
+            if (evento.isColeccionCompleta()) {
+                porId.clear();
+            } else {
+                porId.evict(evento.getId());
+            }
+        }
+        Cache activos = this.cacheManager.getCache(cacheActivos);
+        if (activos != null) {
+            activos.clear();
+        }
+        log.debug("Caché invalidada por cambio en {}", evento);
+    }
+}
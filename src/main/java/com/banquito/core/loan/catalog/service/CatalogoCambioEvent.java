@@ -0,0 +1,24 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import lombok.Getter;
+import lombok.ToString;
+
+// Cambio en un documento del catálogo, ya sea escrito por esta réplica o detectado en MongoDB.
+// Un id nulo indica que toda la colección debe considerarse modificada.
+@Getter
+@ToString
+public class CatalogoCambioEvent {
+
+    private final ColeccionCatalogoEnum coleccion;
+    private final String id;
+
+    public CatalogoCambioEvent(ColeccionCatalogoEnum coleccion, String id) {
+        this.coleccion = coleccion;
+        this.id = id;
+    }
+
+    public boolean isColeccionCompleta() {
+        return this.id == null;
+    }
+}
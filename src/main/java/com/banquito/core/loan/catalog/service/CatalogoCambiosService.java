@@ -0,0 +1,88 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// La firma de una colección se deriva de sus datos: el número de documentos y la suma de sus versiones. Toda
+// escritura incrementa la versión del documento (o cambia el número de documentos), así que la firma cambia
+// aunque la fechaModificacion escrita no sea la más alta. Todas las réplicas obtienen la misma firma para los
+// mismos datos, también tras un reinicio. Se recalcula con cada cambio registrado, propio o detectado por
+// CatalogoCambiosListener.
+@Slf4j
+@Service
+public class CatalogoCambiosService {
+
+    private final Map<ColeccionCatalogoEnum, Marca> marcas = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+    private final MongoTemplate mongoTemplate;
+
+    public CatalogoCambiosService(ApplicationEventPublisher eventPublisher, MongoTemplate mongoTemplate) {
+        this.eventPublisher = eventPublisher;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void registrar(ColeccionCatalogoEnum coleccion, String id) {
+        Marca marca = this.actualizar(coleccion);
+        log.debug("Cambio registrado en {} (id: {}), marca de colección {}", coleccion.getValor(), id, marca);
+        this.eventPublisher.publishEvent(new CatalogoCambioEvent(coleccion, id));
+    }
+
+    public void registrarColeccion(ColeccionCatalogoEnum coleccion) {
+        this.registrar(coleccion, null);
+    }
+
+    // Firma de un conjunto de colecciones: cambia cuando cambia cualquiera de ellas
+    public String firma(ColeccionCatalogoEnum... colecciones) {
+        long documentos = 0;
+        long versiones = 0;
+        for (ColeccionCatalogoEnum coleccion : colecciones) {
+            Marca marca = this.marcas.get(coleccion);
+            if (marca == null) {
+                marca = this.actualizar(coleccion);
+            }
+            if (marca == null) {
+                // Sin marca no se puede afirmar que nada cambió: un valor que no se repite evita responder 304
+                return "s-" + Long.toHexString(System.nanoTime());
+            }
+            documentos += marca.documentos();
+            versiones += marca.versiones();
+        }
+        return Long.toHexString(documentos) + "-" + Long.toHexString(versiones);
+    }
+
+    // compute() serializa las lecturas de una misma colección: una marca antigua no pisa a una más nueva
+    private Marca actualizar(ColeccionCatalogoEnum coleccion) {
+        try {
+            return this.marcas.compute(coleccion, (clave, anterior) -> this.leerMarca(clave));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo leer la marca de la colección {}: {}", coleccion.getValor(), e.getMessage());
+            this.marcas.remove(coleccion);
+            return null;
+        }
+    }
+
+    private Marca leerMarca(ColeccionCatalogoEnum coleccion) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group().count().as("documentos").sum("version").as("versiones"));
+        Document totales = this.mongoTemplate.aggregate(aggregation, coleccion.getValor(), Document.class)
+                .getUniqueMappedResult();
+        if (totales == null) {
+            return new Marca(0, 0);
+        }
+        Number documentos = totales.get("documentos", Number.class);
+        Number versiones = totales.get("versiones", Number.class);
+        return new Marca(documentos != null ? documentos.longValue() : 0,
+                versiones != null ? versiones.longValue() : 0);
+    }
+
+    private record Marca(long documentos, long versiones) {
+    }
+}
@@ -0,0 +1,171 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.CatalogoSnapshotDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.mapper.GarantiasMapper;
+import com.banquito.core.loan.catalog.mapper.SegurosMapper;
+import com.banquito.core.loan.catalog.mapper.TiposComisionesMapper;
+import com.banquito.core.loan.catalog.mapper.TiposPrestamosMapper;
+import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+// Instantánea inmutable de todo el catálogo activo, ya serializada a JSON y comprimida con gzip. Se
+// reconstruye en un hilo propio tras cada cambio, agrupando las ráfagas de escrituras (debounce), de modo
+// que servirla es escribir un arreglo de bytes: sin consultas, sin mapeo y sin Jackson por petición.
+@Slf4j
+@Service
+public class CatalogoSnapshotService {
+
+    private static final ColeccionCatalogoEnum[] COLECCIONES = ColeccionCatalogoEnum.values();
+
+    private final PrestamosRelacionesService prestamosRelacionesService;
+    private final TiposPrestamosService tiposPrestamosService;
+    private final GarantiasService garantiasService;
+    private final SegurosService segurosService;
+    private final TiposComisionesService tiposComisionesService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final ObjectMapper objectMapper;
+    private final long debounceMs;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("catalogo-snapshot").daemon().factory());
+    private final AtomicBoolean pendiente = new AtomicBoolean();
+    private volatile Snapshot actual;
+
+    public CatalogoSnapshotService(PrestamosRelacionesService prestamosRelacionesService,
+            TiposPrestamosService tiposPrestamosService, GarantiasService garantiasService,
+            SegurosService segurosService, TiposComisionesService tiposComisionesService,
+            CatalogoCambiosService catalogoCambiosService, ObjectMapper objectMapper,
+            @Value("${catalogo.snapshot.debounce-ms:500}") long debounceMs) {
+        this.prestamosRelacionesService = prestamosRelacionesService;
+        this.tiposPrestamosService = tiposPrestamosService;
+        this.garantiasService = garantiasService;
+        this.segurosService = segurosService;
+        this.tiposComisionesService = tiposComisionesService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.objectMapper = objectMapper;
+        this.debounceMs = debounceMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        this.programar(0);
+    }
+
+    @EventListener
+    public void onCambio(CatalogoCambioEvent evento) {
+        this.programar(this.debounceMs);
+    }
+
+    @PreDestroy
+    public void detener() {
+        this.executor.shutdownNow();
+    }
+
+    // Mientras se reconstruye se sigue sirviendo la instantánea anterior; solo la primera petición antes de
+    // que exista alguna la construye en el hilo de la petición
+    public Snapshot obtener() {
+        Snapshot snapshot = this.actual;
+        return snapshot != null ? snapshot : this.construir();
+    }
+
+    private void programar(long retardoMs) {
+        // Un cambio que llega con una reconstrucción ya programada queda cubierto por ella
+        if (this.pendiente.compareAndSet(false, true)) {
+            this.executor.schedule(this::reconstruir, retardoMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reconstruir() {
+        this.pendiente.set(false);
+        try {
+            this.construir();
+        } catch (RuntimeException e) {
+            log.error("No se pudo reconstruir la instantánea del catálogo, se mantiene la anterior: {}",
+                    e.getMessage());
+        }
+    }
+
+    private synchronized Snapshot construir() {
+        // La firma se toma antes de leer: un cambio posterior programa otra reconstrucción con firma nueva
+        String version = this.catalogoCambiosService.firma(COLECCIONES);
+        Snapshot vigente = this.actual;
+        if (vigente != null && vigente.version().equals(version)) {
+            return vigente;
+        }
+
+        long inicio = System.nanoTime();
+        List<TiposPrestamos> tiposPrestamos = this.tiposPrestamosService.findAll();
+        List<Garantias> garantias = this.garantiasService.findAll();
+        Set<String> idsGarantias = new HashSet<>();
+        for (TiposPrestamos tipoPrestamo : tiposPrestamos) {
+            if (tipoPrestamo.getIdGarantia() != null) {
+                idsGarantias.add(tipoPrestamo.getIdGarantia());
+            }
+        }
+        // Un tipo activo puede referenciar una garantía ya inactiva: se leen por id, no del listado de activas
+        Map<String, Garantias> garantiasPorId = OperacionesBulk.indexarPorId(
+                this.garantiasService.findAllById(idsGarantias), Garantias::getId);
+
+        LocalDateTime generado = LocalDateTime.now();
+        CatalogoSnapshotDTO catalogo = CatalogoSnapshotDTO.builder()
+                .version(version)
+                .generado(generado)
+                .prestamos(this.prestamosRelacionesService.findAllWithRelations())
+                .tiposPrestamos(tiposPrestamos.stream()
+                        .map(tipoPrestamo -> garantiasPorId.containsKey(tipoPrestamo.getIdGarantia())
+                                ? TiposPrestamosMapper.mapToDTOWithGarantia(tipoPrestamo,
+                                        garantiasPorId.get(tipoPrestamo.getIdGarantia()))
+                                : TiposPrestamosMapper.mapToDTO(tipoPrestamo))
+                        .toList())
+                .garantias(garantias.stream().map(GarantiasMapper::mapToDTO).toList())
+                .seguros(this.segurosService.findAll().stream().map(SegurosMapper::mapToDTO).toList())
+                .tiposComisiones(this.tiposComisionesService.findAll().stream()
+                        .map(TiposComisionesMapper::mapToDTO)
+                        .toList())
+                .build();
+
+        try {
+            byte[] json = this.objectMapper.writeValueAsBytes(catalogo);
+            Snapshot snapshot = new Snapshot(version, generado, json, comprimir(json));
+            this.actual = snapshot;
+            log.info("Instantánea del catálogo {} construida en {} ms: {} bytes JSON, {} bytes gzip", version,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), json.length, snapshot.gzip().length);
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo serializar la instantánea del catálogo", e);
+        }
+    }
+
+    private static byte[] comprimir(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, datos.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+
+    // Los arreglos no se copian: se comparten con cada respuesta y nunca se modifican
+    public record Snapshot(String version, LocalDateTime generado, byte[] json, byte[] gzip) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class CatalogoStreamService {
+
+    private final MongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
+
+    public CatalogoStreamService(MongoTemplate mongoTemplate,
+            @Value("${catalogo.streaming.cursor-batch-size:200}") int cursorBatchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
+    }
+
+    // El Stream mantiene abierto el cursor de Mongo: quien lo consume debe cerrarlo
+    public <T> Stream<T> streamActivos(Class<T> tipo) {
+        log.info("Abriendo cursor de {} activos con lotes de {}", tipo.getSimpleName(), this.cursorBatchSize);
+        Query query = Query.query(Criteria.where("estado").is(EstadoGeneralEnum.ACTIVO.getValor()))
+                .cursorBatchSize(this.cursorBatchSize);
+        return this.mongoTemplate.stream(query, tipo);
+    }
+
+    public int getCursorBatchSize() {
+        return this.cursorBatchSize;
+    }
+}
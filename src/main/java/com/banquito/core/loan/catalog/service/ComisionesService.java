@@ -0,0 +1,175 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.CalculoComisionDTO;
+import com.banquito.core.loan.catalog.dto.ComisionCalculadaDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.enums.TipoCalculoComisionEnum;
+import com.banquito.core.loan.catalog.exception.SimulacionException;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.banquito.core.loan.catalog.repository.TiposComisionesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Cada tipo de comisión activo se compila una vez en un evaluador (cargo fijo en centavos o tasa en punto
+// fijo), de modo que calcular una comisión es una búsqueda en un mapa y una operación entera, sin volver a
+// leer cadenas ni enums. El mapa se reemplaza completo ante cualquier cambio en tipos_comisiones.
+@Slf4j
+@Service
+public class ComisionesService {
+
+    // Porcentaje con 10 decimales: 1 % = 100_000_000
+    private static final long ESCALA_TASA = 10_000_000_000L;
+
+    private final TiposComisionesRepository tiposComisionesRepository;
+    private final PrestamosService prestamosService;
+    private volatile Map<String, ComisionCompilada> comisiones;
+
+    public ComisionesService(TiposComisionesRepository tiposComisionesRepository,
+            PrestamosService prestamosService) {
+        this.tiposComisionesRepository = tiposComisionesRepository;
+        this.prestamosService = prestamosService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void compilar() {
+        // Se lee del repositorio y no de la caché: este listener puede ejecutarse antes que la invalidación
+        List<TiposComisiones> activos = this.tiposComisionesRepository
+                .findByEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        Map<String, ComisionCompilada> compiladas = new HashMap<>(activos.size() * 2);
+        for (TiposComisiones tipoComision : activos) {
+            ComisionCompilada compilada = compilar(tipoComision);
+            if (compilada != null) {
+                compiladas.put(tipoComision.getId(), compilada);
+            }
+        }
+        this.comisiones = compiladas;
+        log.info("Evaluadores de comisiones compilados para {} tipos de comisión activos", compiladas.size());
+    }
+
+    @EventListener
+    public void onCambio(CatalogoCambioEvent evento) {
+        if (evento.getColeccion() == ColeccionCatalogoEnum.TIPOS_COMISIONES && this.comisiones != null) {
+            this.compilar();
+        }
+    }
+
+    public ComisionCalculadaDTO calcular(String idPrestamo, BigDecimal monto) {
+        return this.evaluar(0, this.prestamosService.findById(idPrestamo), monto);
+    }
+
+    // Los préstamos del lote se leen con una sola consulta; las comisiones ya están en memoria
+    public List<ComisionCalculadaDTO> calcular(List<CalculoComisionDTO> calculos) {
+        log.info("Calculando {} comisiones en lote", calculos.size());
+        Set<String> ids = new HashSet<>();
+        for (CalculoComisionDTO calculo : calculos) {
+            if (calculo != null && calculo.getIdPrestamo() != null) {
+                ids.add(calculo.getIdPrestamo());
+            }
+        }
+        Map<String, Prestamos> prestamos = OperacionesBulk.indexarPorId(this.prestamosService.findAllById(ids),
+                Prestamos::getId);
+
+        List<ComisionCalculadaDTO> resultados = new ArrayList<>(calculos.size());
+        for (int i = 0; i < calculos.size(); i++) {
+            CalculoComisionDTO calculo = calculos.get(i);
+            Prestamos prestamo = calculo != null ? prestamos.get(calculo.getIdPrestamo()) : null;
+            try {
+                if (prestamo == null) {
+                    throw new SimulacionException("Préstamo", "No se encontró el préstamo con id: "
+                            + (calculo != null ? calculo.getIdPrestamo() : null));
+                }
+                resultados.add(this.evaluar(i, prestamo, calculo.getMonto()));
+            } catch (SimulacionException | ArithmeticException e) {
+                resultados.add(ComisionCalculadaDTO.builder()
+                        .indice(i)
+                        .idPrestamo(calculo != null ? calculo.getIdPrestamo() : null)
+                        .base(calculo != null ? calculo.getMonto() : null)
+                        .error(e.getMessage())
+                        .build());
+            }
+        }
+        return resultados;
+    }
+
+    private ComisionCalculadaDTO evaluar(int indice, Prestamos prestamo, BigDecimal monto) {
+        if (monto == null || monto.signum() < 0) {
+            throw new SimulacionException("Préstamo", "El monto base no es válido");
+        }
+        ComisionCompilada comision = this.evaluador(prestamo.getIdTipoComision());
+        long valor = comision.evaluador().evaluar(aCentavos(monto));
+        return ComisionCalculadaDTO.builder()
+                .indice(indice)
+                .idPrestamo(prestamo.getId())
+                .idTipoComision(comision.id())
+                .tipo(comision.tipo())
+                .tipoCalculo(comision.tipoCalculo())
+                .base(monto)
+                .valor(BigDecimal.valueOf(valor, 2))
+                .build();
+    }
+
+    private ComisionCompilada evaluador(String idTipoComision) {
+        Map<String, ComisionCompilada> actuales = this.comisiones;
+        if (actuales == null) {
+            // Evaluadores aún no compilados (arranque)
+            this.compilar();
+            actuales = this.comisiones;
+        }
+        ComisionCompilada comision = actuales.get(idTipoComision);
+        if (comision == null) {
+            throw new SimulacionException("TipoComisión",
+                    "El tipo de comisión no existe o está inactivo: " + idTipoComision);
+        }
+        return comision;
+    }
+
+    private static ComisionCompilada compilar(TiposComisiones tipoComision) {
+        if (tipoComision.getMonto() == null || tipoComision.getMonto().signum() < 0) {
+            log.warn("Tipo de comisión {} sin monto válido, no se compila", tipoComision.getId());
+            return null;
+        }
+        Evaluador evaluador;
+        if (TipoCalculoComisionEnum.FIJO.getValor().equals(tipoComision.getTipoCalculo())) {
+            long cargo = aCentavos(tipoComision.getMonto());
+            evaluador = base -> cargo;
+        } else if (TipoCalculoComisionEnum.PORCENTAJE.getValor().equals(tipoComision.getTipoCalculo())) {
+            // monto se expresa en porcentaje de la base
+            long tasa = tipoComision.getMonto().movePointLeft(2)
+                    .multiply(BigDecimal.valueOf(ESCALA_TASA))
+                    .setScale(0, RoundingMode.HALF_EVEN)
+                    .longValueExact();
+            evaluador = base -> (Math.multiplyExact(base, tasa) + ESCALA_TASA / 2) / ESCALA_TASA;
+        } else {
+            log.warn("Tipo de cálculo desconocido para el tipo de comisión {}: {}", tipoComision.getId(),
+                    tipoComision.getTipoCalculo());
+            return null;
+        }
+        return new ComisionCompilada(tipoComision.getId(), tipoComision.getTipo(), tipoComision.getTipoCalculo(),
+                evaluador);
+    }
+
+    private static long aCentavos(BigDecimal monto) {
+        return monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    @FunctionalInterface
+    private interface Evaluador {
+        long evaluar(long baseCentavos);
+    }
+
+    private record ComisionCompilada(String id, String tipo, String tipoCalculo, Evaluador evaluador) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.DesactivacionCascadaDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
+import com.banquito.core.loan.catalog.exception.DeleteException;
+import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Desactivación de un registro junto con todo lo que depende de él: los préstamos que lo referencian y,
+// para una garantía, sus tipos de préstamo y los préstamos de esos tipos. Cada colección dependiente se
+// desactiva con un único updateMany filtrado por la referencia, sin leer los documentos uno a uno.
+@Slf4j
+@Service
+public class DesactivacionCascadaService {
+
+    private final SegurosService segurosService;
+    private final TiposComisionesService tiposComisionesService;
+    private final TiposPrestamosService tiposPrestamosService;
+    private final GarantiasService garantiasService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final MongoTemplate mongoTemplate;
+
+    public DesactivacionCascadaService(SegurosService segurosService,
+            TiposComisionesService tiposComisionesService, TiposPrestamosService tiposPrestamosService,
+            GarantiasService garantiasService, CatalogoCambiosService catalogoCambiosService,
+            MongoTemplate mongoTemplate) {
+        this.segurosService = segurosService;
+        this.tiposComisionesService = tiposComisionesService;
+        this.tiposPrestamosService = tiposPrestamosService;
+        this.garantiasService = garantiasService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Simulación: cuenta los documentos activos que se desactivarían, sin escribir nada
+    public DesactivacionCascadaDTO impacto(ColeccionCatalogoEnum coleccion, String id) {
+        log.info("Calculando impacto de desactivar {} con ID {}", coleccion.getValor(), id);
+        this.buscar(coleccion, id);
+        if (coleccion == ColeccionCatalogoEnum.GARANTIAS) {
+            List<String> tiposPrestamos = this.tiposPrestamosActivos(id);
+            long prestamos = tiposPrestamos.isEmpty() ? 0 : this.mongoTemplate.count(
+                    activos(Criteria.where("idTipoPrestamo").in(tiposPrestamos)), Prestamos.class);
+            return resultado(coleccion, id, true, false, tiposPrestamos.size(), prestamos);
+        }
+        return resultado(coleccion, id, true, false, 0, this.mongoTemplate.count(
+                activos(Criteria.where(campoPrestamo(coleccion)).is(id)), Prestamos.class));
+    }
+
+    // MongoDB no tiene aquí un gestor de transacciones, así que el orden hace de garantía: se comprueba la
+    // versión de la raíz, se desactivan los dependientes y la raíz va al final. Si algo falla a mitad, la raíz
+    // sigue activa y repetir la operación completa lo que falte (los updateMany solo tocan los activos).
+    public DesactivacionCascadaDTO desactivar(ColeccionCatalogoEnum coleccion, String id, Long version) {
+        log.info("Desactivando en cascada {} con ID {}", coleccion.getValor(), id);
+        Long vigente = this.buscar(coleccion, id);
+        if (version != null && !version.equals(vigente)) {
+            throw EscriturasAtomicas.conflicto(coleccion.getValor(), id, version);
+        }
+
+        long tiposPrestamos = 0;
+        long prestamos = 0;
+        try {
+            if (coleccion == ColeccionCatalogoEnum.GARANTIAS) {
+                List<String> ids = this.tiposPrestamosActivos(id);
+                if (!ids.isEmpty()) {
+                    tiposPrestamos = this.desactivar(TiposPrestamos.class, Criteria.where("_id").in(ids));
+                    prestamos = this.desactivar(Prestamos.class, Criteria.where("idTipoPrestamo").in(ids));
+                }
+            } else {
+                prestamos = this.desactivar(Prestamos.class, Criteria.where(campoPrestamo(coleccion)).is(id));
+            }
+        } catch (Exception e) {
+            log.error("Error al desactivar dependientes de {} {} ({} tipos de préstamo y {} préstamos ya "
+                    + "desactivados, el registro sigue activo): {}", coleccion.getValor(), id, tiposPrestamos,
+                    prestamos, e.getMessage());
+            throw new DeleteException(coleccion.getValor(), "Error al desactivar dependientes: " + e.getMessage());
+        } finally {
+            if (tiposPrestamos > 0) {
+                this.catalogoCambiosService.registrarColeccion(ColeccionCatalogoEnum.TIPOS_PRESTAMOS);
+            }
+            if (prestamos > 0) {
+                this.catalogoCambiosService.registrarColeccion(ColeccionCatalogoEnum.PRESTAMOS);
+            }
+        }
+
+        boolean raizDesactivada = true;
+        try {
+            this.desactivarRaiz(coleccion, id, version);
+        } catch (EntityNotFoundException | ConflictException | DeleteException e) {
+            // Otra operación cambió la raíz entre la comprobación y la escritura: los dependientes ya quedaron
+            // desactivados y se informa el resultado parcial
+            raizDesactivada = false;
+            log.warn("Desactivación en cascada parcial de {} {}: dependientes desactivados pero el registro no: {}",
+                    coleccion.getValor(), id, e.getMessage());
+        }
+        log.info("Desactivación en cascada de {} {}: {} tipos de préstamo y {} préstamos", coleccion.getValor(),
+                id, tiposPrestamos, prestamos);
+        return resultado(coleccion, id, false, raizDesactivada, tiposPrestamos, prestamos);
+    }
+
+    // Solo cuentan los documentos que seguían activos
+    private long desactivar(Class<?> tipo, Criteria dependientes) {
+        return this.mongoTemplate.updateMulti(activos(dependientes), OperacionesBulk.desactivacion(), tipo)
+                .getModifiedCount();
+    }
+
+    private List<String> tiposPrestamosActivos(String idGarantia) {
+        Query query = activos(Criteria.where("idGarantia").is(idGarantia));
+        query.fields().include("_id");
+        return this.mongoTemplate.find(query, TiposPrestamos.class).stream()
+                .map(TiposPrestamos::getId)
+                .toList();
+    }
+
+    private void desactivarRaiz(ColeccionCatalogoEnum coleccion, String id, Long version) {
+        switch (coleccion) {
+            case SEGUROS -> this.segurosService.delete(id, version);
+            case TIPOS_COMISIONES -> this.tiposComisionesService.delete(id, version);
+            case TIPOS_PRESTAMOS -> this.tiposPrestamosService.delete(id, version);
+            case GARANTIAS -> this.garantiasService.delete(id, version);
+            default -> throw noAdmitida(coleccion);
+        }
+    }
+
+    // Devuelve la versión vigente del registro
+    private Long buscar(ColeccionCatalogoEnum coleccion, String id) {
+        return switch (coleccion) {
+            case SEGUROS -> this.segurosService.findById(id).getVersion();
+            case TIPOS_COMISIONES -> this.tiposComisionesService.findById(id).getVersion();
+            case TIPOS_PRESTAMOS -> this.tiposPrestamosService.findById(id).getVersion();
+            case GARANTIAS -> this.garantiasService.findById(id).getVersion();
+            default -> throw noAdmitida(coleccion);
+        };
+    }
+
+    private static String campoPrestamo(ColeccionCatalogoEnum coleccion) {
+        return switch (coleccion) {
+            case SEGUROS -> "idSeguro";
+            case TIPOS_COMISIONES -> "idTipoComision";
+            case TIPOS_PRESTAMOS -> "idTipoPrestamo";
+            default -> throw noAdmitida(coleccion);
+        };
+    }
+
+    private static Query activos(Criteria criteria) {
+        return Query.query(criteria.and("estado").is(EstadoGeneralEnum.ACTIVO.getValor()));
+    }
+
+    private static IllegalArgumentException noAdmitida(ColeccionCatalogoEnum coleccion) {
+        return new IllegalArgumentException("La colección " + coleccion.getValor()
+                + " no admite desactivación en cascada");
+    }
+
+    private static DesactivacionCascadaDTO resultado(ColeccionCatalogoEnum coleccion, String id, boolean simulacion,
+            boolean raizDesactivada, long tiposPrestamos, long prestamos) {
+        return DesactivacionCascadaDTO.builder()
+                .coleccion(coleccion.getValor())
+                .id(id)
+                .simulacion(simulacion)
+                .raizDesactivada(raizDesactivada)
+                .tiposPrestamos(tiposPrestamos)
+                .prestamos(prestamos)
+                .build();
+    }
+}
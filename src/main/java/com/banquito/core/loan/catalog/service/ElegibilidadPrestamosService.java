@@ -0,0 +1,208 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.repository.PrestamosRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Índice en memoria de los préstamos activos para responder "qué productos aceptan el monto X y el plazo Y"
+// sin consultar MongoDB. Los productos se ordenan por montoMinimo y se recorren como un árbol de intervalos
+// implícito (nodo = punto medio del rango) aumentado con el montoMaximo más alto de cada subárbol, de modo
+// que la búsqueda descarta ramas completas y cuesta O(log n + k). El plazo se filtra sobre los k candidatos.
+// Cada cambio publica un índice nuevo (copy-on-write), así que las lecturas nunca se bloquean; un cambio en
+// un solo préstamo copia el arreglo ya ordenado y solo el cambio de toda la colección vuelve a ordenarlo.
+@Slf4j
+@Service
+public class ElegibilidadPrestamosService {
+
+    private static final Comparator<Prestamos> POR_MONTO_MINIMO = Comparator
+            .comparing(Prestamos::getMontoMinimo)
+            .thenComparing(Prestamos::getId);
+
+    private final PrestamosRepository prestamosRepository;
+    private final Map<String, Prestamos> activos = new HashMap<>();
+    private volatile Indice indice;
+
+    public ElegibilidadPrestamosService(PrestamosRepository prestamosRepository) {
+        this.prestamosRepository = prestamosRepository;
+    }
+
+    public List<Prestamos> findElegibles(BigDecimal monto, Integer plazoMeses) {
+        Indice actual = this.indice;
+        if (actual == null) {
+            // Índice aún no cargado: se responde desde MongoDB
+            log.info("Índice de elegibilidad no disponible, consultando préstamos por rango de monto");
+            return this.prestamosRepository.findByMontoRangeAndEstado(monto, EstadoGeneralEnum.ACTIVO.getValor())
+                    .stream()
+                    .filter(prestamo -> aceptaPlazo(prestamo, plazoMeses))
+                    .toList();
+        }
+        List<Prestamos> elegibles = new ArrayList<>();
+        actual.buscar(0, actual.productos.length - 1, monto, plazoMeses, elegibles);
+        return elegibles;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void cargar() {
+        this.activos.clear();
+        for (Prestamos prestamo : this.prestamosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor())) {
+            this.activos.put(prestamo.getId(), prestamo);
+        }
+        this.reconstruir();
+        log.info("Índice de elegibilidad cargado con {} préstamos activos", this.indice.productos.length);
+    }
+
+    @EventListener
+    public synchronized void onCambio(CatalogoCambioEvent evento) {
+        if (evento.getColeccion() != ColeccionCatalogoEnum.PRESTAMOS || this.indice == null) {
+            return;
+        }
+        if (evento.isColeccionCompleta()) {
+            this.cargar();
+            return;
+        }
+        Prestamos prestamo = this.prestamosRepository.findById(evento.getId())
+                .filter(encontrado -> EstadoGeneralEnum.ACTIVO.getValor().equals(encontrado.getEstado()))
+                .orElse(null);
+        Prestamos anterior = prestamo != null
+                ? this.activos.put(prestamo.getId(), prestamo)
+                : this.activos.remove(evento.getId());
+        if (anterior != null || prestamo != null) {
+            this.indice = this.indice.reemplazar(indexable(anterior), indexable(prestamo));
+        }
+    }
+
+    private void reconstruir() {
+        Prestamos[] productos = this.activos.values().stream()
+                .filter(prestamo -> indexable(prestamo) != null)
+                .sorted(POR_MONTO_MINIMO)
+                .toArray(Prestamos[]::new);
+        this.indice = new Indice(productos);
+    }
+
+    // Un préstamo sin rango de monto no entra en el índice
+    private static Prestamos indexable(Prestamos prestamo) {
+        return prestamo != null && prestamo.getMontoMinimo() != null && prestamo.getMontoMaximo() != null
+                ? prestamo
+                : null;
+    }
+
+    private static boolean aceptaPlazo(Prestamos prestamo, Integer plazoMeses) {
+        return prestamo.getPlazoMinimoMeses() != null && prestamo.getPlazoMaximoMeses() != null
+                && prestamo.getPlazoMinimoMeses() <= plazoMeses && plazoMeses <= prestamo.getPlazoMaximoMeses();
+    }
+
+    private static final class Indice {
+
+        private final Prestamos[] productos;
+        // maximoSubarbol[mid] = mayor montoMaximo en el rango [lo, hi] cuyo punto medio es mid
+        private final BigDecimal[] maximoSubarbol;
+
+        private Indice(Prestamos[] productos) {
+            this.productos = productos;
+            this.maximoSubarbol = new BigDecimal[productos.length];
+            this.construir(0, productos.length - 1);
+        }
+
+        // Mismo orden y mismos máximos que el índice original salvo en el nodo cambiado y sus ancestros
+        private Indice(Prestamos[] productos, BigDecimal[] maximoSubarbol, int cambiado) {
+            this.productos = productos;
+            this.maximoSubarbol = maximoSubarbol;
+            this.actualizar(0, productos.length - 1, cambiado);
+        }
+
+        // Quita el préstamo anterior e inserta el nuevo (cualquiera puede ser null) sin volver a ordenar. Si el
+        // nuevo queda en la misma posición que el anterior solo se recalcula el camino desde la raíz, O(log n);
+        // si no, el arreglo se copia con el hueco desplazado y se recalculan los máximos, O(n).
+        private Indice reemplazar(Prestamos anterior, Prestamos nuevo) {
+            int posicion = anterior != null ? Arrays.binarySearch(this.productos, anterior, POR_MONTO_MINIMO) : -1;
+            if (posicion >= 0 && nuevo != null && this.cabeEn(posicion, nuevo)) {
+                Prestamos[] productos = this.productos.clone();
+                productos[posicion] = nuevo;
+                return new Indice(productos, this.maximoSubarbol.clone(), posicion);
+            }
+            Prestamos[] restantes = this.productos;
+            if (posicion >= 0) {
+                restantes = new Prestamos[this.productos.length - 1];
+                System.arraycopy(this.productos, 0, restantes, 0, posicion);
+                System.arraycopy(this.productos, posicion + 1, restantes, posicion, restantes.length - posicion);
+            }
+            if (nuevo == null) {
+                return new Indice(restantes);
+            }
+            int encontrado = Arrays.binarySearch(restantes, nuevo, POR_MONTO_MINIMO);
+            int insercion = encontrado >= 0 ? encontrado : -encontrado - 1;
+            Prestamos[] productos = new Prestamos[restantes.length + 1];
+            System.arraycopy(restantes, 0, productos, 0, insercion);
+            productos[insercion] = nuevo;
+            System.arraycopy(restantes, insercion, productos, insercion + 1, restantes.length - insercion);
+            return new Indice(productos);
+        }
+
+        private boolean cabeEn(int posicion, Prestamos prestamo) {
+            return (posicion == 0 || POR_MONTO_MINIMO.compare(this.productos[posicion - 1], prestamo) < 0)
+                    && (posicion == this.productos.length - 1
+                            || POR_MONTO_MINIMO.compare(prestamo, this.productos[posicion + 1]) < 0);
+        }
+
+        private BigDecimal construir(int lo, int hi) {
+            if (lo > hi) {
+                return null;
+            }
+            int mid = (lo + hi) >>> 1;
+            BigDecimal izquierda = this.construir(lo, mid - 1);
+            BigDecimal derecha = this.construir(mid + 1, hi);
+            this.maximoSubarbol[mid] = mayor(mayor(this.productos[mid].getMontoMaximo(), izquierda), derecha);
+            return this.maximoSubarbol[mid];
+        }
+
+        private void actualizar(int lo, int hi, int cambiado) {
+            int mid = (lo + hi) >>> 1;
+            if (cambiado < mid) {
+                this.actualizar(lo, mid - 1, cambiado);
+            } else if (cambiado > mid) {
+                this.actualizar(mid + 1, hi, cambiado);
+            }
+            BigDecimal izquierda = lo < mid ? this.maximoSubarbol[(lo + mid - 1) >>> 1] : null;
+            BigDecimal derecha = mid < hi ? this.maximoSubarbol[(mid + 1 + hi) >>> 1] : null;
+            this.maximoSubarbol[mid] = mayor(mayor(this.productos[mid].getMontoMaximo(), izquierda), derecha);
+        }
+
+        private static BigDecimal mayor(BigDecimal maximo, BigDecimal otro) {
+            return otro != null && otro.compareTo(maximo) > 0 ? otro : maximo;
+        }
+
+        private void buscar(int lo, int hi, BigDecimal monto, Integer plazoMeses, List<Prestamos> resultado) {
+            if (lo > hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            // Ningún intervalo de este subárbol llega hasta el monto
+            if (this.maximoSubarbol[mid].compareTo(monto) < 0) {
+                return;
+            }
+            this.buscar(lo, mid - 1, monto, plazoMeses, resultado);
+            Prestamos prestamo = this.productos[mid];
+            // A la derecha todos los montoMinimo son mayores o iguales: si este ya supera el monto, se corta
+            if (prestamo.getMontoMinimo().compareTo(monto) > 0) {
+                return;
+            }
+            if (prestamo.getMontoMaximo().compareTo(monto) >= 0 && aceptaPlazo(prestamo, plazoMeses)) {
+                resultado.add(prestamo);
+            }
+            this.buscar(mid + 1, hi, monto, plazoMeses, resultado);
+        }
+    }
+}
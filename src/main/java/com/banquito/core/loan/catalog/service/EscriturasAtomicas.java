@@ -0,0 +1,83 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.exception.ConflictException;
+import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+import java.util.Set;
+
+// Escrituras de un documento en un solo findAndModify: el Update incrementa la versión en el servidor ($inc)
+// y, si el cliente indica la versión que leyó, se exige en el filtro (concurrencia optimista). Solo cuando
+// no se modifica nada se hace una segunda lectura, para distinguir un id inexistente de un conflicto.
+final class EscriturasAtomicas {
+
+    private EscriturasAtomicas() {
+    }
+
+    static Criteria condicion(String id, Long versionEsperada) {
+        Criteria condicion = Criteria.where("_id").is(id);
+        if (versionEsperada != null) {
+            condicion.and("version").is(versionEsperada);
+        }
+        return condicion;
+    }
+
+    // JSON merge patch (RFC 7396): solo los campos recibidos llegan al Update; un null elimina el campo
+    static Update parche(Map<String, ?> cambios) {
+        Update update = new Update();
+        cambios.forEach((campo, valor) -> {
+            if (valor == null) {
+                update.unset(campo);
+            } else {
+                update.set(campo, valor);
+            }
+        });
+        return update;
+    }
+
+    // Primer campo del parche que no se puede modificar, o null si todos son editables
+    static String campoNoEditable(Map<String, ?> cambios, Set<String> editables) {
+        for (String campo : cambios.keySet()) {
+            if (!editables.contains(campo)) {
+                return campo;
+            }
+        }
+        return null;
+    }
+
+    // Devuelve el documento ya modificado o null si ningún documento cumplió la condición
+    static <T> T modificar(MongoTemplate mongoTemplate, Class<T> tipo, Criteria condicion, Update update) {
+        return mongoTemplate.findAndModify(Query.query(condicion), update,
+                FindAndModifyOptions.options().returnNew(true), tipo);
+    }
+
+    static <T> T modificar(MongoTemplate mongoTemplate, Class<T> tipo, String id, Long versionEsperada,
+            Update update, String entidad, String mensajeNoEncontrado) {
+        T modificado = modificar(mongoTemplate, tipo, condicion(id, versionEsperada), update);
+        if (modificado == null) {
+            throw fallo(mongoTemplate, tipo, id, versionEsperada, entidad, mensajeNoEncontrado);
+        }
+        return modificado;
+    }
+
+    static <T> RuntimeException fallo(MongoTemplate mongoTemplate, Class<T> tipo, String id, Long versionEsperada,
+            String entidad, String mensajeNoEncontrado) {
+        if (versionEsperada != null && mongoTemplate.exists(Query.query(Criteria.where("_id").is(id)), tipo)) {
+            return conflicto(entidad, id, versionEsperada);
+        }
+        return new EntityNotFoundException(entidad, mensajeNoEncontrado + id);
+    }
+
+    static ConflictException conflicto(String entidad, String id, Long versionEsperada) {
+        String mensaje = "El registro " + id + " fue modificado por otra operación";
+        if (versionEsperada != null) {
+            mensaje += "; la versión " + versionEsperada + " ya no es la vigente";
+        }
+        return new ConflictException(entidad, mensaje);
+    }
+}
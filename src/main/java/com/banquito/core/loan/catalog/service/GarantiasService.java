@@ -1,34 +1,71 @@
 package com.banquito.core.loan.catalog.service;
 
+import com.banquito.core.loan.catalog.config.CacheConfig;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
 import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.enums.ResultadoBulkEnum;
 import com.banquito.core.loan.catalog.enums.TipoGarantiaEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.UpdateException;
 import com.banquito.core.loan.catalog.model.Garantias;
 import com.banquito.core.loan.catalog.repository.GarantiasRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class GarantiasService {
 
+    private static final Set<String> CAMPOS_EDITABLES = Set.of("tipoGarantia", "descripcion", "valor");
+
     private final GarantiasRepository garantiasRepository;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final MongoTemplate mongoTemplate;
 
-    public GarantiasService(GarantiasRepository garantiasRepository) {
+    public GarantiasService(GarantiasRepository garantiasRepository,
+            CatalogoCambiosService catalogoCambiosService, MongoTemplate mongoTemplate) {
         this.garantiasRepository = garantiasRepository;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.mongoTemplate = mongoTemplate;
     }
 
+    @Cacheable(CacheConfig.GARANTIAS_ACTIVAS)
     @Transactional(readOnly = true)
     public List<Garantias> findAll() {
         log.info("Obteniendo todas las garantías activas");
-        return this.garantiasRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        return List.copyOf(this.garantiasRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor()));
     }
 
+    @Transactional(readOnly = true)
+    public List<Garantias> findPage(String after, int limit) {
+        log.info("Obteniendo página de garantías activas después de {} (límite {})", after, limit);
+        String estado = EstadoGeneralEnum.ACTIVO.getValor();
+        if (after == null) {
+            return this.garantiasRepository.findByEstadoOrderByIdAsc(estado, Limit.of(limit));
+        }
+        return this.garantiasRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Limit.of(limit));
+    }
+
+    @Cacheable(CacheConfig.GARANTIAS)
     @Transactional(readOnly = true)
     public Garantias findById(String id) {
         log.info("Buscando garantía con ID: {}", id);
@@ -36,47 +73,165 @@ public class GarantiasService {
                 .orElseThrow(() -> new EntityNotFoundException("Garantía", "No se encontró la garantía con id: " + id));
     }
 
+    @Transactional(readOnly = true)
+    public List<Garantias> findAll(Set<String> campos) {
+        log.info("Obteniendo garantías activas con los campos {}", campos);
+        return Proyecciones.activos(this.mongoTemplate, Garantias.class, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Garantias> findPage(String after, int limit, Set<String> campos) {
+        log.info("Obteniendo página de garantías activas después de {} con los campos {}", after, campos);
+        return Proyecciones.pagina(this.mongoTemplate, Garantias.class, after, limit, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public Garantias findById(String id, Set<String> campos) {
+        log.info("Buscando garantía con ID {} y los campos {}", id, campos);
+        Garantias garantia = Proyecciones.porId(this.mongoTemplate, Garantias.class, id, campos);
+        if (garantia == null) {
+            throw new EntityNotFoundException("Garantía", "No se encontró la garantía con id: " + id);
+        }
+        return garantia;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Garantias> findAllById(Collection<String> ids) {
+        log.info("Buscando {} garantías por ID", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.garantiasRepository.findAllById(ids);
+    }
+
+    @CacheEvict(value = CacheConfig.GARANTIAS_ACTIVAS, allEntries = true)
     @Transactional
     public Garantias create(Garantias garantia) {
         log.info("Creando nueva garantía: {}", garantia);
         try {
-            // Validar si el tipo de garantía es válido
-            boolean tipoValido = false;
-            for (TipoGarantiaEnum tipo : TipoGarantiaEnum.values()) {
-                if (tipo.getValor().equals(garantia.getTipoGarantia())) {
-                    tipoValido = true;
-                    break;
-                }
-            }
-
-            if (!tipoValido) {
-                throw new CreateException("Garantía", "El tipo de garantía no es válido");
+            String error = validar(garantia);
+            if (error != null) {
+                throw new CreateException("Garantía", error);
             }
 
+            garantia.setFechaModificacion(LocalDateTime.now());
             garantia.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
             garantia.setVersion(1L);
 
-            return this.garantiasRepository.save(garantia);
+            Garantias savedGarantia = this.garantiasRepository.save(garantia);
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.GARANTIAS, savedGarantia.getId());
+            return savedGarantia;
         } catch (Exception e) {
             log.error("Error al crear garantía: {}", e.getMessage());
             throw new CreateException("Garantía", "Error al crear garantía: " + e.getMessage());
         }
     }
 
+    // Solo los campos recibidos se escriben con $set
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.GARANTIAS, key = "#id"),
+            @CacheEvict(value = CacheConfig.GARANTIAS_ACTIVAS, allEntries = true)
+    })
     @Transactional
-    public void delete(String id) {
-        log.info("Eliminando lógicamente la garantía con ID: {}", id);
+    public Garantias patch(String id, Map<String, Object> cambios, Long version) {
+        log.info("Actualizando parcialmente la garantía con ID {}: {}", id, cambios.keySet());
+        if (cambios.isEmpty()) {
+            return this.findById(id);
+        }
         try {
-            Garantias garantia = this.findById(id);
-            garantia.setEstado(EstadoGeneralEnum.INACTIVO.getValor());
-            garantia.setVersion(garantia.getVersion() + 1);
+            String campo = EscriturasAtomicas.campoNoEditable(cambios, CAMPOS_EDITABLES);
+            if (campo != null) {
+                throw new UpdateException("Garantía", "El campo " + campo + " no se puede modificar");
+            }
+            if (cambios.containsKey("tipoGarantia")
+                    && !tipoGarantiaValido((String) cambios.get("tipoGarantia"))) {
+                throw new UpdateException("Garantía", "El tipo de garantía no es válido");
+            }
 
-            this.garantiasRepository.save(garantia);
-        } catch (EntityNotFoundException e) {
+            Garantias garantiaActualizada = EscriturasAtomicas.modificar(this.mongoTemplate, Garantias.class, id,
+                    version, EscriturasAtomicas.parche(cambios)
+                            .set("fechaModificacion", LocalDateTime.now())
+                            .inc("version", 1), "Garantía",
+                    "No se encontró la garantía con id: ");
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.GARANTIAS, id);
+            return garantiaActualizada;
+        } catch (EntityNotFoundException | UpdateException | ConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al actualizar parcialmente garantía: {}", e.getMessage());
+            throw new UpdateException("Garantía", "Error al actualizar garantía: " + e.getMessage());
+        }
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.GARANTIAS, key = "#id"),
+            @CacheEvict(value = CacheConfig.GARANTIAS_ACTIVAS, allEntries = true)
+    })
+    @Transactional
+    public void delete(String id, Long version) {
+        log.info("Eliminando lógicamente la garantía con ID: {}", id);
+        try {
+            EscriturasAtomicas.modificar(this.mongoTemplate, Garantias.class, id, version,
+                    OperacionesBulk.desactivacion(), "Garantía", "No se encontró la garantía con id: ");
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.GARANTIAS, id);
+        } catch (EntityNotFoundException | ConflictException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al eliminar garantía: {}", e.getMessage());
             throw new DeleteException("Garantía", "Error al eliminar garantía: " + e.getMessage());
         }
     }
+
+    @Transactional
+    public List<ResultadoBulkDTO> createBulk(List<Garantias> garantias) {
+        log.info("Creando {} garantías en lote", garantias.size());
+        BulkOperations operaciones = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Garantias.class);
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(garantias.size());
+        List<Integer> indices = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < garantias.size(); i++) {
+            Garantias garantia = garantias.get(i);
+            String error = validar(garantia);
+            if (error != null) {
+                resultados.add(OperacionesBulk.error(i, null, error));
+            } else {
+                // El id se asigna antes del envío para poder informarlo en el resultado de cada elemento
+                garantia.setId(new ObjectId().toHexString());
+                garantia.setFechaModificacion(now);
+                garantia.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+                garantia.setVersion(1L);
+                operaciones.insert(garantia);
+                indices.add(i);
+                ids.add(garantia.getId());
+            }
+        }
+
+        resultados.addAll(OperacionesBulk.ejecutar(operaciones, indices, ids, ResultadoBulkEnum.CREADO));
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService, ColeccionCatalogoEnum.GARANTIAS);
+    }
+
+    @Transactional
+    public List<ResultadoBulkDTO> deleteBulk(List<String> ids) {
+        log.info("Eliminando lógicamente {} garantías en lote", ids.size());
+        List<ResultadoBulkDTO> resultados = OperacionesBulk.desactivar(this.mongoTemplate, Garantias.class,
+                Garantias::getId, ids, OperacionesBulk.desactivacion(), "No se encontró la garantía con id: ");
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService, ColeccionCatalogoEnum.GARANTIAS);
+    }
+
+    // Devuelve el error de validación o null
+    private static String validar(Garantias garantia) {
+        // Validar si el tipo de garantía es válido
+        return tipoGarantiaValido(garantia.getTipoGarantia()) ? null : "El tipo de garantía no es válido";
+    }
+
+    private static boolean tipoGarantiaValido(String valor) {
+        for (TipoGarantiaEnum tipo : TipoGarantiaEnum.values()) {
+            if (tipo.getValor().equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
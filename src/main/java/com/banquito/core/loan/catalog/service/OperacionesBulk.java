@@ -0,0 +1,196 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.enums.ResultadoBulkEnum;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Piezas comunes de las operaciones en lote: las referencias se validan con una consulta $in por colección,
+// las escrituras van en un único bulkWrite no ordenado y cada elemento recibe su propio resultado.
+final class OperacionesBulk {
+
+    private OperacionesBulk() {
+    }
+
+    static <T> Set<String> ids(Collection<T> entidades, Function<T, String> id) {
+        Set<String> ids = new HashSet<>();
+        for (T entidad : entidades) {
+            String valor = id.apply(entidad);
+            if (valor != null) {
+                ids.add(valor);
+            }
+        }
+        return ids;
+    }
+
+    static <T> Map<String, T> indexarPorId(List<T> entidades, Function<T, String> id) {
+        Map<String, T> indice = new HashMap<>(entidades.size() * 2);
+        for (T entidad : entidades) {
+            indice.put(id.apply(entidad), entidad);
+        }
+        return indice;
+    }
+
+    static ResultadoBulkDTO exito(int indice, String id, ResultadoBulkEnum resultado) {
+        return ResultadoBulkDTO.builder()
+                .indice(indice)
+                .id(id)
+                .resultado(resultado.getValor())
+                .build();
+    }
+
+    static ResultadoBulkDTO error(int indice, String id, String mensaje) {
+        return ResultadoBulkDTO.builder()
+                .indice(indice)
+                .id(id)
+                .resultado(ResultadoBulkEnum.ERROR.getValor())
+                .mensaje(mensaje)
+                .build();
+    }
+
+    static ResultadoBulkDTO conflicto(int indice, String id, Long versionEsperada) {
+        return ResultadoBulkDTO.builder()
+                .indice(indice)
+                .id(id)
+                .resultado(ResultadoBulkEnum.CONFLICTO.getValor())
+                .mensaje("El registro fue modificado por otra operación; la versión " + versionEsperada
+                        + " ya no es la vigente")
+                .build();
+    }
+
+    // En modo no ordenado un documento rechazado no detiene los demás; el servidor informa la posición de
+    // cada operación fallida, que se traduce a la posición del elemento en la solicitud.
+    static List<ResultadoBulkDTO> ejecutar(BulkOperations operaciones, List<Integer> indices, List<String> ids,
+            ResultadoBulkEnum resultado) {
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(indices.size());
+        if (indices.isEmpty()) {
+            return resultados;
+        }
+        Map<Integer, String> errores = new HashMap<>();
+        try {
+            operaciones.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errores.put(error.getIndex(), error.getMessage());
+            }
+        }
+        for (int i = 0; i < indices.size(); i++) {
+            String error = errores.get(i);
+            resultados.add(error == null
+                    ? exito(indices.get(i), ids.get(i), resultado)
+                    : error(indices.get(i), ids.get(i), error));
+        }
+        return resultados;
+    }
+
+    // Cada updateOne exige en el filtro la versión leída y escribe fechaModificacion = fecha. El bulkWrite solo
+    // devuelve totales: si coincidieron todas no hay nada más que hacer; si no, se releen los documentos que
+    // llevan esa fecha y los que no quedaron en la versión esperada + 1 los cambió antes otra operación.
+    static <T> List<ResultadoBulkDTO> ejecutarCondicional(MongoTemplate mongoTemplate, Class<T> tipo,
+            Function<T, String> id, Function<T, Long> version, BulkOperations operaciones, List<Integer> indices,
+            List<String> ids, List<Long> versiones, LocalDateTime fecha) {
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(indices.size());
+        if (indices.isEmpty()) {
+            return resultados;
+        }
+        Map<Integer, String> errores = new HashMap<>();
+        int coincidencias;
+        try {
+            coincidencias = operaciones.execute().getMatchedCount();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errores.put(error.getIndex(), error.getMessage());
+            }
+            coincidencias = e.getResult().getMatchedCount();
+        }
+
+        Map<String, Long> aplicados = null;
+        if (coincidencias + errores.size() < indices.size()) {
+            Query query = Query.query(Criteria.where("_id").in(ids).and("fechaModificacion").is(fecha));
+            query.fields().include("_id", "version");
+            aplicados = new HashMap<>();
+            for (T entidad : mongoTemplate.find(query, tipo)) {
+                aplicados.put(id.apply(entidad), version.apply(entidad));
+            }
+        }
+        for (int i = 0; i < indices.size(); i++) {
+            String error = errores.get(i);
+            Long esperada = versiones.get(i);
+            if (error != null) {
+                resultados.add(error(indices.get(i), ids.get(i), error));
+            } else if (aplicados != null && (!aplicados.containsKey(ids.get(i))
+                    || (esperada != null && !Long.valueOf(esperada + 1).equals(aplicados.get(ids.get(i)))))) {
+                resultados.add(conflicto(indices.get(i), ids.get(i), esperada));
+            } else {
+                resultados.add(exito(indices.get(i), ids.get(i), ResultadoBulkEnum.ACTUALIZADO));
+            }
+        }
+        return resultados;
+    }
+
+    static Update desactivacion() {
+        return new Update()
+                .set("estado", EstadoGeneralEnum.INACTIVO.getValor())
+                .set("fechaModificacion", LocalDateTime.now())
+                .inc("version", 1);
+    }
+
+    // Una consulta para saber qué ids existen y un único updateMulti para desactivarlos
+    static <T> List<ResultadoBulkDTO> desactivar(MongoTemplate mongoTemplate, Class<T> tipo, Function<T, String> id,
+            List<String> ids, Update update, String mensajeNoEncontrado) {
+        Set<String> solicitados = new HashSet<>(ids);
+        solicitados.remove(null);
+
+        Query existentes = Query.query(Criteria.where("_id").in(solicitados));
+        existentes.fields().include("_id");
+        Set<String> encontrados = ids(mongoTemplate.find(existentes, tipo), id);
+        if (!encontrados.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(encontrados)), update, tipo);
+        }
+
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String valor = ids.get(i);
+            if (valor == null) {
+                resultados.add(error(i, null, "El id es requerido"));
+            } else if (!encontrados.contains(valor)) {
+                resultados.add(error(i, valor, mensajeNoEncontrado + valor));
+            } else {
+                resultados.add(exito(i, valor, ResultadoBulkEnum.DESACTIVADO));
+            }
+        }
+        return resultados;
+    }
+
+    // Un lote se registra como un único cambio de colección: las cachés y el índice de elegibilidad se
+    // refrescan una vez en lugar de una vez por documento
+    static List<ResultadoBulkDTO> finalizar(List<ResultadoBulkDTO> resultados,
+            CatalogoCambiosService catalogoCambiosService, ColeccionCatalogoEnum coleccion) {
+        resultados.sort(Comparator.comparing(ResultadoBulkDTO::getIndice));
+        boolean huboCambios = resultados.stream()
+                .anyMatch(resultado -> !ResultadoBulkEnum.ERROR.getValor().equals(resultado.getResultado())
+                        && !ResultadoBulkEnum.CONFLICTO.getValor().equals(resultado.getResultado()));
+        if (huboCambios) {
+            catalogoCambiosService.registrarColeccion(coleccion);
+        }
+        return resultados;
+    }
+}
@@ -0,0 +1,312 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.mapper.PrestamosMapper;
+import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import com.banquito.core.loan.catalog.repository.PrestamosRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+@Slf4j
+@Service
+public class PrestamosRelacionesService {
+
+    // Nombres de los objetos relacionados en PrestamosDTO
+    public static final String TIPO_PRESTAMO = "tipoPrestamo";
+    public static final String TIPO_PRESTAMO_GARANTIA = "tipoPrestamo.garantia";
+    public static final String SEGURO = "seguro";
+    public static final String TIPO_COMISION = "tipoComision";
+    public static final Set<String> RELACIONES = Set.of(TIPO_PRESTAMO, TIPO_PRESTAMO_GARANTIA, SEGURO,
+            TIPO_COMISION);
+
+    private final PrestamosRepository prestamosRepository;
+    private final PrestamosService prestamosService;
+    private final TiposPrestamosService tiposPrestamosService;
+    private final GarantiasService garantiasService;
+    private final SegurosService segurosService;
+    private final TiposComisionesService tiposComisionesService;
+    private final boolean agregacionHabilitada;
+    private final boolean paraleloHabilitado;
+    private final long timeoutMs;
+
+    public PrestamosRelacionesService(
+            PrestamosRepository prestamosRepository,
+            PrestamosService prestamosService,
+            TiposPrestamosService tiposPrestamosService,
+            GarantiasService garantiasService,
+            SegurosService segurosService,
+            TiposComisionesService tiposComisionesService,
+            @Value("${catalogo.prestamos.agregacion-relaciones.enabled:true}") boolean agregacionHabilitada,
+            @Value("${catalogo.relaciones.paralelo.enabled:true}") boolean paraleloHabilitado,
+            @Value("${catalogo.relaciones.timeout-ms:2000}") long timeoutMs) {
+        this.prestamosRepository = prestamosRepository;
+        this.prestamosService = prestamosService;
+        this.tiposPrestamosService = tiposPrestamosService;
+        this.garantiasService = garantiasService;
+        this.segurosService = segurosService;
+        this.tiposComisionesService = tiposComisionesService;
+        this.agregacionHabilitada = agregacionHabilitada;
+        this.paraleloHabilitado = paraleloHabilitado;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public List<PrestamosDTO> findAllWithRelations() {
+        if (this.agregacionHabilitada) {
+            return this.prestamosRepository.findWithRelationsByEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        }
+        return this.mapToDTOsWithRelations(this.prestamosService.findAll());
+    }
+
+    // Con todas las relaciones se usa la agregación si está habilitada; si no, se leen los préstamos activos y
+    // solo se resuelven las relaciones pedidas
+    public List<PrestamosDTO> findAll(Set<String> relaciones) {
+        if (relaciones.containsAll(RELACIONES)) {
+            return this.findAllWithRelations();
+        }
+        return this.mapToDTOsWithRelations(this.prestamosService.findAll(), relaciones);
+    }
+
+    public PrestamosDTO findById(String id, Set<String> relaciones) {
+        if (relaciones.containsAll(RELACIONES)) {
+            return this.findByIdWithRelations(id);
+        }
+        return this.mapToDTOsWithRelations(List.of(this.prestamosService.findById(id)), relaciones).get(0);
+    }
+
+    public PrestamosDTO findByIdWithRelations(String id) {
+        if (this.agregacionHabilitada) {
+            return this.prestamosRepository.findWithRelationsById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Préstamo",
+                            "No se encontró el préstamo con id: " + id));
+        }
+        return this.mapToDTOWithRelations(this.prestamosService.findById(id));
+    }
+
+    // Colecciones de las que depende la representación: los préstamos y las relaciones expandidas
+    public static ColeccionCatalogoEnum[] colecciones(Set<String> relaciones) {
+        List<ColeccionCatalogoEnum> colecciones = new ArrayList<>();
+        colecciones.add(ColeccionCatalogoEnum.PRESTAMOS);
+        if (relaciones.contains(TIPO_PRESTAMO)) {
+            colecciones.add(ColeccionCatalogoEnum.TIPOS_PRESTAMOS);
+        }
+        if (relaciones.contains(TIPO_PRESTAMO_GARANTIA)) {
+            colecciones.add(ColeccionCatalogoEnum.GARANTIAS);
+        }
+        if (relaciones.contains(SEGURO)) {
+            colecciones.add(ColeccionCatalogoEnum.SEGUROS);
+        }
+        if (relaciones.contains(TIPO_COMISION)) {
+            colecciones.add(ColeccionCatalogoEnum.TIPOS_COMISIONES);
+        }
+        return colecciones.toArray(ColeccionCatalogoEnum[]::new);
+    }
+
+    public PrestamosDTO mapToDTOWithRelations(Prestamos prestamo) {
+        if (this.paraleloHabilitado) {
+            return this.mapToDTOWithRelationsEnParalelo(prestamo);
+        }
+        // Obtener entidades relacionadas
+        TipoPrestamoConGarantia tipoPrestamo = this.buscarTipoPrestamo(prestamo);
+        Seguros seguro = this.buscarSeguro(prestamo);
+        TiposComisiones tipoComision = this.buscarTipoComision(prestamo);
+
+        return PrestamosMapper.mapToDTOWithRelations(prestamo, tipoPrestamo.tipoPrestamo(), tipoPrestamo.garantia(),
+                seguro, tipoComision);
+    }
+
+    // Las tres relaciones se consultan a la vez en hilos virtuales; la garantía depende del tipo de préstamo y
+    // se encadena en la misma tarea, de modo que el tiempo total es el de dos consultas y no el de cuatro.
+    // El executor no se cierra con close(), que esperaría a todas las tareas: shutdownNow() no espera, así
+    // que una consulta que sigue bloqueada en el driver tras agotarse el plazo termina en segundo plano y la
+    // respuesta no la espera.
+    private PrestamosDTO mapToDTOWithRelationsEnParalelo(Prestamos prestamo) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.timeoutMs);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<TipoPrestamoConGarantia> tipoPrestamo = executor.submit(() -> this.buscarTipoPrestamo(prestamo));
+            Future<Seguros> seguro = executor.submit(() -> this.buscarSeguro(prestamo));
+            Future<TiposComisiones> tipoComision = executor.submit(() -> this.buscarTipoComision(prestamo));
+            List<Future<?>> tareas = List.of(tipoPrestamo, seguro, tipoComision);
+
+            TipoPrestamoConGarantia tipoPrestamoConGarantia = esperar(tipoPrestamo, limite, tareas, prestamo,
+                    "tipo de préstamo");
+            return PrestamosMapper.mapToDTOWithRelations(prestamo,
+                    tipoPrestamoConGarantia != null ? tipoPrestamoConGarantia.tipoPrestamo() : null,
+                    tipoPrestamoConGarantia != null ? tipoPrestamoConGarantia.garantia() : null,
+                    esperar(seguro, limite, tareas, prestamo, "seguro"),
+                    esperar(tipoComision, limite, tareas, prestamo, "tipo de comisión"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static <T> T esperar(Future<T> tarea, long limite, List<Future<?>> tareas, Prestamos prestamo,
+            String relacion) {
+        try {
+            return tarea.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Plazo agotado: se responde sin la relación, igual que cuando no se encuentra
+            log.warn("Tiempo agotado al obtener {} para el préstamo {}", relacion, prestamo.getId());
+            tarea.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tareas.forEach(pendiente -> pendiente.cancel(true));
+            throw new IllegalStateException(
+                    "Consulta de relaciones interrumpida para el préstamo " + prestamo.getId(), e);
+        } catch (ExecutionException e) {
+            tareas.forEach(pendiente -> pendiente.cancel(true));
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private TipoPrestamoConGarantia buscarTipoPrestamo(Prestamos prestamo) {
+        TiposPrestamos tipoPrestamo = null;
+        Garantias garantia = null;
+        try {
+            tipoPrestamo = this.tiposPrestamosService.findById(prestamo.getIdTipoPrestamo());
+            if (tipoPrestamo.getIdGarantia() != null) {
+                garantia = this.garantiasService.findById(tipoPrestamo.getIdGarantia());
+            }
+        } catch (EntityNotFoundException e) {
+            log.warn("Tipo de préstamo o garantía no encontrado para el préstamo {}: {}", prestamo.getId(),
+                    e.getMessage());
+        }
+        return new TipoPrestamoConGarantia(tipoPrestamo, garantia);
+    }
+
+    private Seguros buscarSeguro(Prestamos prestamo) {
+        try {
+            return this.segurosService.findById(prestamo.getIdSeguro());
+        } catch (EntityNotFoundException e) {
+            log.warn("Seguro no encontrado para el préstamo {}: {}", prestamo.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private TiposComisiones buscarTipoComision(Prestamos prestamo) {
+        try {
+            return this.tiposComisionesService.findById(prestamo.getIdTipoComision());
+        } catch (EntityNotFoundException e) {
+            log.warn("Tipo de comisión no encontrado para el préstamo {}: {}", prestamo.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    public List<PrestamosDTO> mapToDTOsWithRelations(List<Prestamos> prestamos) {
+        return this.mapToDTOsWithRelations(prestamos, RELACIONES);
+    }
+
+    // Solo se consultan las colecciones de las relaciones indicadas; las demás quedan en null en el DTO
+    public List<PrestamosDTO> mapToDTOsWithRelations(List<Prestamos> prestamos, Set<String> relaciones) {
+        log.info("Resolviendo relaciones {} en lote para {} préstamos", relaciones, prestamos.size());
+        boolean conGarantia = relaciones.contains(TIPO_PRESTAMO_GARANTIA);
+        boolean conTipoPrestamo = conGarantia || relaciones.contains(TIPO_PRESTAMO);
+        boolean conSeguro = relaciones.contains(SEGURO);
+        boolean conTipoComision = relaciones.contains(TIPO_COMISION);
+        Set<String> idsTiposPrestamos = new HashSet<>();
+        Set<String> idsSeguros = new HashSet<>();
+        Set<String> idsTiposComisiones = new HashSet<>();
+
+        for (Prestamos prestamo : prestamos) {
+            if (conTipoPrestamo) {
+                agregarId(idsTiposPrestamos, prestamo.getIdTipoPrestamo());
+            }
+            if (conSeguro) {
+                agregarId(idsSeguros, prestamo.getIdSeguro());
+            }
+            if (conTipoComision) {
+                agregarId(idsTiposComisiones, prestamo.getIdTipoComision());
+            }
+        }
+
+        // Una sola consulta por colección relacionada, sin importar el número de préstamos
+        Map<String, TiposPrestamos> tiposPrestamos = indexarPorId(
+                this.tiposPrestamosService.findAllById(idsTiposPrestamos), TiposPrestamos::getId);
+        Map<String, Seguros> seguros = indexarPorId(
+                this.segurosService.findAllById(idsSeguros), Seguros::getId);
+        Map<String, TiposComisiones> tiposComisiones = indexarPorId(
+                this.tiposComisionesService.findAllById(idsTiposComisiones), TiposComisiones::getId);
+
+        Set<String> idsGarantias = new HashSet<>();
+        if (conGarantia) {
+            for (TiposPrestamos tipoPrestamo : tiposPrestamos.values()) {
+                agregarId(idsGarantias, tipoPrestamo.getIdGarantia());
+            }
+        }
+        Map<String, Garantias> garantias = indexarPorId(
+                this.garantiasService.findAllById(idsGarantias), Garantias::getId);
+
+        List<PrestamosDTO> resultado = new ArrayList<>(prestamos.size());
+        for (Prestamos prestamo : prestamos) {
+            try {
+                TiposPrestamos tipoPrestamo = tiposPrestamos.get(prestamo.getIdTipoPrestamo());
+                Garantias garantia = tipoPrestamo != null ? garantias.get(tipoPrestamo.getIdGarantia()) : null;
+                Seguros seguro = seguros.get(prestamo.getIdSeguro());
+                TiposComisiones tipoComision = tiposComisiones.get(prestamo.getIdTipoComision());
+
+                if (conTipoPrestamo && tipoPrestamo == null) {
+                    log.warn("Tipo de préstamo no encontrado para el préstamo {}: {}", prestamo.getId(),
+                            prestamo.getIdTipoPrestamo());
+                }
+                if (conSeguro && seguro == null) {
+                    log.warn("Seguro no encontrado para el préstamo {}: {}", prestamo.getId(), prestamo.getIdSeguro());
+                }
+                if (conTipoComision && tipoComision == null) {
+                    log.warn("Tipo de comisión no encontrado para el préstamo {}: {}", prestamo.getId(),
+                            prestamo.getIdTipoComision());
+                }
+
+                resultado.add(PrestamosMapper.mapToDTOWithRelations(prestamo, tipoPrestamo, garantia, seguro,
+                        tipoComision));
+            } catch (Exception e) {
+                log.error("Error al obtener detalles para el préstamo {}: {}", prestamo.getId(), e.getMessage());
+                // Si hay error, incluir la versión básica
+                resultado.add(PrestamosMapper.mapToDTO(prestamo));
+            }
+        }
+        return resultado;
+    }
+
+    private static void agregarId(Set<String> ids, String id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static <T> Map<String, T> indexarPorId(List<T> entidades, Function<T, String> id) {
+        Map<String, T> indice = new HashMap<>(entidades.size() * 2);
+        for (T entidad : entidades) {
+            indice.put(id.apply(entidad), entidad);
+        }
+        return indice;
+    }
+
+    private record TipoPrestamoConGarantia(TiposPrestamos tipoPrestamo, Garantias garantia) {
+    }
+}
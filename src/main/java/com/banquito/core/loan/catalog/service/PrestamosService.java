@@ -1,7 +1,11 @@
 package com.banquito.core.loan.catalog.service;
 
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
 import com.banquito.core.loan.catalog.enums.BaseCalculoEnum;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
 import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.enums.ResultadoBulkEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
@@ -12,29 +16,66 @@ import com.banquito.core.loan.catalog.model.TiposComisiones;
 import com.banquito.core.loan.catalog.model.TiposPrestamos;
 import com.banquito.core.loan.catalog.repository.PrestamosRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 public class PrestamosService {
 
+    private static final Set<String> CAMPOS_EDITABLES = Set.of("idTipoPrestamo", "idMoneda", "nombre",
+            "descripcion", "baseCalculo", "tasaInteres", "montoMinimo", "montoMaximo", "plazoMinimoMeses",
+            "plazoMaximoMeses", "tipoAmortizacion", "idSeguro", "idTipoComision");
+
     private final PrestamosRepository prestamosRepository;
     private final TiposPrestamosService tiposPrestamosService;
     private final SegurosService segurosService;
     private final TiposComisionesService tiposComisionesService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final MongoTemplate mongoTemplate;
+    private final List<Referencia> referencias;
 
     public PrestamosService(PrestamosRepository prestamosRepository,
             TiposPrestamosService tiposPrestamosService,
             SegurosService segurosService,
-            TiposComisionesService tiposComisionesService) {
+            TiposComisionesService tiposComisionesService,
+            CatalogoCambiosService catalogoCambiosService,
+            MongoTemplate mongoTemplate) {
         this.prestamosRepository = prestamosRepository;
         this.tiposPrestamosService = tiposPrestamosService;
         this.segurosService = segurosService;
         this.tiposComisionesService = tiposComisionesService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.mongoTemplate = mongoTemplate;
+        this.referencias = List.of(
+                new Referencia("idTipoPrestamo", Prestamos::getIdTipoPrestamo,
+                        estado(tiposPrestamosService::findById, TiposPrestamos::getEstado),
+                        "El tipo de préstamo especificado no existe", "El tipo de préstamo está inactivo"),
+                new Referencia("idSeguro", Prestamos::getIdSeguro,
+                        estado(segurosService::findById, Seguros::getEstado),
+                        "El seguro especificado no existe", "El seguro está inactivo"),
+                new Referencia("idTipoComision", Prestamos::getIdTipoComision,
+                        estado(tiposComisionesService::findById, TiposComisiones::getEstado),
+                        "El tipo de comisión especificado no existe", "El tipo de comisión está inactivo"));
     }
 
     @Transactional(readOnly = true)
@@ -43,6 +84,16 @@ public class PrestamosService {
         return this.prestamosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor());
     }
 
+    @Transactional(readOnly = true)
+    public List<Prestamos> findPage(String after, int limit) {
+        log.info("Obteniendo página de préstamos activos después de {} (límite {})", after, limit);
+        String estado = EstadoGeneralEnum.ACTIVO.getValor();
+        if (after == null) {
+            return this.prestamosRepository.findByEstadoOrderByIdAsc(estado, Limit.of(limit));
+        }
+        return this.prestamosRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Limit.of(limit));
+    }
+
     @Transactional(readOnly = true)
     public Prestamos findById(String id) {
         log.info("Buscando préstamo con ID: {}", id);
@@ -50,54 +101,47 @@ public class PrestamosService {
                 .orElseThrow(() -> new EntityNotFoundException("Préstamo", "No se encontró el préstamo con id: " + id));
     }
 
-    @Transactional
-    public Prestamos create(Prestamos prestamo) {
-        log.info("Creando nuevo préstamo: {}", prestamo);
-        try {
-            // Validar si el tipo de préstamo existe
-            TiposPrestamos tipoPrestamo;
-            try {
-                tipoPrestamo = this.tiposPrestamosService.findById(prestamo.getIdTipoPrestamo());
-                if (!EstadoGeneralEnum.ACTIVO.getValor().equals(tipoPrestamo.getEstado())) {
-                    throw new CreateException("Préstamo", "El tipo de préstamo está inactivo");
-                }
-            } catch (EntityNotFoundException e) {
-                throw new CreateException("Préstamo", "El tipo de préstamo especificado no existe");
-            }
+    @Transactional(readOnly = true)
+    public List<Prestamos> findAll(Set<String> campos) {
+        log.info("Obteniendo préstamos activos con los campos {}", campos);
+        return Proyecciones.activos(this.mongoTemplate, Prestamos.class, campos);
+    }
 
-            // Validar si el seguro existe
-            Seguros seguro;
-            try {
-                seguro = this.segurosService.findById(prestamo.getIdSeguro());
-                if (!EstadoGeneralEnum.ACTIVO.getValor().equals(seguro.getEstado())) {
-                    throw new CreateException("Préstamo", "El seguro está inactivo");
-                }
-            } catch (EntityNotFoundException e) {
-                throw new CreateException("Préstamo", "El seguro especificado no existe");
-            }
+    @Transactional(readOnly = true)
+    public List<Prestamos> findPage(String after, int limit, Set<String> campos) {
+        log.info("Obteniendo página de préstamos activos después de {} con los campos {}", after, campos);
+        return Proyecciones.pagina(this.mongoTemplate, Prestamos.class, after, limit, campos);
+    }
 
-            // Validar si el tipo de comisión existe
-            TiposComisiones tipoComision;
-            try {
-                tipoComision = this.tiposComisionesService.findById(prestamo.getIdTipoComision());
-                if (!EstadoGeneralEnum.ACTIVO.getValor().equals(tipoComision.getEstado())) {
-                    throw new CreateException("Préstamo", "El tipo de comisión está inactivo");
-                }
-            } catch (EntityNotFoundException e) {
-                throw new CreateException("Préstamo", "El tipo de comisión especificado no existe");
-            }
+    @Transactional(readOnly = true)
+    public Prestamos findById(String id, Set<String> campos) {
+        log.info("Buscando préstamo con ID {} y los campos {}", id, campos);
+        Prestamos prestamo = Proyecciones.porId(this.mongoTemplate, Prestamos.class, id, campos);
+        if (prestamo == null) {
+            throw new EntityNotFoundException("Préstamo", "No se encontró el préstamo con id: " + id);
+        }
+        return prestamo;
+    }
 
-            // Validar si la base de cálculo es válida
-            boolean baseCalculoValida = false;
-            for (BaseCalculoEnum baseCalculo : BaseCalculoEnum.values()) {
-                if (baseCalculo.getValor().equals(prestamo.getBaseCalculo())) {
-                    baseCalculoValida = true;
-                    break;
-                }
-            }
+    @Transactional(readOnly = true)
+    public List<Prestamos> findAllById(Collection<String> ids) {
+        log.info("Buscando {} préstamos por ID", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.prestamosRepository.findAllById(ids);
+    }
 
-            if (!baseCalculoValida) {
-                throw new CreateException("Préstamo", "La base de cálculo no es válida");
+    @Transactional
+    public Prestamos create(Prestamos prestamo) {
+        log.info("Creando nuevo préstamo: {}", prestamo);
+        try {
+            String error = validar(prestamo, null,
+                    porId(this.tiposPrestamosService::findById),
+                    porId(this.segurosService::findById),
+                    porId(this.tiposComisionesService::findById));
+            if (error != null) {
+                throw new CreateException("Préstamo", error);
             }
 
             // Setear fechas y estado
@@ -105,7 +149,9 @@ public class PrestamosService {
             prestamo.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
             prestamo.setVersion(1L);
 
-            return this.prestamosRepository.save(prestamo);
+            Prestamos savedPrestamo = this.prestamosRepository.save(prestamo);
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.PRESTAMOS, savedPrestamo.getId());
+            return savedPrestamo;
         } catch (CreateException e) {
             throw e;
         } catch (Exception e) {
@@ -118,101 +164,342 @@ public class PrestamosService {
     public Prestamos update(String id, Prestamos prestamo) {
         log.info("Actualizando préstamo con ID {}: {}", id, prestamo);
         try {
-            Prestamos prestamoExistente = this.findById(id);
-
-            // Validar si el tipo de préstamo existe
-            if (!prestamoExistente.getIdTipoPrestamo().equals(prestamo.getIdTipoPrestamo())) {
-                TiposPrestamos tipoPrestamo;
-                try {
-                    tipoPrestamo = this.tiposPrestamosService.findById(prestamo.getIdTipoPrestamo());
-                    if (!EstadoGeneralEnum.ACTIVO.getValor().equals(tipoPrestamo.getEstado())) {
-                        throw new UpdateException("Préstamo", "El tipo de préstamo está inactivo");
-                    }
-                } catch (EntityNotFoundException e) {
-                    throw new UpdateException("Préstamo", "El tipo de préstamo especificado no existe");
-                }
+            // Sin lectura previa: la versión indicada y las referencias inactivas que no deben cambiar se
+            // exigen en el filtro del findAndModify
+            Criteria condicion = EscriturasAtomicas.condicion(id, prestamo.getVersion());
+            Map<String, Object> referenciasPrestamo = referenciasDe(prestamo);
+            String error = this.validarReferencias(referenciasPrestamo, condicion);
+            if (error == null && !baseCalculoValida(prestamo.getBaseCalculo())) {
+                error = "La base de cálculo no es válida";
             }
-
-            // Validar si el seguro existe
-            if (!prestamoExistente.getIdSeguro().equals(prestamo.getIdSeguro())) {
-                Seguros seguro;
-                try {
-                    seguro = this.segurosService.findById(prestamo.getIdSeguro());
-                    if (!EstadoGeneralEnum.ACTIVO.getValor().equals(seguro.getEstado())) {
-                        throw new UpdateException("Préstamo", "El seguro está inactivo");
-                    }
-                } catch (EntityNotFoundException e) {
-                    throw new UpdateException("Préstamo", "El seguro especificado no existe");
-                }
+            if (error != null) {
+                throw new UpdateException("Préstamo", error);
             }
 
-            // Validar si el tipo de comisión existe
-            if (!prestamoExistente.getIdTipoComision().equals(prestamo.getIdTipoComision())) {
-                TiposComisiones tipoComision;
-                try {
-                    tipoComision = this.tiposComisionesService.findById(prestamo.getIdTipoComision());
-                    if (!EstadoGeneralEnum.ACTIVO.getValor().equals(tipoComision.getEstado())) {
-                        throw new UpdateException("Préstamo", "El tipo de comisión está inactivo");
-                    }
-                } catch (EntityNotFoundException e) {
-                    throw new UpdateException("Préstamo", "El tipo de comisión especificado no existe");
-                }
+            Prestamos prestamoActualizado = EscriturasAtomicas.modificar(this.mongoTemplate, Prestamos.class,
+                    condicion, camposActualizables(prestamo)
+                            .set("fechaModificacion", LocalDateTime.now())
+                            .inc("version", 1));
+            if (prestamoActualizado == null) {
+                throw this.falloActualizacion(id, referenciasPrestamo, prestamo.getVersion());
             }
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.PRESTAMOS, prestamoActualizado.getId());
+            return prestamoActualizado;
+        } catch (EntityNotFoundException | UpdateException | ConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al actualizar préstamo: {}", e.getMessage());
+            throw new UpdateException("Préstamo", "Error al actualizar préstamo: " + e.getMessage());
+        }
+    }
 
-            // Validar si la base de cálculo es válida
-            boolean baseCalculoValida = false;
-            for (BaseCalculoEnum baseCalculo : BaseCalculoEnum.values()) {
-                if (baseCalculo.getValor().equals(prestamo.getBaseCalculo())) {
-                    baseCalculoValida = true;
-                    break;
-                }
+    // Solo los campos recibidos se escriben con $set y solo se validan las referencias incluidas en el parche
+    @Transactional
+    public Prestamos patch(String id, Map<String, Object> cambios, Long version) {
+        log.info("Actualizando parcialmente el préstamo con ID {}: {}", id, cambios.keySet());
+        if (cambios.isEmpty()) {
+            return this.findById(id);
+        }
+        try {
+            String campo = EscriturasAtomicas.campoNoEditable(cambios, CAMPOS_EDITABLES);
+            if (campo != null) {
+                throw new UpdateException("Préstamo", "El campo " + campo + " no se puede modificar");
+            }
+            Criteria condicion = EscriturasAtomicas.condicion(id, version);
+            String error = this.validarReferencias(cambios, condicion);
+            if (error == null && cambios.containsKey("baseCalculo")
+                    && !baseCalculoValida((String) cambios.get("baseCalculo"))) {
+                error = "La base de cálculo no es válida";
+            }
+            if (error != null) {
+                throw new UpdateException("Préstamo", error);
             }
 
-            if (!baseCalculoValida) {
-                throw new UpdateException("Préstamo", "La base de cálculo no es válida");
-            }
-
-            // Actualizar campos
-            prestamoExistente.setIdTipoPrestamo(prestamo.getIdTipoPrestamo());
-            prestamoExistente.setIdMoneda(prestamo.getIdMoneda());
-            prestamoExistente.setNombre(prestamo.getNombre());
-            prestamoExistente.setDescripcion(prestamo.getDescripcion());
-            prestamoExistente.setBaseCalculo(prestamo.getBaseCalculo());
-            prestamoExistente.setTasaInteres(prestamo.getTasaInteres());
-            prestamoExistente.setMontoMinimo(prestamo.getMontoMinimo());
-            prestamoExistente.setMontoMaximo(prestamo.getMontoMaximo());
-            prestamoExistente.setPlazoMinimoMeses(prestamo.getPlazoMinimoMeses());
-            prestamoExistente.setPlazoMaximoMeses(prestamo.getPlazoMaximoMeses());
-            prestamoExistente.setTipoAmortizacion(prestamo.getTipoAmortizacion());
-            prestamoExistente.setIdSeguro(prestamo.getIdSeguro());
-            prestamoExistente.setIdTipoComision(prestamo.getIdTipoComision());
-            prestamoExistente.setFechaModificacion(LocalDateTime.now());
-            prestamoExistente.setVersion(prestamoExistente.getVersion() + 1);
-
-            return this.prestamosRepository.save(prestamoExistente);
-        } catch (EntityNotFoundException | UpdateException e) {
+            Prestamos prestamoActualizado = EscriturasAtomicas.modificar(this.mongoTemplate, Prestamos.class,
+                    condicion, EscriturasAtomicas.parche(cambios)
+                            .set("fechaModificacion", LocalDateTime.now())
+                            .inc("version", 1));
+            if (prestamoActualizado == null) {
+                throw this.falloActualizacion(id, cambios, version);
+            }
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.PRESTAMOS, prestamoActualizado.getId());
+            return prestamoActualizado;
+        } catch (EntityNotFoundException | UpdateException | ConflictException e) {
             throw e;
         } catch (Exception e) {
-            log.error("Error al actualizar préstamo: {}", e.getMessage());
+            log.error("Error al actualizar parcialmente préstamo: {}", e.getMessage());
             throw new UpdateException("Préstamo", "Error al actualizar préstamo: " + e.getMessage());
         }
     }
 
     @Transactional
-    public void delete(String id) {
+    public void delete(String id, Long version) {
         log.info("Eliminando lógicamente el préstamo con ID: {}", id);
         try {
-            Prestamos prestamo = this.findById(id);
-            prestamo.setEstado(EstadoGeneralEnum.INACTIVO.getValor());
-            prestamo.setFechaModificacion(LocalDateTime.now());
-            prestamo.setVersion(prestamo.getVersion() + 1);
-
-            this.prestamosRepository.save(prestamo);
-        } catch (EntityNotFoundException e) {
+            EscriturasAtomicas.modificar(this.mongoTemplate, Prestamos.class, id, version,
+                    OperacionesBulk.desactivacion(), "Préstamo", "No se encontró el préstamo con id: ");
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.PRESTAMOS, id);
+        } catch (EntityNotFoundException | ConflictException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al eliminar préstamo: {}", e.getMessage());
             throw new DeleteException("Préstamo", "Error al eliminar préstamo: " + e.getMessage());
         }
     }
+
+    @Transactional
+    public List<ResultadoBulkDTO> createBulk(List<Prestamos> prestamos) {
+        log.info("Creando {} préstamos en lote", prestamos.size());
+        Referencias referencias = this.cargarReferencias(prestamos);
+        BulkOperations operaciones = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prestamos.class);
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(prestamos.size());
+        List<Integer> indices = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < prestamos.size(); i++) {
+            Prestamos prestamo = prestamos.get(i);
+            String error = validar(prestamo, null, referencias.tiposPrestamos()::get, referencias.seguros()::get,
+                    referencias.tiposComisiones()::get);
+            if (error != null) {
+                resultados.add(OperacionesBulk.error(i, null, error));
+            } else {
+                // El id se asigna antes del envío para poder informarlo en el resultado de cada elemento
+                prestamo.setId(new ObjectId().toHexString());
+                prestamo.setFechaModificacion(now);
+                prestamo.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+                prestamo.setVersion(1L);
+                operaciones.insert(prestamo);
+                indices.add(i);
+                ids.add(prestamo.getId());
+            }
+        }
+
+        resultados.addAll(OperacionesBulk.ejecutar(operaciones, indices, ids, ResultadoBulkEnum.CREADO));
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService, ColeccionCatalogoEnum.PRESTAMOS);
+    }
+
+    @Transactional
+    public List<ResultadoBulkDTO> updateBulk(List<Prestamos> prestamos) {
+        log.info("Actualizando {} préstamos en lote", prestamos.size());
+        Map<String, Prestamos> existentes = OperacionesBulk.indexarPorId(
+                this.prestamosRepository.findAllById(OperacionesBulk.ids(prestamos, Prestamos::getId)),
+                Prestamos::getId);
+        Referencias referencias = this.cargarReferencias(prestamos);
+        BulkOperations operaciones = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prestamos.class);
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(prestamos.size());
+        List<Integer> indices = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        List<Long> versiones = new ArrayList<>();
+        Set<String> procesados = new HashSet<>();
+        // Se guarda con precisión de milisegundos, la misma con la que se relee para detectar conflictos
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        for (int i = 0; i < prestamos.size(); i++) {
+            Prestamos prestamo = prestamos.get(i);
+            Prestamos prestamoExistente = existentes.get(prestamo.getId());
+            String error;
+            if (prestamo.getId() == null) {
+                error = "El id es requerido";
+            } else if (prestamoExistente == null) {
+                error = "No se encontró el préstamo con id: " + prestamo.getId();
+            } else if (!procesados.add(prestamo.getId())) {
+                error = "El préstamo está repetido en la solicitud";
+            } else {
+                error = validar(prestamo, prestamoExistente, referencias.tiposPrestamos()::get,
+                        referencias.seguros()::get, referencias.tiposComisiones()::get);
+            }
+
+            if (error != null) {
+                resultados.add(OperacionesBulk.error(i, prestamo.getId(), error));
+            } else if (prestamo.getVersion() != null
+                    && !prestamo.getVersion().equals(prestamoExistente.getVersion())) {
+                resultados.add(OperacionesBulk.conflicto(i, prestamo.getId(), prestamo.getVersion()));
+            } else {
+                // La validación se hizo sobre la versión leída: el updateOne solo aplica si sigue vigente
+                operaciones.updateOne(Query.query(EscriturasAtomicas.condicion(prestamoExistente.getId(),
+                        prestamoExistente.getVersion())), camposActualizables(prestamo)
+                                .set("fechaModificacion", now)
+                                .inc("version", 1));
+                indices.add(i);
+                ids.add(prestamoExistente.getId());
+                versiones.add(prestamoExistente.getVersion());
+            }
+        }
+
+        resultados.addAll(OperacionesBulk.ejecutarCondicional(this.mongoTemplate, Prestamos.class,
+                Prestamos::getId, Prestamos::getVersion, operaciones, indices, ids, versiones, now));
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService, ColeccionCatalogoEnum.PRESTAMOS);
+    }
+
+    @Transactional
+    public List<ResultadoBulkDTO> deleteBulk(List<String> ids) {
+        log.info("Eliminando lógicamente {} préstamos en lote", ids.size());
+        List<ResultadoBulkDTO> resultados = OperacionesBulk.desactivar(this.mongoTemplate, Prestamos.class,
+                Prestamos::getId, ids, OperacionesBulk.desactivacion(),
+                "No se encontró el préstamo con id: ");
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService, ColeccionCatalogoEnum.PRESTAMOS);
+    }
+
+    // Una consulta $in por colección referenciada, sin importar el número de préstamos del lote
+    private Referencias cargarReferencias(List<Prestamos> prestamos) {
+        return new Referencias(
+                OperacionesBulk.indexarPorId(this.tiposPrestamosService.findAllById(
+                        OperacionesBulk.ids(prestamos, Prestamos::getIdTipoPrestamo)), TiposPrestamos::getId),
+                OperacionesBulk.indexarPorId(this.segurosService.findAllById(
+                        OperacionesBulk.ids(prestamos, Prestamos::getIdSeguro)), Seguros::getId),
+                OperacionesBulk.indexarPorId(this.tiposComisionesService.findAllById(
+                        OperacionesBulk.ids(prestamos, Prestamos::getIdTipoComision)), TiposComisiones::getId));
+    }
+
+    // Una referencia activa siempre es válida; una inactiva solo si no cambia, condición que se agrega al filtro
+    // de la actualización en lugar de leer antes el préstamo. Solo se revisan las referencias presentes en
+    // valores; las búsquedas por id salen de la caché.
+    private String validarReferencias(Map<String, ?> valores, Criteria condicion) {
+        for (Referencia referencia : this.referencias) {
+            if (!valores.containsKey(referencia.campo())) {
+                continue;
+            }
+            String valor = (String) valores.get(referencia.campo());
+            String estado = valor != null ? referencia.estado().apply(valor) : null;
+            if (estado == null) {
+                return referencia.noExiste();
+            }
+            exigirSiInactiva(condicion, referencia.campo(), valor, estado);
+        }
+        return null;
+    }
+
+    private static void exigirSiInactiva(Criteria condicion, String campo, String valor, String estado) {
+        if (!EstadoGeneralEnum.ACTIVO.getValor().equals(estado)) {
+            condicion.and(campo).is(valor);
+        }
+    }
+
+    // Ningún documento cumplió el filtro: se lee una sola vez para informar la causa
+    private RuntimeException falloActualizacion(String id, Map<String, ?> valores, Long version) {
+        Prestamos prestamoExistente = this.prestamosRepository.findById(id).orElse(null);
+        if (prestamoExistente == null) {
+            return new EntityNotFoundException("Préstamo", "No se encontró el préstamo con id: " + id);
+        }
+        if (version != null && !version.equals(prestamoExistente.getVersion())) {
+            return EscriturasAtomicas.conflicto("Préstamo", id, version);
+        }
+        for (Referencia referencia : this.referencias) {
+            Object valor = valores.get(referencia.campo());
+            if (valores.containsKey(referencia.campo())
+                    && !Objects.equals(valor, referencia.actual().apply(prestamoExistente))) {
+                String estado = valor != null ? referencia.estado().apply((String) valor) : null;
+                if (estado == null) {
+                    return new UpdateException("Préstamo", referencia.noExiste());
+                }
+                if (!EstadoGeneralEnum.ACTIVO.getValor().equals(estado)) {
+                    return new UpdateException("Préstamo", referencia.inactiva());
+                }
+            }
+        }
+        return EscriturasAtomicas.conflicto("Préstamo", id, version);
+    }
+
+    private static Map<String, Object> referenciasDe(Prestamos prestamo) {
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("idTipoPrestamo", prestamo.getIdTipoPrestamo());
+        valores.put("idSeguro", prestamo.getIdSeguro());
+        valores.put("idTipoComision", prestamo.getIdTipoComision());
+        return valores;
+    }
+
+    // Devuelve el primer error de validación o null. Al actualizar solo se validan las referencias que cambian.
+    private static String validar(Prestamos prestamo, Prestamos prestamoExistente,
+            Function<String, TiposPrestamos> tiposPrestamos, Function<String, Seguros> seguros,
+            Function<String, TiposComisiones> tiposComisiones) {
+        // Validar si el tipo de préstamo existe
+        if (prestamoExistente == null || !prestamoExistente.getIdTipoPrestamo().equals(prestamo.getIdTipoPrestamo())) {
+            TiposPrestamos tipoPrestamo = tiposPrestamos.apply(prestamo.getIdTipoPrestamo());
+            if (tipoPrestamo == null) {
+                return "El tipo de préstamo especificado no existe";
+            }
+            if (!EstadoGeneralEnum.ACTIVO.getValor().equals(tipoPrestamo.getEstado())) {
+                return "El tipo de préstamo está inactivo";
+            }
+        }
+
+        // Validar si el seguro existe
+        if (prestamoExistente == null || !prestamoExistente.getIdSeguro().equals(prestamo.getIdSeguro())) {
+            Seguros seguro = seguros.apply(prestamo.getIdSeguro());
+            if (seguro == null) {
+                return "El seguro especificado no existe";
+            }
+            if (!EstadoGeneralEnum.ACTIVO.getValor().equals(seguro.getEstado())) {
+                return "El seguro está inactivo";
+            }
+        }
+
+        // Validar si el tipo de comisión existe
+        if (prestamoExistente == null || !prestamoExistente.getIdTipoComision().equals(prestamo.getIdTipoComision())) {
+            TiposComisiones tipoComision = tiposComisiones.apply(prestamo.getIdTipoComision());
+            if (tipoComision == null) {
+                return "El tipo de comisión especificado no existe";
+            }
+            if (!EstadoGeneralEnum.ACTIVO.getValor().equals(tipoComision.getEstado())) {
+                return "El tipo de comisión está inactivo";
+            }
+        }
+
+        // Validar si la base de cálculo es válida
+        return baseCalculoValida(prestamo.getBaseCalculo()) ? null : "La base de cálculo no es válida";
+    }
+
+    private static boolean baseCalculoValida(String valor) {
+        for (BaseCalculoEnum baseCalculo : BaseCalculoEnum.values()) {
+            if (baseCalculo.getValor().equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> Function<String, T> porId(Function<String, T> busqueda) {
+        return id -> {
+            try {
+                return busqueda.apply(id);
+            } catch (EntityNotFoundException e) {
+                return null;
+            }
+        };
+    }
+
+    // Estado del referenciado por id, o null si no existe
+    private static <T> Function<String, String> estado(Function<String, T> busqueda, Function<T, String> estado) {
+        Function<String, T> referenciado = porId(busqueda);
+        return id -> {
+            T entidad = referenciado.apply(id);
+            return entidad != null ? estado.apply(entidad) : null;
+        };
+    }
+
+    private static Update camposActualizables(Prestamos prestamo) {
+        return new Update()
+                .set("idTipoPrestamo", prestamo.getIdTipoPrestamo())
+                .set("idMoneda", prestamo.getIdMoneda())
+                .set("nombre", prestamo.getNombre())
+                .set("descripcion", prestamo.getDescripcion())
+                .set("baseCalculo", prestamo.getBaseCalculo())
+                .set("tasaInteres", prestamo.getTasaInteres())
+                .set("montoMinimo", prestamo.getMontoMinimo())
+                .set("montoMaximo", prestamo.getMontoMaximo())
+                .set("plazoMinimoMeses", prestamo.getPlazoMinimoMeses())
+                .set("plazoMaximoMeses", prestamo.getPlazoMaximoMeses())
+                .set("tipoAmortizacion", prestamo.getTipoAmortizacion())
+                .set("idSeguro", prestamo.getIdSeguro())
+                .set("idTipoComision", prestamo.getIdTipoComision());
+    }
+
+    private record Referencia(String campo, Function<Prestamos, String> actual, Function<String, String> estado,
+            String noExiste, String inactiva) {
+    }
+
+    private record Referencias(Map<String, TiposPrestamos> tiposPrestamos, Map<String, Seguros> seguros,
+            Map<String, TiposComisiones> tiposComisiones) {
+    }
 }
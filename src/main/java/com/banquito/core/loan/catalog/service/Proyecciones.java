@@ -0,0 +1,50 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Set;
+
+// Lecturas con proyección: la consulta lleva la lista de campos pedidos y MongoDB solo devuelve esos campos,
+// el resto queda en null en la entidad. No pasan por la caché, que guarda los documentos completos.
+final class Proyecciones {
+
+    private Proyecciones() {
+    }
+
+    static <T> List<T> activos(MongoTemplate mongoTemplate, Class<T> tipo, Set<String> campos) {
+        return mongoTemplate.find(incluir(Query.query(activo()), campos), tipo);
+    }
+
+    // Misma paginación por cursor que findByEstadoAndIdGreaterThanOrderByIdAsc
+    static <T> List<T> pagina(MongoTemplate mongoTemplate, Class<T> tipo, String after, int limit,
+            Set<String> campos) {
+        Criteria criteria = activo();
+        if (after != null) {
+            criteria.and("_id").gt(after);
+        }
+        Query query = incluir(Query.query(criteria), campos)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limit);
+        return mongoTemplate.find(query, tipo);
+    }
+
+    static <T> T porId(MongoTemplate mongoTemplate, Class<T> tipo, String id, Set<String> campos) {
+        return mongoTemplate.findOne(incluir(Query.query(Criteria.where("_id").is(id)), campos), tipo);
+    }
+
+    private static Criteria activo() {
+        return Criteria.where("estado").is(EstadoGeneralEnum.ACTIVO.getValor());
+    }
+
+    private static Query incluir(Query query, Set<String> campos) {
+        // La versión se lee siempre: forma parte del ETag de la respuesta
+        query.fields().include("_id", "version");
+        campos.forEach(campo -> query.fields().include(campo));
+        return query;
+    }
+}
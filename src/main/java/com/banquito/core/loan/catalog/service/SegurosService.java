@@ -1,34 +1,72 @@
 package com.banquito.core.loan.catalog.service;
 
+import com.banquito.core.loan.catalog.config.CacheConfig;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
 import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.enums.ResultadoBulkEnum;
 import com.banquito.core.loan.catalog.enums.TipoSeguroEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.UpdateException;
 import com.banquito.core.loan.catalog.model.Seguros;
 import com.banquito.core.loan.catalog.repository.SegurosRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class SegurosService {
 
+    private static final Set<String> CAMPOS_EDITABLES = Set.of("tipoSeguro", "compania", "montoAsegurado",
+            "fechaInicio", "fechaFin");
+
     private final SegurosRepository segurosRepository;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final MongoTemplate mongoTemplate;
 
-    public SegurosService(SegurosRepository segurosRepository) {
+    public SegurosService(SegurosRepository segurosRepository,
+            CatalogoCambiosService catalogoCambiosService, MongoTemplate mongoTemplate) {
         this.segurosRepository = segurosRepository;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.mongoTemplate = mongoTemplate;
     }
 
+    @Cacheable(CacheConfig.SEGUROS_ACTIVOS)
     @Transactional(readOnly = true)
     public List<Seguros> findAll() {
         log.info("Obteniendo todos los seguros activos");
-        return this.segurosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        return List.copyOf(this.segurosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor()));
     }
 
+    @Transactional(readOnly = true)
+    public List<Seguros> findPage(String after, int limit) {
+        log.info("Obteniendo página de seguros activos después de {} (límite {})", after, limit);
+        String estado = EstadoGeneralEnum.ACTIVO.getValor();
+        if (after == null) {
+            return this.segurosRepository.findByEstadoOrderByIdAsc(estado, Limit.of(limit));
+        }
+        return this.segurosRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Limit.of(limit));
+    }
+
+    @Cacheable(CacheConfig.SEGUROS)
     @Transactional(readOnly = true)
     public Seguros findById(String id) {
         log.info("Buscando seguro con ID: {}", id);
@@ -36,47 +74,164 @@ public class SegurosService {
                 .orElseThrow(() -> new EntityNotFoundException("Seguro", "No se encontró el seguro con id: " + id));
     }
 
+    @Transactional(readOnly = true)
+    public List<Seguros> findAll(Set<String> campos) {
+        log.info("Obteniendo seguros activos con los campos {}", campos);
+        return Proyecciones.activos(this.mongoTemplate, Seguros.class, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Seguros> findPage(String after, int limit, Set<String> campos) {
+        log.info("Obteniendo página de seguros activos después de {} con los campos {}", after, campos);
+        return Proyecciones.pagina(this.mongoTemplate, Seguros.class, after, limit, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public Seguros findById(String id, Set<String> campos) {
+        log.info("Buscando seguro con ID {} y los campos {}", id, campos);
+        Seguros seguro = Proyecciones.porId(this.mongoTemplate, Seguros.class, id, campos);
+        if (seguro == null) {
+            throw new EntityNotFoundException("Seguro", "No se encontró el seguro con id: " + id);
+        }
+        return seguro;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Seguros> findAllById(Collection<String> ids) {
+        log.info("Buscando {} seguros por ID", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.segurosRepository.findAllById(ids);
+    }
+
+    @CacheEvict(value = CacheConfig.SEGUROS_ACTIVOS, allEntries = true)
     @Transactional
     public Seguros create(Seguros seguro) {
         log.info("Creando nuevo seguro: {}", seguro);
         try {
-            // Validar si el tipo de seguro es válido
-            boolean tipoValido = false;
-            for (TipoSeguroEnum tipo : TipoSeguroEnum.values()) {
-                if (tipo.getValor().equals(seguro.getTipoSeguro())) {
-                    tipoValido = true;
-                    break;
-                }
-            }
-
-            if (!tipoValido) {
-                throw new CreateException("Seguro", "El tipo de seguro no es válido");
+            String error = validar(seguro);
+            if (error != null) {
+                throw new CreateException("Seguro", error);
             }
 
+            seguro.setFechaModificacion(LocalDateTime.now());
             seguro.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
             seguro.setVersion(1L);
 
-            return this.segurosRepository.save(seguro);
+            Seguros savedSeguro = this.segurosRepository.save(seguro);
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.SEGUROS, savedSeguro.getId());
+            return savedSeguro;
         } catch (Exception e) {
             log.error("Error al crear seguro: {}", e.getMessage());
             throw new CreateException("Seguro", "Error al crear seguro: " + e.getMessage());
         }
     }
 
+    // Solo los campos recibidos se escriben con $set
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.SEGUROS, key = "#id"),
+            @CacheEvict(value = CacheConfig.SEGUROS_ACTIVOS, allEntries = true)
+    })
     @Transactional
-    public void delete(String id) {
-        log.info("Eliminando lógicamente el seguro con ID: {}", id);
+    public Seguros patch(String id, Map<String, Object> cambios, Long version) {
+        log.info("Actualizando parcialmente el seguro con ID {}: {}", id, cambios.keySet());
+        if (cambios.isEmpty()) {
+            return this.findById(id);
+        }
         try {
-            Seguros seguro = this.findById(id);
-            seguro.setEstado(EstadoGeneralEnum.INACTIVO.getValor());
-            seguro.setVersion(seguro.getVersion() + 1);
+            String campo = EscriturasAtomicas.campoNoEditable(cambios, CAMPOS_EDITABLES);
+            if (campo != null) {
+                throw new UpdateException("Seguro", "El campo " + campo + " no se puede modificar");
+            }
+            if (cambios.containsKey("tipoSeguro") && !tipoSeguroValido((String) cambios.get("tipoSeguro"))) {
+                throw new UpdateException("Seguro", "El tipo de seguro no es válido");
+            }
 
-            this.segurosRepository.save(seguro);
-        } catch (EntityNotFoundException e) {
+            Seguros seguroActualizado = EscriturasAtomicas.modificar(this.mongoTemplate, Seguros.class, id, version,
+                    EscriturasAtomicas.parche(cambios)
+                            .set("fechaModificacion", LocalDateTime.now())
+                            .inc("version", 1), "Seguro",
+                    "No se encontró el seguro con id: ");
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.SEGUROS, id);
+            return seguroActualizado;
+        } catch (EntityNotFoundException | UpdateException | ConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al actualizar parcialmente seguro: {}", e.getMessage());
+            throw new UpdateException("Seguro", "Error al actualizar seguro: " + e.getMessage());
+        }
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.SEGUROS, key = "#id"),
+            @CacheEvict(value = CacheConfig.SEGUROS_ACTIVOS, allEntries = true)
+    })
+    @Transactional
+    public void delete(String id, Long version) {
+        log.info("Eliminando lógicamente el seguro con ID: {}", id);
+        try {
+            EscriturasAtomicas.modificar(this.mongoTemplate, Seguros.class, id, version,
+                    OperacionesBulk.desactivacion(), "Seguro", "No se encontró el seguro con id: ");
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.SEGUROS, id);
+        } catch (EntityNotFoundException | ConflictException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al eliminar seguro: {}", e.getMessage());
             throw new DeleteException("Seguro", "Error al eliminar seguro: " + e.getMessage());
         }
     }
+
+    @Transactional
+    public List<ResultadoBulkDTO> createBulk(List<Seguros> seguros) {
+        log.info("Creando {} seguros en lote", seguros.size());
+        BulkOperations operaciones = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Seguros.class);
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(seguros.size());
+        List<Integer> indices = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < seguros.size(); i++) {
+            Seguros seguro = seguros.get(i);
+            String error = validar(seguro);
+            if (error != null) {
+                resultados.add(OperacionesBulk.error(i, null, error));
+            } else {
+                // El id se asigna antes del envío para poder informarlo en el resultado de cada elemento
+                seguro.setId(new ObjectId().toHexString());
+                seguro.setFechaModificacion(now);
+                seguro.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+                seguro.setVersion(1L);
+                operaciones.insert(seguro);
+                indices.add(i);
+                ids.add(seguro.getId());
+            }
+        }
+
+        resultados.addAll(OperacionesBulk.ejecutar(operaciones, indices, ids, ResultadoBulkEnum.CREADO));
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService, ColeccionCatalogoEnum.SEGUROS);
+    }
+
+    @Transactional
+    public List<ResultadoBulkDTO> deleteBulk(List<String> ids) {
+        log.info("Eliminando lógicamente {} seguros en lote", ids.size());
+        List<ResultadoBulkDTO> resultados = OperacionesBulk.desactivar(this.mongoTemplate, Seguros.class,
+                Seguros::getId, ids, OperacionesBulk.desactivacion(), "No se encontró el seguro con id: ");
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService, ColeccionCatalogoEnum.SEGUROS);
+    }
+
+    // Devuelve el error de validación o null
+    private static String validar(Seguros seguro) {
+        // Validar si el tipo de seguro es válido
+        return tipoSeguroValido(seguro.getTipoSeguro()) ? null : "El tipo de seguro no es válido";
+    }
+
+    private static boolean tipoSeguroValido(String valor) {
+        for (TipoSeguroEnum tipo : TipoSeguroEnum.values()) {
+            if (tipo.getValor().equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
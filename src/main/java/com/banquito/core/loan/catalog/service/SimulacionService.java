@@ -0,0 +1,104 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.ResultadoSimulacionDTO;
+import com.banquito.core.loan.catalog.dto.SimulacionDTO;
+import com.banquito.core.loan.catalog.exception.SimulacionException;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+// Simulación masiva de cuotas: los productos del lote se leen con una sola consulta y los escenarios se
+// calculan en paralelo sobre el ForkJoinPool común; cada escenario es independiente y solo lee el mapa de
+// productos, por lo que no hay estado compartido mutable.
+@Slf4j
+@Service
+public class SimulacionService {
+
+    private final PrestamosService prestamosService;
+    private final AmortizacionService amortizacionService;
+    private final int maximoEscenarios;
+    private final int umbralParalelo;
+
+    public SimulacionService(PrestamosService prestamosService, AmortizacionService amortizacionService,
+            @Value("${catalogo.simulaciones.maximo-escenarios:10000}") int maximoEscenarios,
+            @Value("${catalogo.simulaciones.umbral-paralelo:64}") int umbralParalelo) {
+        this.prestamosService = prestamosService;
+        this.amortizacionService = amortizacionService;
+        this.maximoEscenarios = maximoEscenarios;
+        this.umbralParalelo = umbralParalelo;
+    }
+
+    public List<ResultadoSimulacionDTO> simular(List<SimulacionDTO> escenarios) {
+        if (escenarios == null || escenarios.isEmpty() || escenarios.size() > this.maximoEscenarios) {
+            throw new SimulacionException("Préstamo",
+                    "El lote debe tener entre 1 y " + this.maximoEscenarios + " escenarios");
+        }
+        log.info("Simulando {} escenarios", escenarios.size());
+
+        Set<String> ids = new HashSet<>();
+        for (SimulacionDTO escenario : escenarios) {
+            if (escenario != null && escenario.getIdPrestamo() != null) {
+                ids.add(escenario.getIdPrestamo());
+            }
+        }
+        Map<String, Prestamos> prestamos = OperacionesBulk.indexarPorId(this.prestamosService.findAllById(ids),
+                Prestamos::getId);
+        // Una sola fecha de referencia para todo el lote
+        LocalDate hoy = LocalDate.now();
+
+        IntStream indices = IntStream.range(0, escenarios.size());
+        if (escenarios.size() >= this.umbralParalelo) {
+            indices = indices.parallel();
+        }
+        return indices
+                .mapToObj(i -> this.simular(i, escenarios.get(i), prestamos, hoy))
+                .toList();
+    }
+
+    private ResultadoSimulacionDTO simular(int indice, SimulacionDTO escenario, Map<String, Prestamos> prestamos,
+            LocalDate hoy) {
+        if (escenario == null) {
+            return error(indice, null, "El escenario es requerido");
+        }
+        Prestamos prestamo = prestamos.get(escenario.getIdPrestamo());
+        if (prestamo == null) {
+            return error(indice, escenario, "No se encontró el préstamo con id: " + escenario.getIdPrestamo());
+        }
+        if (escenario.getPlazo() == null) {
+            return error(indice, escenario, "El plazo es requerido");
+        }
+        try {
+            AmortizacionService.Tabla tabla = this.amortizacionService.resumir(prestamo, escenario.getMonto(),
+                    escenario.getPlazo(), escenario.getFechaInicio() != null ? escenario.getFechaInicio() : hoy);
+            return ResultadoSimulacionDTO.builder()
+                    .indice(indice)
+                    .idPrestamo(prestamo.getId())
+                    .monto(escenario.getMonto())
+                    .plazo(escenario.getPlazo())
+                    .cuota(AmortizacionService.aMonto(tabla.cuotaFija))
+                    .totalIntereses(AmortizacionService.aMonto(tabla.totalIntereses))
+                    .costoTotal(AmortizacionService.aMonto(tabla.totalPagado))
+                    .build();
+        } catch (SimulacionException | ArithmeticException e) {
+            return error(indice, escenario, e.getMessage());
+        }
+    }
+
+    private static ResultadoSimulacionDTO error(int indice, SimulacionDTO escenario, String mensaje) {
+        return ResultadoSimulacionDTO.builder()
+                .indice(indice)
+                .idPrestamo(escenario != null ? escenario.getIdPrestamo() : null)
+                .monto(escenario != null ? escenario.getMonto() : null)
+                .plazo(escenario != null ? escenario.getPlazo() : null)
+                .error(mensaje)
+                .build();
+    }
+}
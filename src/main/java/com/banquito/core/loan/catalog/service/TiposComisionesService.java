@@ -1,35 +1,72 @@
 package com.banquito.core.loan.catalog.service;
 
+import com.banquito.core.loan.catalog.config.CacheConfig;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
 import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.enums.ResultadoBulkEnum;
 import com.banquito.core.loan.catalog.enums.TipoCalculoComisionEnum;
 import com.banquito.core.loan.catalog.enums.TipoComisionEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.exception.UpdateException;
 import com.banquito.core.loan.catalog.model.TiposComisiones;
 import com.banquito.core.loan.catalog.repository.TiposComisionesRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class TiposComisionesService {
 
+    private static final Set<String> CAMPOS_EDITABLES = Set.of("tipo", "nombre", "descripcion", "tipoCalculo", "monto");
+
     private final TiposComisionesRepository tiposComisionesRepository;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final MongoTemplate mongoTemplate;
 
-    public TiposComisionesService(TiposComisionesRepository tiposComisionesRepository) {
+    public TiposComisionesService(TiposComisionesRepository tiposComisionesRepository,
+            CatalogoCambiosService catalogoCambiosService, MongoTemplate mongoTemplate) {
         this.tiposComisionesRepository = tiposComisionesRepository;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.mongoTemplate = mongoTemplate;
     }
 
+    @Cacheable(CacheConfig.TIPOS_COMISIONES_ACTIVOS)
     @Transactional(readOnly = true)
     public List<TiposComisiones> findAll() {
         log.info("Obteniendo todos los tipos de comisiones activos");
-        return this.tiposComisionesRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        return List.copyOf(this.tiposComisionesRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<TiposComisiones> findPage(String after, int limit) {
+        log.info("Obteniendo página de tipos de comisiones activos después de {} (límite {})", after, limit);
+        String estado = EstadoGeneralEnum.ACTIVO.getValor();
+        if (after == null) {
+            return this.tiposComisionesRepository.findByEstadoOrderByIdAsc(estado, Limit.of(limit));
+        }
+        return this.tiposComisionesRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Limit.of(limit));
     }
 
+    @Cacheable(CacheConfig.TIPOS_COMISIONES)
     @Transactional(readOnly = true)
     public TiposComisiones findById(String id) {
         log.info("Buscando tipo de comisión con ID: {}", id);
@@ -38,60 +75,186 @@ public class TiposComisionesService {
                         "No se encontró el tipo de comisión con id: " + id));
     }
 
+    @Transactional(readOnly = true)
+    public List<TiposComisiones> findAll(Set<String> campos) {
+        log.info("Obteniendo tipos de comisión activos con los campos {}", campos);
+        return Proyecciones.activos(this.mongoTemplate, TiposComisiones.class, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TiposComisiones> findPage(String after, int limit, Set<String> campos) {
+        log.info("Obteniendo página de tipos de comisión activos después de {} con los campos {}", after, campos);
+        return Proyecciones.pagina(this.mongoTemplate, TiposComisiones.class, after, limit, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public TiposComisiones findById(String id, Set<String> campos) {
+        log.info("Buscando tipo de comisión con ID {} y los campos {}", id, campos);
+        TiposComisiones tipoComision = Proyecciones.porId(this.mongoTemplate, TiposComisiones.class, id, campos);
+        if (tipoComision == null) {
+            throw new EntityNotFoundException("TipoComisión",
+                "No se encontró el tipo de comisión con id: " + id);
+        }
+        return tipoComision;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TiposComisiones> findAllById(Collection<String> ids) {
+        log.info("Buscando {} tipos de comisión por ID", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.tiposComisionesRepository.findAllById(ids);
+    }
+
+    @CacheEvict(value = CacheConfig.TIPOS_COMISIONES_ACTIVOS, allEntries = true)
     @Transactional
     public TiposComisiones create(TiposComisiones tipoComision) {
         log.info("Creando nuevo tipo de comisión: {}", tipoComision);
         try {
-            // Validar si el tipo de comisión es válido
-            boolean tipoValido = false;
-            for (TipoComisionEnum tipo : TipoComisionEnum.values()) {
-                if (tipo.getValor().equals(tipoComision.getTipo())) {
-                    tipoValido = true;
-                    break;
-                }
-            }
-
-            if (!tipoValido) {
-                throw new CreateException("TipoComisión", "El tipo de comisión no es válido");
-            }
-
-            // Validar si el tipo de cálculo es válido
-            boolean tipoCalculoValido = false;
-            for (TipoCalculoComisionEnum tipoCalculo : TipoCalculoComisionEnum.values()) {
-                if (tipoCalculo.getValor().equals(tipoComision.getTipoCalculo())) {
-                    tipoCalculoValido = true;
-                    break;
-                }
-            }
-
-            if (!tipoCalculoValido) {
-                throw new CreateException("TipoComisión", "El tipo de cálculo no es válido");
+            String error = validar(tipoComision);
+            if (error != null) {
+                throw new CreateException("TipoComisión", error);
             }
 
+            tipoComision.setFechaModificacion(LocalDateTime.now());
             tipoComision.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
             tipoComision.setVersion(1L);
 
-            return this.tiposComisionesRepository.save(tipoComision);
+            TiposComisiones savedTipoComision = this.tiposComisionesRepository.save(tipoComision);
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.TIPOS_COMISIONES, savedTipoComision.getId());
+            return savedTipoComision;
         } catch (Exception e) {
             log.error("Error al crear tipo de comisión: {}", e.getMessage());
             throw new CreateException("TipoComisión", "Error al crear tipo de comisión: " + e.getMessage());
         }
     }
 
+    // Solo los campos recibidos se escriben con $set
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.TIPOS_COMISIONES, key = "#id"),
+            @CacheEvict(value = CacheConfig.TIPOS_COMISIONES_ACTIVOS, allEntries = true)
+    })
     @Transactional
-    public void delete(String id) {
-        log.info("Eliminando lógicamente el tipo de comisión con ID: {}", id);
+    public TiposComisiones patch(String id, Map<String, Object> cambios, Long version) {
+        log.info("Actualizando parcialmente el tipo de comisión con ID {}: {}", id, cambios.keySet());
+        if (cambios.isEmpty()) {
+            return this.findById(id);
+        }
         try {
-            TiposComisiones tipoComision = this.findById(id);
-            tipoComision.setEstado(EstadoGeneralEnum.INACTIVO.getValor());
-            tipoComision.setVersion(tipoComision.getVersion() + 1);
+            String campo = EscriturasAtomicas.campoNoEditable(cambios, CAMPOS_EDITABLES);
+            if (campo != null) {
+                throw new UpdateException("TipoComisión", "El campo " + campo + " no se puede modificar");
+            }
+            if (cambios.containsKey("tipo") && !tipoValido((String) cambios.get("tipo"))) {
+                throw new UpdateException("TipoComisión", "El tipo de comisión no es válido");
+            }
+            if (cambios.containsKey("tipoCalculo") && !tipoCalculoValido((String) cambios.get("tipoCalculo"))) {
+                throw new UpdateException("TipoComisión", "El tipo de cálculo no es válido");
+            }
 
-            this.tiposComisionesRepository.save(tipoComision);
-        } catch (EntityNotFoundException e) {
+            TiposComisiones tipoComisionActualizado = EscriturasAtomicas.modificar(this.mongoTemplate,
+                    TiposComisiones.class, id, version, EscriturasAtomicas.parche(cambios)
+                            .set("fechaModificacion", LocalDateTime.now())
+                            .inc("version", 1),
+                    "TipoComisión", "No se encontró el tipo de comisión con id: ");
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.TIPOS_COMISIONES, id);
+            return tipoComisionActualizado;
+        } catch (EntityNotFoundException | UpdateException | ConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al actualizar parcialmente tipo de comisión: {}", e.getMessage());
+            throw new UpdateException("TipoComisión", "Error al actualizar tipo de comisión: " + e.getMessage());
+        }
+    }
+
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.TIPOS_COMISIONES, key = "#id"),
+            @CacheEvict(value = CacheConfig.TIPOS_COMISIONES_ACTIVOS, allEntries = true)
+    })
+    @Transactional
+    public void delete(String id, Long version) {
+        log.info("Eliminando lógicamente el tipo de comisión con ID: {}", id);
+        try {
+            EscriturasAtomicas.modificar(this.mongoTemplate, TiposComisiones.class, id, version,
+                    OperacionesBulk.desactivacion(), "TipoComisión", "No se encontró el tipo de comisión con id: ");
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.TIPOS_COMISIONES, id);
+        } catch (EntityNotFoundException | ConflictException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al eliminar tipo de comisión: {}", e.getMessage());
             throw new DeleteException("TipoComisión", "Error al eliminar tipo de comisión: " + e.getMessage());
         }
     }
+
+    @Transactional
+    public List<ResultadoBulkDTO> createBulk(List<TiposComisiones> tiposComisiones) {
+        log.info("Creando {} tipos de comisión en lote", tiposComisiones.size());
+        BulkOperations operaciones = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                TiposComisiones.class);
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(tiposComisiones.size());
+        List<Integer> indices = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < tiposComisiones.size(); i++) {
+            TiposComisiones tipoComision = tiposComisiones.get(i);
+            String error = validar(tipoComision);
+            if (error != null) {
+                resultados.add(OperacionesBulk.error(i, null, error));
+            } else {
+                // El id se asigna antes del envío para poder informarlo en el resultado de cada elemento
+                tipoComision.setId(new ObjectId().toHexString());
+                tipoComision.setFechaModificacion(now);
+                tipoComision.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+                tipoComision.setVersion(1L);
+                operaciones.insert(tipoComision);
+                indices.add(i);
+                ids.add(tipoComision.getId());
+            }
+        }
+
+        resultados.addAll(OperacionesBulk.ejecutar(operaciones, indices, ids, ResultadoBulkEnum.CREADO));
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService,
+                ColeccionCatalogoEnum.TIPOS_COMISIONES);
+    }
+
+    @Transactional
+    public List<ResultadoBulkDTO> deleteBulk(List<String> ids) {
+        log.info("Eliminando lógicamente {} tipos de comisión en lote", ids.size());
+        List<ResultadoBulkDTO> resultados = OperacionesBulk.desactivar(this.mongoTemplate, TiposComisiones.class,
+                TiposComisiones::getId, ids, OperacionesBulk.desactivacion(),
+                "No se encontró el tipo de comisión con id: ");
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService,
+                ColeccionCatalogoEnum.TIPOS_COMISIONES);
+    }
+
+    // Devuelve el primer error de validación o null
+    private static String validar(TiposComisiones tipoComision) {
+        // Validar si el tipo de comisión es válido
+        if (!tipoValido(tipoComision.getTipo())) {
+            return "El tipo de comisión no es válido";
+        }
+
+        // Validar si el tipo de cálculo es válido
+        return tipoCalculoValido(tipoComision.getTipoCalculo()) ? null : "El tipo de cálculo no es válido";
+    }
+
+    private static boolean tipoValido(String valor) {
+        for (TipoComisionEnum tipo : TipoComisionEnum.values()) {
+            if (tipo.getValor().equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean tipoCalculoValido(String valor) {
+        for (TipoCalculoComisionEnum tipoCalculo : TipoCalculoComisionEnum.values()) {
+            if (tipoCalculo.getValor().equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
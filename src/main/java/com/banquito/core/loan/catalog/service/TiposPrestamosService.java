@@ -1,7 +1,13 @@
 package com.banquito.core.loan.catalog.service;
 
+import com.banquito.core.loan.catalog.config.CacheConfig;
+import com.banquito.core.loan.catalog.dto.ResultadoBulkDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EsquemaAmortizacionEnum;
 import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.enums.ResultadoBulkEnum;
 import com.banquito.core.loan.catalog.enums.TipoClienteEnum;
+import com.banquito.core.loan.catalog.exception.ConflictException;
 import com.banquito.core.loan.catalog.exception.CreateException;
 import com.banquito.core.loan.catalog.exception.DeleteException;
 import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
@@ -10,30 +16,68 @@ import com.banquito.core.loan.catalog.model.Garantias;
 import com.banquito.core.loan.catalog.model.TiposPrestamos;
 import com.banquito.core.loan.catalog.repository.TiposPrestamosRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 public class TiposPrestamosService {
 
+    private static final Set<String> CAMPOS_EDITABLES = Set.of("idMoneda", "nombre", "descripcion", "requisitos",
+            "tipoCliente", "idGarantia");
+
     private final TiposPrestamosRepository tiposPrestamosRepository;
     private final GarantiasService garantiasService;
+    private final CatalogoCambiosService catalogoCambiosService;
+    private final MongoTemplate mongoTemplate;
 
-    public TiposPrestamosService(TiposPrestamosRepository tiposPrestamosRepository, GarantiasService garantiasService) {
+    public TiposPrestamosService(TiposPrestamosRepository tiposPrestamosRepository, GarantiasService garantiasService,
+            CatalogoCambiosService catalogoCambiosService, MongoTemplate mongoTemplate) {
         this.tiposPrestamosRepository = tiposPrestamosRepository;
         this.garantiasService = garantiasService;
+        this.catalogoCambiosService = catalogoCambiosService;
+        this.mongoTemplate = mongoTemplate;
     }
 
+    @Cacheable(CacheConfig.TIPOS_PRESTAMOS_ACTIVOS)
     @Transactional(readOnly = true)
     public List<TiposPrestamos> findAll() {
         log.info("Obteniendo todos los tipos de préstamos activos");
-        return this.tiposPrestamosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        return List.copyOf(this.tiposPrestamosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor()));
     }
 
+    @Transactional(readOnly = true)
+    public List<TiposPrestamos> findPage(String after, int limit) {
+        log.info("Obteniendo página de tipos de préstamos activos después de {} (límite {})", after, limit);
+        String estado = EstadoGeneralEnum.ACTIVO.getValor();
+        if (after == null) {
+            return this.tiposPrestamosRepository.findByEstadoOrderByIdAsc(estado, Limit.of(limit));
+        }
+        return this.tiposPrestamosRepository.findByEstadoAndIdGreaterThanOrderByIdAsc(estado, after, Limit.of(limit));
+    }
+
+    @Cacheable(CacheConfig.TIPOS_PRESTAMOS)
     @Transactional(readOnly = true)
     public TiposPrestamos findById(String id) {
         log.info("Buscando tipo de préstamo con ID: {}", id);
@@ -42,45 +86,53 @@ public class TiposPrestamosService {
                         "No se encontró el tipo de préstamo con id: " + id));
     }
 
+    @Transactional(readOnly = true)
+    public List<TiposPrestamos> findAll(Set<String> campos) {
+        log.info("Obteniendo tipos de préstamo activos con los campos {}", campos);
+        return Proyecciones.activos(this.mongoTemplate, TiposPrestamos.class, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TiposPrestamos> findPage(String after, int limit, Set<String> campos) {
+        log.info("Obteniendo página de tipos de préstamo activos después de {} con los campos {}", after, campos);
+        return Proyecciones.pagina(this.mongoTemplate, TiposPrestamos.class, after, limit, campos);
+    }
+
+    @Transactional(readOnly = true)
+    public TiposPrestamos findById(String id, Set<String> campos) {
+        log.info("Buscando tipo de préstamo con ID {} y los campos {}", id, campos);
+        TiposPrestamos tipoPrestamo = Proyecciones.porId(this.mongoTemplate, TiposPrestamos.class, id, campos);
+        if (tipoPrestamo == null) {
+            throw new EntityNotFoundException("TipoPréstamo",
+                "No se encontró el tipo de préstamo con id: " + id);
+        }
+        return tipoPrestamo;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TiposPrestamos> findAllById(Collection<String> ids) {
+        log.info("Buscando {} tipos de préstamo por ID", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return this.tiposPrestamosRepository.findAllById(ids);
+    }
+
+    @CacheEvict(value = CacheConfig.TIPOS_PRESTAMOS_ACTIVOS, allEntries = true)
     @Transactional
     public TiposPrestamos create(TiposPrestamos tipoPrestamo) {
         log.info("Creando nuevo tipo de préstamo: {}", tipoPrestamo);
         try {
-            // Validar si la garantía existe
-            Garantias garantia;
-            try {
-                garantia = this.garantiasService.findById(tipoPrestamo.getIdGarantia());
-                if (!EstadoGeneralEnum.ACTIVO.getValor().equals(garantia.getEstado())) {
-                    throw new CreateException("TipoPréstamo", "La garantía está inactiva");
-                }
-            } catch (EntityNotFoundException e) {
-                throw new CreateException("TipoPréstamo", "La garantía especificada no existe");
-            }
-
-            // Validar si el tipo de cliente es válido
-            boolean tipoClienteValido = false;
-            for (TipoClienteEnum tipo : TipoClienteEnum.values()) {
-                if (tipo.getValor().equals(tipoPrestamo.getTipoCliente())) {
-                    tipoClienteValido = true;
-                    break;
-                }
-            }
-
-            if (!tipoClienteValido) {
-                throw new CreateException("TipoPréstamo", "El tipo de cliente no es válido");
+            String error = validar(tipoPrestamo, null, porId(this.garantiasService::findById));
+            if (error != null) {
+                throw new CreateException("TipoPréstamo", error);
             }
 
-            // Setear el esquema de amortización a FRANCES
-            tipoPrestamo.setEsquemaAmortizacion("FRANCES");
+            inicializar(tipoPrestamo, LocalDateTime.now());
 
-            // Setear fechas y estado
-            LocalDateTime now = LocalDateTime.now();
-            tipoPrestamo.setFechaCreacion(now);
-            tipoPrestamo.setFechaModificacion(now);
-            tipoPrestamo.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
-            tipoPrestamo.setVersion(1L);
-
-            return this.tiposPrestamosRepository.save(tipoPrestamo);
+            TiposPrestamos savedTipoPrestamo = this.tiposPrestamosRepository.save(tipoPrestamo);
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.TIPOS_PRESTAMOS, savedTipoPrestamo.getId());
+            return savedTipoPrestamo;
         } catch (CreateException e) {
             throw e;
         } catch (Exception e) {
@@ -89,50 +141,35 @@ public class TiposPrestamosService {
         }
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.TIPOS_PRESTAMOS, key = "#id"),
+            @CacheEvict(value = CacheConfig.TIPOS_PRESTAMOS_ACTIVOS, allEntries = true)
+    })
     @Transactional
     public TiposPrestamos update(String id, TiposPrestamos tipoPrestamo) {
         log.info("Actualizando tipo de préstamo con ID {}: {}", id, tipoPrestamo);
         try {
-            TiposPrestamos tipoPrestamoExistente = this.findById(id);
-
-            // Validar si la garantía existe
-            if (!tipoPrestamoExistente.getIdGarantia().equals(tipoPrestamo.getIdGarantia())) {
-                Garantias garantia;
-                try {
-                    garantia = this.garantiasService.findById(tipoPrestamo.getIdGarantia());
-                    if (!EstadoGeneralEnum.ACTIVO.getValor().equals(garantia.getEstado())) {
-                        throw new UpdateException("TipoPréstamo", "La garantía está inactiva");
-                    }
-                } catch (EntityNotFoundException e) {
-                    throw new UpdateException("TipoPréstamo", "La garantía especificada no existe");
-                }
-            }
-
-            // Validar si el tipo de cliente es válido
-            boolean tipoClienteValido = false;
-            for (TipoClienteEnum tipo : TipoClienteEnum.values()) {
-                if (tipo.getValor().equals(tipoPrestamo.getTipoCliente())) {
-                    tipoClienteValido = true;
-                    break;
-                }
-            }
-
-            if (!tipoClienteValido) {
-                throw new UpdateException("TipoPréstamo", "El tipo de cliente no es válido");
-            }
-
-            // Actualizar campos
-            tipoPrestamoExistente.setIdMoneda(tipoPrestamo.getIdMoneda());
-            tipoPrestamoExistente.setNombre(tipoPrestamo.getNombre());
-            tipoPrestamoExistente.setDescripcion(tipoPrestamo.getDescripcion());
-            tipoPrestamoExistente.setRequisitos(tipoPrestamo.getRequisitos());
-            tipoPrestamoExistente.setTipoCliente(tipoPrestamo.getTipoCliente());
-            tipoPrestamoExistente.setIdGarantia(tipoPrestamo.getIdGarantia());
-            tipoPrestamoExistente.setFechaModificacion(LocalDateTime.now());
-            tipoPrestamoExistente.setVersion(tipoPrestamoExistente.getVersion() + 1);
-
-            return this.tiposPrestamosRepository.save(tipoPrestamoExistente);
-        } catch (EntityNotFoundException | UpdateException e) {
+            // Sin lectura previa: la versión indicada y la garantía, si está inactiva y no debe cambiar, se
+            // exigen en el filtro del findAndModify
+            Criteria condicion = EscriturasAtomicas.condicion(id, tipoPrestamo.getVersion());
+            String error = this.validarGarantia(tipoPrestamo.getIdGarantia(), condicion);
+            if (error == null && !tipoClienteValido(tipoPrestamo.getTipoCliente())) {
+                error = "El tipo de cliente no es válido";
+            }
+            if (error != null) {
+                throw new UpdateException("TipoPréstamo", error);
+            }
+
+            TiposPrestamos tipoPrestamoActualizado = EscriturasAtomicas.modificar(this.mongoTemplate,
+                    TiposPrestamos.class, condicion, camposActualizables(tipoPrestamo)
+                            .set("fechaModificacion", LocalDateTime.now())
+                            .inc("version", 1));
+            if (tipoPrestamoActualizado == null) {
+                throw this.falloActualizacion(id, tipoPrestamo.getIdGarantia(), true, tipoPrestamo.getVersion());
+            }
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.TIPOS_PRESTAMOS, tipoPrestamoActualizado.getId());
+            return tipoPrestamoActualizado;
+        } catch (EntityNotFoundException | UpdateException | ConflictException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al actualizar tipo de préstamo: {}", e.getMessage());
@@ -140,21 +177,261 @@ public class TiposPrestamosService {
         }
     }
 
+    // Solo los campos recibidos se escriben con $set; la garantía se valida únicamente si viene en el parche
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.TIPOS_PRESTAMOS, key = "#id"),
+            @CacheEvict(value = CacheConfig.TIPOS_PRESTAMOS_ACTIVOS, allEntries = true)
+    })
     @Transactional
-    public void delete(String id) {
-        log.info("Eliminando lógicamente el tipo de préstamo con ID: {}", id);
+    public TiposPrestamos patch(String id, Map<String, Object> cambios, Long version) {
+        log.info("Actualizando parcialmente el tipo de préstamo con ID {}: {}", id, cambios.keySet());
+        if (cambios.isEmpty()) {
+            return this.findById(id);
+        }
         try {
-            TiposPrestamos tipoPrestamo = this.findById(id);
-            tipoPrestamo.setEstado(EstadoGeneralEnum.INACTIVO.getValor());
-            tipoPrestamo.setFechaModificacion(LocalDateTime.now());
-            tipoPrestamo.setVersion(tipoPrestamo.getVersion() + 1);
+            String campo = EscriturasAtomicas.campoNoEditable(cambios, CAMPOS_EDITABLES);
+            if (campo != null) {
+                throw new UpdateException("TipoPréstamo", "El campo " + campo + " no se puede modificar");
+            }
+            Criteria condicion = EscriturasAtomicas.condicion(id, version);
+            boolean cambiaGarantia = cambios.containsKey("idGarantia");
+            String idGarantia = (String) cambios.get("idGarantia");
+            String error = cambiaGarantia ? this.validarGarantia(idGarantia, condicion) : null;
+            if (error == null && cambios.containsKey("tipoCliente")
+                    && !tipoClienteValido((String) cambios.get("tipoCliente"))) {
+                error = "El tipo de cliente no es válido";
+            }
+            if (error != null) {
+                throw new UpdateException("TipoPréstamo", error);
+            }
+
+            TiposPrestamos tipoPrestamoActualizado = EscriturasAtomicas.modificar(this.mongoTemplate,
+                    TiposPrestamos.class, condicion, EscriturasAtomicas.parche(cambios)
+                            .set("fechaModificacion", LocalDateTime.now())
+                            .inc("version", 1));
+            if (tipoPrestamoActualizado == null) {
+                throw this.falloActualizacion(id, idGarantia, cambiaGarantia, version);
+            }
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.TIPOS_PRESTAMOS,
+                    tipoPrestamoActualizado.getId());
+            return tipoPrestamoActualizado;
+        } catch (EntityNotFoundException | UpdateException | ConflictException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error al actualizar parcialmente tipo de préstamo: {}", e.getMessage());
+            throw new UpdateException("TipoPréstamo", "Error al actualizar tipo de préstamo: " + e.getMessage());
+        }
+    }
 
-            this.tiposPrestamosRepository.save(tipoPrestamo);
-        } catch (EntityNotFoundException e) {
+    @Caching(evict = {
+            @CacheEvict(value = CacheConfig.TIPOS_PRESTAMOS, key = "#id"),
+            @CacheEvict(value = CacheConfig.TIPOS_PRESTAMOS_ACTIVOS, allEntries = true)
+    })
+    @Transactional
+    public void delete(String id, Long version) {
+        log.info("Eliminando lógicamente el tipo de préstamo con ID: {}", id);
+        try {
+            EscriturasAtomicas.modificar(this.mongoTemplate, TiposPrestamos.class, id, version,
+                    OperacionesBulk.desactivacion(), "TipoPréstamo", "No se encontró el tipo de préstamo con id: ");
+            this.catalogoCambiosService.registrar(ColeccionCatalogoEnum.TIPOS_PRESTAMOS, id);
+        } catch (EntityNotFoundException | ConflictException e) {
             throw e;
         } catch (Exception e) {
             log.error("Error al eliminar tipo de préstamo: {}", e.getMessage());
             throw new DeleteException("TipoPréstamo", "Error al eliminar tipo de préstamo: " + e.getMessage());
         }
     }
+
+    @Transactional
+    public List<ResultadoBulkDTO> createBulk(List<TiposPrestamos> tiposPrestamos) {
+        log.info("Creando {} tipos de préstamo en lote", tiposPrestamos.size());
+        Map<String, Garantias> garantias = this.cargarGarantias(tiposPrestamos);
+        BulkOperations operaciones = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                TiposPrestamos.class);
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(tiposPrestamos.size());
+        List<Integer> indices = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < tiposPrestamos.size(); i++) {
+            TiposPrestamos tipoPrestamo = tiposPrestamos.get(i);
+            String error = validar(tipoPrestamo, null, garantias::get);
+            if (error != null) {
+                resultados.add(OperacionesBulk.error(i, null, error));
+            } else {
+                // El id se asigna antes del envío para poder informarlo en el resultado de cada elemento
+                tipoPrestamo.setId(new ObjectId().toHexString());
+                inicializar(tipoPrestamo, now);
+                operaciones.insert(tipoPrestamo);
+                indices.add(i);
+                ids.add(tipoPrestamo.getId());
+            }
+        }
+
+        resultados.addAll(OperacionesBulk.ejecutar(operaciones, indices, ids, ResultadoBulkEnum.CREADO));
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService,
+                ColeccionCatalogoEnum.TIPOS_PRESTAMOS);
+    }
+
+    @Transactional
+    public List<ResultadoBulkDTO> updateBulk(List<TiposPrestamos> tiposPrestamos) {
+        log.info("Actualizando {} tipos de préstamo en lote", tiposPrestamos.size());
+        Map<String, TiposPrestamos> existentes = OperacionesBulk.indexarPorId(
+                this.tiposPrestamosRepository.findAllById(OperacionesBulk.ids(tiposPrestamos, TiposPrestamos::getId)),
+                TiposPrestamos::getId);
+        Map<String, Garantias> garantias = this.cargarGarantias(tiposPrestamos);
+        BulkOperations operaciones = this.mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                TiposPrestamos.class);
+        List<ResultadoBulkDTO> resultados = new ArrayList<>(tiposPrestamos.size());
+        List<Integer> indices = new ArrayList<>();
+        List<String> ids = new ArrayList<>();
+        List<Long> versiones = new ArrayList<>();
+        Set<String> procesados = new HashSet<>();
+        // Se guarda con precisión de milisegundos, la misma con la que se relee para detectar conflictos
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        for (int i = 0; i < tiposPrestamos.size(); i++) {
+            TiposPrestamos tipoPrestamo = tiposPrestamos.get(i);
+            TiposPrestamos tipoPrestamoExistente = existentes.get(tipoPrestamo.getId());
+            String error;
+            if (tipoPrestamo.getId() == null) {
+                error = "El id es requerido";
+            } else if (tipoPrestamoExistente == null) {
+                error = "No se encontró el tipo de préstamo con id: " + tipoPrestamo.getId();
+            } else if (!procesados.add(tipoPrestamo.getId())) {
+                error = "El tipo de préstamo está repetido en la solicitud";
+            } else {
+                error = validar(tipoPrestamo, tipoPrestamoExistente, garantias::get);
+            }
+
+            if (error != null) {
+                resultados.add(OperacionesBulk.error(i, tipoPrestamo.getId(), error));
+            } else if (tipoPrestamo.getVersion() != null
+                    && !tipoPrestamo.getVersion().equals(tipoPrestamoExistente.getVersion())) {
+                resultados.add(OperacionesBulk.conflicto(i, tipoPrestamo.getId(), tipoPrestamo.getVersion()));
+            } else {
+                // La validación se hizo sobre la versión leída: el updateOne solo aplica si sigue vigente
+                operaciones.updateOne(Query.query(EscriturasAtomicas.condicion(tipoPrestamoExistente.getId(),
+                        tipoPrestamoExistente.getVersion())), camposActualizables(tipoPrestamo)
+                                .set("fechaModificacion", now)
+                                .inc("version", 1));
+                indices.add(i);
+                ids.add(tipoPrestamoExistente.getId());
+                versiones.add(tipoPrestamoExistente.getVersion());
+            }
+        }
+
+        resultados.addAll(OperacionesBulk.ejecutarCondicional(this.mongoTemplate, TiposPrestamos.class,
+                TiposPrestamos::getId, TiposPrestamos::getVersion, operaciones, indices, ids, versiones, now));
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService,
+                ColeccionCatalogoEnum.TIPOS_PRESTAMOS);
+    }
+
+    @Transactional
+    public List<ResultadoBulkDTO> deleteBulk(List<String> ids) {
+        log.info("Eliminando lógicamente {} tipos de préstamo en lote", ids.size());
+        List<ResultadoBulkDTO> resultados = OperacionesBulk.desactivar(this.mongoTemplate, TiposPrestamos.class,
+                TiposPrestamos::getId, ids, OperacionesBulk.desactivacion(),
+                "No se encontró el tipo de préstamo con id: ");
+        return OperacionesBulk.finalizar(resultados, this.catalogoCambiosService,
+                ColeccionCatalogoEnum.TIPOS_PRESTAMOS);
+    }
+
+    private Map<String, Garantias> cargarGarantias(List<TiposPrestamos> tiposPrestamos) {
+        return OperacionesBulk.indexarPorId(this.garantiasService.findAllById(
+                OperacionesBulk.ids(tiposPrestamos, TiposPrestamos::getIdGarantia)), Garantias::getId);
+    }
+
+    // Devuelve el primer error de validación o null. Al actualizar la garantía solo se valida si cambia.
+    private static String validar(TiposPrestamos tipoPrestamo, TiposPrestamos tipoPrestamoExistente,
+            Function<String, Garantias> garantias) {
+        // Validar si la garantía existe
+        if (tipoPrestamoExistente == null
+                || !tipoPrestamoExistente.getIdGarantia().equals(tipoPrestamo.getIdGarantia())) {
+            Garantias garantia = garantias.apply(tipoPrestamo.getIdGarantia());
+            if (garantia == null) {
+                return "La garantía especificada no existe";
+            }
+            if (!EstadoGeneralEnum.ACTIVO.getValor().equals(garantia.getEstado())) {
+                return "La garantía está inactiva";
+            }
+        }
+
+        // Validar si el tipo de cliente es válido
+        return tipoClienteValido(tipoPrestamo.getTipoCliente()) ? null : "El tipo de cliente no es válido";
+    }
+
+    private static boolean tipoClienteValido(String valor) {
+        for (TipoClienteEnum tipo : TipoClienteEnum.values()) {
+            if (tipo.getValor().equals(valor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Una garantía activa siempre es válida; una inactiva solo si no cambia, condición que se agrega al filtro
+    private String validarGarantia(String idGarantia, Criteria condicion) {
+        Garantias garantia = idGarantia != null ? porId(this.garantiasService::findById).apply(idGarantia) : null;
+        if (garantia == null) {
+            return "La garantía especificada no existe";
+        }
+        if (!EstadoGeneralEnum.ACTIVO.getValor().equals(garantia.getEstado())) {
+            condicion.and("idGarantia").is(idGarantia);
+        }
+        return null;
+    }
+
+    // Ningún documento cumplió el filtro: se lee una sola vez para informar la causa
+    private RuntimeException falloActualizacion(String id, String idGarantia, boolean cambiaGarantia, Long version) {
+        TiposPrestamos tipoPrestamoExistente = this.tiposPrestamosRepository.findById(id).orElse(null);
+        if (tipoPrestamoExistente == null) {
+            return new EntityNotFoundException("TipoPréstamo", "No se encontró el tipo de préstamo con id: " + id);
+        }
+        if (version != null && !version.equals(tipoPrestamoExistente.getVersion())) {
+            return EscriturasAtomicas.conflicto("TipoPréstamo", id, version);
+        }
+        if (cambiaGarantia && !Objects.equals(idGarantia, tipoPrestamoExistente.getIdGarantia())) {
+            Garantias garantia = idGarantia != null ? porId(this.garantiasService::findById).apply(idGarantia)
+                    : null;
+            if (garantia == null) {
+                return new UpdateException("TipoPréstamo", "La garantía especificada no existe");
+            }
+            if (!EstadoGeneralEnum.ACTIVO.getValor().equals(garantia.getEstado())) {
+                return new UpdateException("TipoPréstamo", "La garantía está inactiva");
+            }
+        }
+        return EscriturasAtomicas.conflicto("TipoPréstamo", id, version);
+    }
+
+    private static <T> Function<String, T> porId(Function<String, T> busqueda) {
+        return id -> {
+            try {
+                return busqueda.apply(id);
+            } catch (EntityNotFoundException e) {
+                return null;
+            }
+        };
+    }
+
+    private static void inicializar(TiposPrestamos tipoPrestamo, LocalDateTime now) {
+        // Setear el esquema de amortización a FRANCES
+        tipoPrestamo.setEsquemaAmortizacion(EsquemaAmortizacionEnum.FRANCES.getValor());
+
+        // Setear fechas y estado
+        tipoPrestamo.setFechaCreacion(now);
+        tipoPrestamo.setFechaModificacion(now);
+        tipoPrestamo.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        tipoPrestamo.setVersion(1L);
+    }
+
+    private static Update camposActualizables(TiposPrestamos tipoPrestamo) {
+        return new Update()
+                .set("idMoneda", tipoPrestamo.getIdMoneda())
+                .set("nombre", tipoPrestamo.getNombre())
+                .set("descripcion", tipoPrestamo.getDescripcion())
+                .set("requisitos", tipoPrestamo.getRequisitos())
+                .set("tipoCliente", tipoPrestamo.getTipoCliente())
+                .set("idGarantia", tipoPrestamo.getIdGarantia());
+    }
 }
@@ -0,0 +1,205 @@
+package com.banquito.core.loan.catalog.service.reactive;
+
+import com.banquito.core.loan.catalog.dto.PrestamosDTO;
+import com.banquito.core.loan.catalog.dto.TiposPrestamosDTO;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.mapper.PrestamosMapper;
+import com.banquito.core.loan.catalog.mapper.TiposPrestamosMapper;
+import com.banquito.core.loan.catalog.model.Garantias;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.model.Seguros;
+import com.banquito.core.loan.catalog.model.TiposComisiones;
+import com.banquito.core.loan.catalog.model.TiposPrestamos;
+import com.banquito.core.loan.catalog.repository.reactive.ReactiveGarantiasRepository;
+import com.banquito.core.loan.catalog.repository.reactive.ReactivePrestamosRepository;
+import com.banquito.core.loan.catalog.repository.reactive.ReactiveSegurosRepository;
+import com.banquito.core.loan.catalog.repository.reactive.ReactiveTiposComisionesRepository;
+import com.banquito.core.loan.catalog.repository.reactive.ReactiveTiposPrestamosRepository;
+import com.banquito.core.loan.catalog.service.PrestamosRelacionesService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+// Resolución no bloqueante de las relaciones del catálogo: un préstamo consulta sus tres relaciones a la vez
+// (la garantía se encadena al tipo de préstamo) y los listados se procesan por lotes con una consulta $in por
+// colección relacionada. Solo se consultan las relaciones pedidas (PrestamosRelacionesService.RELACIONES).
+// Los listados se consumen a demanda del cliente (backpressure) con concatMap.
+@Slf4j
+@Service
+@Profile("reactive")
+public class RelacionesReactiveService {
+
+    private final ReactivePrestamosRepository prestamosRepository;
+    private final ReactiveTiposPrestamosRepository tiposPrestamosRepository;
+    private final ReactiveGarantiasRepository garantiasRepository;
+    private final ReactiveSegurosRepository segurosRepository;
+    private final ReactiveTiposComisionesRepository tiposComisionesRepository;
+    private final int tamanoLote;
+    private final Duration timeout;
+
+    public RelacionesReactiveService(
+            ReactivePrestamosRepository prestamosRepository,
+            ReactiveTiposPrestamosRepository tiposPrestamosRepository,
+            ReactiveGarantiasRepository garantiasRepository,
+            ReactiveSegurosRepository segurosRepository,
+            ReactiveTiposComisionesRepository tiposComisionesRepository,
+            @Value("${catalogo.reactivo.tamano-lote:200}") int tamanoLote,
+            @Value("${catalogo.relaciones.timeout-ms:2000}") long timeoutMs) {
+        this.prestamosRepository = prestamosRepository;
+        this.tiposPrestamosRepository = tiposPrestamosRepository;
+        this.garantiasRepository = garantiasRepository;
+        this.segurosRepository = segurosRepository;
+        this.tiposComisionesRepository = tiposComisionesRepository;
+        this.tamanoLote = tamanoLote;
+        this.timeout = Duration.ofMillis(timeoutMs);
+    }
+
+    public Flux<PrestamosDTO> findAllPrestamosWithRelations(Set<String> relaciones) {
+        return this.prestamosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor())
+                .buffer(this.tamanoLote)
+                .concatMap(lote -> this.mapToDTOsWithRelations(lote, relaciones));
+    }
+
+    public Mono<PrestamosDTO> findPrestamoByIdWithRelations(String id, Set<String> relaciones) {
+        return this.prestamosRepository.findById(id).flatMap(prestamo -> this.mapToDTOWithRelations(prestamo,
+                relaciones));
+    }
+
+    public Mono<PrestamosDTO> mapToDTOWithRelations(Prestamos prestamo) {
+        return this.mapToDTOWithRelations(prestamo, PrestamosRelacionesService.RELACIONES);
+    }
+
+    // Una relación no pedida se busca con id null, que no consulta la base y queda en null en el DTO
+    public Mono<PrestamosDTO> mapToDTOWithRelations(Prestamos prestamo, Set<String> relaciones) {
+        String contexto = "el préstamo " + prestamo.getId();
+        boolean conGarantia = relaciones.contains(PrestamosRelacionesService.TIPO_PRESTAMO_GARANTIA);
+        boolean conTipoPrestamo = conGarantia || relaciones.contains(PrestamosRelacionesService.TIPO_PRESTAMO);
+        Mono<Optional<TiposPrestamos>> tipoPrestamo = this.opcional(buscar(this.tiposPrestamosRepository::findById,
+                conTipoPrestamo ? prestamo.getIdTipoPrestamo() : null), "tipo de préstamo", contexto).cache();
+        Mono<Optional<Garantias>> garantia = tipoPrestamo.flatMap(tipo -> this.opcional(
+                buscar(this.garantiasRepository::findById,
+                        conGarantia ? tipo.map(TiposPrestamos::getIdGarantia).orElse(null) : null),
+                "garantía", contexto));
+        Mono<Optional<Seguros>> seguro = this.opcional(buscar(this.segurosRepository::findById,
+                relaciones.contains(PrestamosRelacionesService.SEGURO) ? prestamo.getIdSeguro() : null),
+                "seguro", contexto);
+        Mono<Optional<TiposComisiones>> tipoComision = this.opcional(buscar(this.tiposComisionesRepository::findById,
+                relaciones.contains(PrestamosRelacionesService.TIPO_COMISION) ? prestamo.getIdTipoComision() : null),
+                "tipo de comisión", contexto);
+
+        return Mono.zip(tipoPrestamo, garantia, seguro, tipoComision)
+                .map(encontradas -> PrestamosMapper.mapToDTOWithRelations(prestamo,
+                        encontradas.getT1().orElse(null),
+                        encontradas.getT2().orElse(null),
+                        encontradas.getT3().orElse(null),
+                        encontradas.getT4().orElse(null)));
+    }
+
+    public Flux<TiposPrestamosDTO> findAllTiposPrestamosWithGarantia() {
+        return this.tiposPrestamosRepository.findByEstado(EstadoGeneralEnum.ACTIVO.getValor())
+                .buffer(this.tamanoLote)
+                .concatMap(this::mapToDTOsWithGarantia);
+    }
+
+    public Mono<TiposPrestamosDTO> mapToDTOWithGarantia(TiposPrestamos tipoPrestamo) {
+        return this.opcional(buscar(this.garantiasRepository::findById, tipoPrestamo.getIdGarantia()),
+                "garantía", "el tipo de préstamo " + tipoPrestamo.getId())
+                .map(garantia -> garantia
+                        .map(encontrada -> TiposPrestamosMapper.mapToDTOWithGarantia(tipoPrestamo, encontrada))
+                        .orElseGet(() -> TiposPrestamosMapper.mapToDTO(tipoPrestamo)));
+    }
+
+    private Flux<PrestamosDTO> mapToDTOsWithRelations(List<Prestamos> lote, Set<String> relaciones) {
+        boolean conGarantia = relaciones.contains(PrestamosRelacionesService.TIPO_PRESTAMO_GARANTIA);
+        boolean conTipoPrestamo = conGarantia || relaciones.contains(PrestamosRelacionesService.TIPO_PRESTAMO);
+        boolean conSeguro = relaciones.contains(PrestamosRelacionesService.SEGURO);
+        boolean conTipoComision = relaciones.contains(PrestamosRelacionesService.TIPO_COMISION);
+        Set<String> idsTiposPrestamos = new HashSet<>();
+        Set<String> idsSeguros = new HashSet<>();
+        Set<String> idsTiposComisiones = new HashSet<>();
+        for (Prestamos prestamo : lote) {
+            if (conTipoPrestamo) {
+                agregarId(idsTiposPrestamos, prestamo.getIdTipoPrestamo());
+            }
+            if (conSeguro) {
+                agregarId(idsSeguros, prestamo.getIdSeguro());
+            }
+            if (conTipoComision) {
+                agregarId(idsTiposComisiones, prestamo.getIdTipoComision());
+            }
+        }
+
+        Mono<Map<String, TiposPrestamos>> tiposPrestamos = porId(this.tiposPrestamosRepository::findAllById,
+                idsTiposPrestamos, TiposPrestamos::getId).cache();
+        Mono<Map<String, Garantias>> garantias = tiposPrestamos.flatMap(tipos -> {
+            Set<String> idsGarantias = new HashSet<>();
+            if (conGarantia) {
+                tipos.values().forEach(tipo -> agregarId(idsGarantias, tipo.getIdGarantia()));
+            }
+            return porId(this.garantiasRepository::findAllById, idsGarantias, Garantias::getId);
+        });
+        Mono<Map<String, Seguros>> seguros = porId(this.segurosRepository::findAllById, idsSeguros,
+                Seguros::getId);
+        Mono<Map<String, TiposComisiones>> tiposComisiones = porId(this.tiposComisionesRepository::findAllById,
+                idsTiposComisiones, TiposComisiones::getId);
+
+        return Mono.zip(tiposPrestamos, garantias, seguros, tiposComisiones)
+                .flatMapMany(encontradas -> Flux.fromIterable(lote).map(prestamo -> {
+                    TiposPrestamos tipoPrestamo = encontradas.getT1().get(prestamo.getIdTipoPrestamo());
+                    Garantias garantia = tipoPrestamo != null && tipoPrestamo.getIdGarantia() != null
+                            ? encontradas.getT2().get(tipoPrestamo.getIdGarantia())
+                            : null;
+                    return PrestamosMapper.mapToDTOWithRelations(prestamo, tipoPrestamo, garantia,
+                            encontradas.getT3().get(prestamo.getIdSeguro()),
+                            encontradas.getT4().get(prestamo.getIdTipoComision()));
+                }));
+    }
+
+    private Flux<TiposPrestamosDTO> mapToDTOsWithGarantia(List<TiposPrestamos> lote) {
+        Set<String> idsGarantias = new HashSet<>();
+        lote.forEach(tipo -> agregarId(idsGarantias, tipo.getIdGarantia()));
+        return this.garantiasRepository.findAllById(idsGarantias)
+                .collectMap(Garantias::getId)
+                .flatMapMany(garantias -> Flux.fromIterable(lote).map(tipo -> {
+                    Garantias garantia = tipo.getIdGarantia() != null ? garantias.get(tipo.getIdGarantia()) : null;
+                    return garantia != null
+                            ? TiposPrestamosMapper.mapToDTOWithGarantia(tipo, garantia)
+                            : TiposPrestamosMapper.mapToDTO(tipo);
+                }));
+    }
+
+    // Una relación ausente o que no responde dentro del plazo se omite, igual que en el API servlet
+    private <T> Mono<Optional<T>> opcional(Mono<T> consulta, String relacion, String contexto) {
+        return consulta
+                .timeout(this.timeout, Mono.fromRunnable(
+                        () -> log.warn("Tiempo agotado al obtener {} para {}", relacion, contexto)))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private static <T> Mono<T> buscar(Function<String, Mono<T>> consulta, String id) {
+        return id != null ? consulta.apply(id) : Mono.empty();
+    }
+
+    private static <T> Mono<Map<String, T>> porId(Function<Set<String>, Flux<T>> consulta, Set<String> ids,
+            Function<T, String> id) {
+        return ids.isEmpty() ? Mono.just(Map.of()) : consulta.apply(ids).collectMap(id);
+    }
+
+    private static void agregarId(Set<String> ids, String id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+}
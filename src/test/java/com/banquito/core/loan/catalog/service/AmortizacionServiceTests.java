@@ -0,0 +1,104 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.CuotaAmortizacionDTO;
+import com.banquito.core.loan.catalog.dto.TablaAmortizacionDTO;
+import com.banquito.core.loan.catalog.enums.BaseCalculoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AmortizacionServiceTests {
+
+    private static final LocalDate INICIO = LocalDate.of(2025, 1, 15);
+
+    private final AmortizacionService amortizacionService = new AmortizacionService(mock(PrestamosService.class));
+
+    @Test
+    void redondeaCadaCuotaAlCentavo() {
+        // 1000 al 12 % anual en 30/360: 1 % mensual, cuota 88.8488 -> 88.85
+        TablaAmortizacionDTO tabla = this.amortizacionService.calcular(
+                prestamo("12", BaseCalculoEnum.BASE_30_360), new BigDecimal("1000.00"), 12, INICIO);
+
+        assertThat(tabla.getCuota()).isEqualByComparingTo("88.85");
+        CuotaAmortizacionDTO primera = tabla.getCuotas().get(0);
+        assertThat(primera.getInteres()).isEqualByComparingTo("10.00");
+        assertThat(primera.getCapital()).isEqualByComparingTo("78.85");
+        assertThat(primera.getSaldo()).isEqualByComparingTo("921.15");
+        // 921.15 * 1 % = 9.2115 -> 9.21
+        assertThat(tabla.getCuotas().get(1).getInteres()).isEqualByComparingTo("9.21");
+        assertThat(tabla.getCuotas())
+                .allSatisfy(cuota -> {
+                    assertThat(cuota.getCuota().scale()).isEqualTo(2);
+                    assertThat(cuota.getCuota()).isEqualByComparingTo(cuota.getCapital().add(cuota.getInteres()));
+                });
+    }
+
+    @Test
+    void laUltimaCuotaAbsorbeElResiduo() {
+        TablaAmortizacionDTO tabla = this.amortizacionService.calcular(
+                prestamo("12", BaseCalculoEnum.BASE_30_360), new BigDecimal("1000.00"), 12, INICIO);
+        List<CuotaAmortizacionDTO> cuotas = tabla.getCuotas();
+        CuotaAmortizacionDTO penultima = cuotas.get(10);
+        CuotaAmortizacionDTO ultima = cuotas.get(11);
+
+        assertThat(cuotas.subList(0, 11))
+                .allSatisfy(cuota -> assertThat(cuota.getCuota()).isEqualByComparingTo("88.85"));
+        // Se paga el saldo pendiente completo, no la cuota fija
+        assertThat(ultima.getCapital()).isEqualByComparingTo(penultima.getSaldo());
+        assertThat(ultima.getCuota()).isEqualByComparingTo("88.84");
+        assertThat(ultima.getSaldo()).isEqualByComparingTo("0.00");
+        assertThat(cuotas.stream().map(CuotaAmortizacionDTO::getCapital).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo("1000.00");
+        assertThat(tabla.getTotalPagado()).isEqualByComparingTo(
+                cuotas.stream().map(CuotaAmortizacionDTO::getCuota).reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertThat(tabla.getTotalPagado()).isEqualByComparingTo(tabla.getMonto().add(tabla.getTotalIntereses()));
+    }
+
+    @Test
+    void sinInteresLaUltimaCuotaEsMenor() {
+        // 100 / 3 = 33.333...: la cuota se redondea hacia arriba y la última cubre lo que falta
+        TablaAmortizacionDTO tabla = this.amortizacionService.calcular(
+                prestamo("0", BaseCalculoEnum.BASE_30_360), new BigDecimal("100.00"), 3, INICIO);
+
+        assertThat(tabla.getCuotas()).extracting(CuotaAmortizacionDTO::getCuota)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("33.34"), new BigDecimal("33.34"), new BigDecimal("33.32"));
+        assertThat(tabla.getTotalIntereses()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void elMontoSeRedondeaAlCentavoAntesDeCalcular() {
+        TablaAmortizacionDTO tabla = this.amortizacionService.calcular(
+                prestamo("0", BaseCalculoEnum.BASE_30_360), new BigDecimal("100.005"), 3, INICIO);
+
+        assertThat(tabla.getMonto()).isEqualByComparingTo("100.01");
+        assertThat(tabla.getTotalPagado()).isEqualByComparingTo("100.01");
+    }
+
+    @Test
+    void enBase31365ElInteresUsaLosDiasDelPeriodo() {
+        // 31/01 -> 28/02 son 28 días: 1000 * 12 % * 28 / 365 = 9.2055 -> 9.21
+        TablaAmortizacionDTO tabla = this.amortizacionService.calcular(
+                prestamo("12", BaseCalculoEnum.BASE_31_365), new BigDecimal("1000.00"), 2, LocalDate.of(2025, 1, 31));
+
+        assertThat(tabla.getCuotas().get(0).getFechaVencimiento()).isEqualTo(LocalDate.of(2025, 2, 28));
+        assertThat(tabla.getCuotas().get(0).getInteres()).isEqualByComparingTo("9.21");
+        assertThat(tabla.getCuotas().get(1).getSaldo()).isEqualByComparingTo("0.00");
+    }
+
+    private static Prestamos prestamo(String tasaInteres, BaseCalculoEnum baseCalculo) {
+        Prestamos prestamo = new Prestamos();
+        prestamo.setId("p1");
+        prestamo.setEstado(EstadoGeneralEnum.ACTIVO.getValor());
+        prestamo.setTasaInteres(new BigDecimal(tasaInteres));
+        prestamo.setBaseCalculo(baseCalculo.getValor());
+        return prestamo;
+    }
+}
@@ -0,0 +1,97 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.dto.BusquedaDTO;
+import com.banquito.core.loan.catalog.dto.ResultadoBusquedaDTO;
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.repository.PrestamosRepository;
+import com.banquito.core.loan.catalog.repository.TiposPrestamosRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BusquedaCatalogoServiceTests {
+
+    private static final String ACTIVO = EstadoGeneralEnum.ACTIVO.getValor();
+
+    private PrestamosRepository prestamosRepository;
+    private BusquedaCatalogoService busquedaCatalogoService;
+
+    @BeforeEach
+    void setUp() {
+        this.prestamosRepository = mock(PrestamosRepository.class);
+        TiposPrestamosRepository tiposPrestamosRepository = mock(TiposPrestamosRepository.class);
+        when(this.prestamosRepository.findByEstado(ACTIVO)).thenReturn(List.of(
+                prestamo("p1", "Préstamo de año Crédito", "Crédito hipotecario a 20 años"),
+                prestamo("p2", "Crédito automotriz", "Financiamiento de vehículos nuevos"),
+                prestamo("p3", "Microcrédito", "Capital de trabajo para pequeños negocios")));
+        when(tiposPrestamosRepository.findByEstado(ACTIVO)).thenReturn(List.of());
+        this.busquedaCatalogoService = new BusquedaCatalogoService(this.prestamosRepository,
+                tiposPrestamosRepository);
+        this.busquedaCatalogoService.cargar();
+    }
+
+    @Test
+    void buscaSinDistinguirTildesNiMayusculas() {
+        assertThat(ids(this.busquedaCatalogoService.buscar("PRESTAMO", 10))).containsExactly("p1");
+        assertThat(ids(this.busquedaCatalogoService.buscar("préstamo", 10))).containsExactly("p1");
+        assertThat(ids(this.busquedaCatalogoService.buscar("ano", 10))).containsExactly("p1");
+    }
+
+    @Test
+    void noPartePalabrasConTilde() {
+        // Con un separador solo ASCII "Crédito" se indexaba como "cr" y "dito"
+        assertThat(this.busquedaCatalogoService.buscar("dito", 10).getResultados()).isEmpty();
+        assertThat(ids(this.busquedaCatalogoService.buscar("credito", 10))).containsExactlyInAnyOrder("p1", "p2");
+    }
+
+    @Test
+    void aceptaTextoDescompuesto() {
+        // "é" como "e" + tilde combinable (NFD)
+        assertThat(ids(this.busquedaCatalogoService.buscar("Pre\u0301stamo", 10))).containsExactly("p1");
+    }
+
+    @Test
+    void elNombrePuntuaMasQueLaDescripcion() {
+        // p1 tiene "crédito" en nombre y descripción, p2 solo en el nombre
+        List<ResultadoBusquedaDTO> resultados = this.busquedaCatalogoService.buscar("crédito", 10).getResultados();
+        assertThat(resultados).extracting(ResultadoBusquedaDTO::getId).containsExactly("p1", "p2");
+        assertThat(resultados.get(0).getPuntaje()).isGreaterThan(resultados.get(1).getPuntaje());
+    }
+
+    @Test
+    void completaLaUltimaPalabraPorPrefijo() {
+        BusquedaDTO busqueda = this.busquedaCatalogoService.buscar("micro", 10);
+        assertThat(ids(busqueda)).containsExactly("p3");
+        assertThat(busqueda.getSugerencias()).containsExactly("microcrédito");
+    }
+
+    @Test
+    void unaSugerenciaNoConservaLaFormaDeUnTerminoEliminado() {
+        Prestamos renombrado = prestamo("p3", "MICROCREDITO", "Capital de trabajo para pequeños negocios");
+        when(this.prestamosRepository.findById("p3")).thenReturn(Optional.of(renombrado));
+        this.busquedaCatalogoService.onCambio(new CatalogoCambioEvent(ColeccionCatalogoEnum.PRESTAMOS, "p3"));
+
+        assertThat(this.busquedaCatalogoService.buscar("micro", 10).getSugerencias()).containsExactly("microcredito");
+    }
+
+    private static List<String> ids(BusquedaDTO busqueda) {
+        return busqueda.getResultados().stream().map(ResultadoBusquedaDTO::getId).toList();
+    }
+
+    private static Prestamos prestamo(String id, String nombre, String descripcion) {
+        Prestamos prestamo = new Prestamos();
+        prestamo.setId(id);
+        prestamo.setNombre(nombre);
+        prestamo.setDescripcion(descripcion);
+        prestamo.setEstado(ACTIVO);
+        return prestamo;
+    }
+}
@@ -0,0 +1,110 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.enums.ColeccionCatalogoEnum;
+import com.banquito.core.loan.catalog.enums.EstadoGeneralEnum;
+import com.banquito.core.loan.catalog.model.Prestamos;
+import com.banquito.core.loan.catalog.repository.PrestamosRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ElegibilidadPrestamosServiceTests {
+
+    private static final String ACTIVO = EstadoGeneralEnum.ACTIVO.getValor();
+
+    private PrestamosRepository prestamosRepository;
+    private ElegibilidadPrestamosService elegibilidadPrestamosService;
+
+    @BeforeEach
+    void setUp() {
+        this.prestamosRepository = mock(PrestamosRepository.class);
+        when(this.prestamosRepository.findByEstado(ACTIVO)).thenReturn(List.of(
+                prestamo("a", "1000", "5000", 6, 24),
+                prestamo("b", "5000", "20000", 12, 60),
+                prestamo("c", "1000", "3000", 6, 12),
+                // Sin rango de monto no entra en el índice
+                prestamo("d", null, "9000", 1, 60)));
+        this.elegibilidadPrestamosService = new ElegibilidadPrestamosService(this.prestamosRepository);
+        this.elegibilidadPrestamosService.cargar();
+    }
+
+    @Test
+    void losLimitesDelMontoSonInclusivos() {
+        assertThat(elegibles("1000", 12)).containsExactly("a", "c");
+        assertThat(elegibles("5000", 12)).containsExactly("a", "b");
+        assertThat(elegibles("20000", 12)).containsExactly("b");
+    }
+
+    @Test
+    void fueraDelRangoDeMontoNoHayElegibles() {
+        assertThat(elegibles("999.99", 12)).isEmpty();
+        assertThat(elegibles("5000.01", 12)).containsExactly("b");
+        assertThat(elegibles("20000.01", 12)).isEmpty();
+    }
+
+    @Test
+    void losLimitesDelPlazoSonInclusivos() {
+        assertThat(elegibles("2000", 6)).containsExactly("a", "c");
+        assertThat(elegibles("2000", 24)).containsExactly("a");
+        assertThat(elegibles("2000", 5)).isEmpty();
+        assertThat(elegibles("2000", 25)).isEmpty();
+    }
+
+    @Test
+    void unCambioActualizaSoloElPrestamoModificado() {
+        // Mismo montoMinimo: el préstamo conserva su posición y solo cambia el máximo
+        cambiar(prestamo("c", "1000", "8000", 6, 12));
+        assertThat(elegibles("6000", 12)).containsExactly("c", "b");
+
+        // Nuevo montoMinimo: pasa a otra posición del índice
+        cambiar(prestamo("c", "6000", "8000", 6, 12));
+        assertThat(elegibles("1000", 12)).containsExactly("a");
+        assertThat(elegibles("6000", 12)).containsExactly("b", "c");
+
+        cambiar(prestamo("e", "500", "1000", 1, 12));
+        assertThat(elegibles("1000", 12)).containsExactly("e", "a");
+    }
+
+    @Test
+    void unPrestamoDesactivadoDejaDeSerElegible() {
+        Prestamos inactivo = prestamo("a", "1000", "5000", 6, 24);
+        inactivo.setEstado(EstadoGeneralEnum.INACTIVO.getValor());
+        cambiar(inactivo);
+        assertThat(elegibles("1000", 12)).containsExactly("c");
+
+        when(this.prestamosRepository.findById("c")).thenReturn(Optional.empty());
+        this.elegibilidadPrestamosService.onCambio(new CatalogoCambioEvent(ColeccionCatalogoEnum.PRESTAMOS, "c"));
+        assertThat(elegibles("1000", 12)).isEmpty();
+    }
+
+    private List<String> elegibles(String monto, int plazoMeses) {
+        return this.elegibilidadPrestamosService.findElegibles(new BigDecimal(monto), plazoMeses).stream()
+                .map(Prestamos::getId)
+                .toList();
+    }
+
+    private void cambiar(Prestamos prestamo) {
+        when(this.prestamosRepository.findById(prestamo.getId())).thenReturn(Optional.of(prestamo));
+        this.elegibilidadPrestamosService.onCambio(
+                new CatalogoCambioEvent(ColeccionCatalogoEnum.PRESTAMOS, prestamo.getId()));
+    }
+
+    private static Prestamos prestamo(String id, String montoMinimo, String montoMaximo, int plazoMinimo,
+            int plazoMaximo) {
+        Prestamos prestamo = new Prestamos();
+        prestamo.setId(id);
+        prestamo.setEstado(ACTIVO);
+        prestamo.setMontoMinimo(montoMinimo != null ? new BigDecimal(montoMinimo) : null);
+        prestamo.setMontoMaximo(new BigDecimal(montoMaximo));
+        prestamo.setPlazoMinimoMeses(plazoMinimo);
+        prestamo.setPlazoMaximoMeses(plazoMaximo);
+        return prestamo;
+    }
+}
@@ -0,0 +1,83 @@
+package com.banquito.core.loan.catalog.service;
+
+import com.banquito.core.loan.catalog.exception.ConflictException;
+import com.banquito.core.loan.catalog.exception.EntityNotFoundException;
+import com.banquito.core.loan.catalog.model.Seguros;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EscriturasAtomicasTests {
+
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.mongoTemplate = mock(MongoTemplate.class);
+    }
+
+    @Test
+    void exigeLaVersionEnElFiltro() {
+        Seguros seguro = new Seguros("s1");
+        when(this.mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Seguros.class))).thenReturn(seguro);
+
+        Seguros modificado = EscriturasAtomicas.modificar(this.mongoTemplate, Seguros.class, "s1", 3L,
+                OperacionesBulk.desactivacion(), "Seguro", "No se encontró el seguro con id: ");
+
+        assertThat(modificado).isSameAs(seguro);
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(this.mongoTemplate).findAndModify(query.capture(), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Seguros.class));
+        assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("_id", "s1").append("version", 3L));
+    }
+
+    @Test
+    void unaVersionQueYaNoEsLaVigenteEsUnConflicto() {
+        // El filtro _id + version no encuentra nada, pero el documento existe: otra operación lo modificó
+        when(this.mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Seguros.class))).thenReturn(null);
+        when(this.mongoTemplate.exists(any(Query.class), eq(Seguros.class))).thenReturn(true);
+
+        assertThatThrownBy(() -> EscriturasAtomicas.modificar(this.mongoTemplate, Seguros.class, "s1", 3L,
+                OperacionesBulk.desactivacion(), "Seguro", "No se encontró el seguro con id: "))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("la versión 3 ya no es la vigente");
+    }
+
+    @Test
+    void unIdInexistenteNoEsUnConflicto() {
+        when(this.mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Seguros.class))).thenReturn(null);
+        when(this.mongoTemplate.exists(any(Query.class), eq(Seguros.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> EscriturasAtomicas.modificar(this.mongoTemplate, Seguros.class, "s1", 3L,
+                OperacionesBulk.desactivacion(), "Seguro", "No se encontró el seguro con id: "))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void sinVersionNoSeReleeElDocumento() {
+        when(this.mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Seguros.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> EscriturasAtomicas.modificar(this.mongoTemplate, Seguros.class, "s1", null,
+                OperacionesBulk.desactivacion(), "Seguro", "No se encontró el seguro con id: "))
+                .isInstanceOf(EntityNotFoundException.class);
+        verify(this.mongoTemplate, never()).exists(any(Query.class), eq(Seguros.class));
+    }
+}